@@ -0,0 +1,71 @@
+package com.opentable.reservation.benchmark;
+
+import com.opentable.reservation.dto.AvailabilityResponse;
+import com.opentable.reservation.repository.BookedSlot;
+import com.opentable.reservation.repository.ReservationRepository;
+import com.opentable.reservation.service.AvailabilityIndex;
+import com.opentable.reservation.service.AvailabilityService;
+import com.opentable.reservation.service.RoomSlotIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the availability grid of one room for 7, 30 and 365 days from the room's resident slot
+ * bitmap, loaded before measuring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class AvailabilityBenchmark {
+
+    // Inside the window the room bitmap keeps resident, which starts yesterday
+    private static final LocalDate START = LocalDate.now();
+
+    @Param({"7", "30", "365"})
+    public int days;
+
+    private UUID roomId;
+    private LocalDate endDate;
+    private AvailabilityService availabilityService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        roomId = UUID.randomUUID();
+        endDate = START.plusDays(days - 1);
+
+        NavigableMap<LocalDate, List<BookedSlot>> bookedSlots = BenchmarkFixtures.bookedSlots(roomId, START, 365);
+        ReservationRepository reservationRepository = BenchmarkFixtures.repository(ReservationRepository.class, Map.of(
+                "findActiveSlots", args -> BenchmarkFixtures.findActiveSlots(bookedSlots, args)
+        ));
+
+        availabilityService = new AvailabilityService(new AvailabilityIndex(new RoomSlotIndex(reservationRepository)));
+
+        // Load the room before measuring
+        availabilityService.getAvailability(roomId, START, endDate);
+    }
+
+    @Benchmark
+    public AvailabilityResponse availability() {
+        return availabilityService.getAvailability(roomId, START, endDate);
+    }
+}
@@ -0,0 +1,100 @@
+package com.opentable.reservation.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file with the committed baseline and prints the change of every
+ * benchmark. Exits with status 1 when any score is worse than the baseline by more than the
+ * threshold, or when a benchmark that ran has no baseline to compare with, so the comparison can
+ * gate a build. Scores recorded on a different JDK, JMH version or run settings are still compared
+ * but flagged, since they are not like for like.
+ * <p>
+ * Usage: {@code BaselineComparison <baseline.json> <result.json> [threshold-percent]}
+ */
+public final class BaselineComparison {
+
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10;
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <result.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        Map<String, Score> baseline = read(Path.of(args[0]));
+        Map<String, Score> current = read(Path.of(args[1]));
+
+        int regressions = 0;
+        int missing = 0;
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                missing++;
+                System.out.printf("%-70s %12.3f %-8s  NO BASELINE%n", entry.getKey(), now.value(), now.unit());
+                continue;
+            }
+            double change = (now.value() - before.value()) / before.value() * 100;
+            // Lower is better for time per operation, higher is better for throughput
+            double worse = now.higherIsBetter() ? -change : change;
+            boolean regressed = worse > threshold;
+            regressions += regressed ? 1 : 0;
+            String recordedUnder = now.environment().equals(before.environment()) ? "" : "  (baseline: " + before.environment() + ")";
+            System.out.printf("%-70s %12.3f %-8s %+7.1f%%%s%s%n",
+                    entry.getKey(), now.value(), now.unit(), change, regressed ? "  REGRESSION" : "", recordedUnder);
+        }
+        baseline.keySet().stream()
+                .filter(key -> !current.containsKey(key))
+                .forEach(key -> System.out.printf("%-70s (not run)%n", key));
+
+        if (missing > 0) {
+            System.out.printf("%d benchmark(s) have no baseline; record one by copying the result file over %s%n", missing, args[0]);
+        }
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) more than %.1f%% worse than the baseline%n", regressions, threshold);
+        }
+        if (missing > 0 || regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file.toFile())) {
+            Map<String, String> params = new TreeMap<>();
+            result.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            String benchmark = result.path("benchmark").asText().replace(BaselineComparison.class.getPackageName() + ".", "");
+            String key = params.isEmpty() ? benchmark : benchmark + params;
+
+            JsonNode metric = result.path("primaryMetric");
+            scores.put(key, new Score(metric.path("score").asDouble(), metric.path("scoreUnit").asText(),
+                    "thrpt".equals(result.path("mode").asText()), environment(result)));
+        }
+        return scores;
+    }
+
+    /**
+     * What a score depends on besides the code and the hardware: JDK, JMH version and run settings.
+     * JVM options are left out because they carry the checkout path.
+     */
+    private static String environment(JsonNode result) {
+        return "JDK %s %s, JMH %s, forks %d, warmup %dx%s, measurement %dx%s".formatted(
+                result.path("jdkVersion").asText(), result.path("vmName").asText(), result.path("jmhVersion").asText(),
+                result.path("forks").asInt(),
+                result.path("warmupIterations").asInt(), result.path("warmupTime").asText(),
+                result.path("measurementIterations").asInt(), result.path("measurementTime").asText());
+    }
+
+    private record Score(double value, String unit, boolean higherIsBetter, String environment) {
+    }
+}
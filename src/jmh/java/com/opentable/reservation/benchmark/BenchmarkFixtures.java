@@ -0,0 +1,120 @@
+package com.opentable.reservation.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.opentable.reservation.model.Restaurant;
+import com.opentable.reservation.model.Room;
+import com.opentable.reservation.model.TimeSlot;
+import com.opentable.reservation.repository.BookedSlot;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Shared data and collaborators for the benchmarks.
+ * <p>
+ * Repositories are replaced by in-memory stubs so that a benchmark measures the application code
+ * on the hot path and not the database round trip.
+ */
+final class BenchmarkFixtures {
+
+    // Share of each slot that is booked on a weekday; weekends add WEEKEND_UPLIFT
+    private static final Map<TimeSlot, Double> SLOT_DENSITY = Map.of(
+            TimeSlot.BREAKFAST, 0.10,
+            TimeSlot.LUNCH, 0.35,
+            TimeSlot.DINNER, 0.65,
+            TimeSlot.LATE_NIGHT, 0.20
+    );
+    private static final double WEEKEND_UPLIFT = 0.20;
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Implements a repository interface with the given handlers keyed by method name; any other
+     * method throws, so a benchmark cannot silently depend on an unstubbed call.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> handlers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> handler = handlers.get(method.getName());
+            if (handler == null) {
+                throw new UnsupportedOperationException("%s.%s is not stubbed".formatted(type.getSimpleName(), method.getName()));
+            }
+            return handler.apply(args);
+        });
+    }
+
+    /**
+     * An ObjectMapper with the modules and date format Spring Boot's Jackson auto-configuration applies.
+     */
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    /**
+     * Books each slot of each day from start with a fixed-seed probability: dinner is the busiest
+     * slot, breakfast the quietest, and Friday to Sunday are busier than weekdays.
+     */
+    static NavigableMap<LocalDate, List<BookedSlot>> bookedSlots(UUID roomId, LocalDate start, int days) {
+        Random random = new Random(42);
+        NavigableMap<LocalDate, List<BookedSlot>> bookedSlots = new TreeMap<>();
+        for (int day = 0; day < days; day++) {
+            LocalDate date = start.plusDays(day);
+            DayOfWeek dayOfWeek = date.getDayOfWeek();
+            double uplift = dayOfWeek.getValue() >= DayOfWeek.FRIDAY.getValue() ? WEEKEND_UPLIFT : 0;
+            List<BookedSlot> booked = new ArrayList<>();
+            for (TimeSlot timeSlot : TimeSlot.values()) {
+                if (random.nextDouble() < SLOT_DENSITY.get(timeSlot) + uplift) {
+                    booked.add(new BookedSlot(roomId, date, timeSlot));
+                }
+            }
+            bookedSlots.put(date, booked);
+        }
+        return bookedSlots;
+    }
+
+    /**
+     * Answers findActiveSlots the way the room query does, with the room's booked slots between the
+     * start and end arguments (inclusive).
+     */
+    static List<BookedSlot> findActiveSlots(NavigableMap<LocalDate, List<BookedSlot>> bookedSlots, Object[] args) {
+        List<BookedSlot> result = new ArrayList<>();
+        bookedSlots.subMap((LocalDate) args[1], true, (LocalDate) args[2], true).values().forEach(result::addAll);
+        return result;
+    }
+
+    static Room room() {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(UUID.randomUUID());
+        restaurant.setName("Benchmark Bistro");
+        restaurant.setCity("San Francisco");
+        restaurant.setCurrency("USD");
+
+        Room.MinimumSpend minimumSpend = new Room.MinimumSpend();
+        minimumSpend.setAmount(new BigDecimal("500.00"));
+        minimumSpend.setCurrency("USD");
+        return Room.builder()
+                .id(UUID.randomUUID())
+                .restaurant(restaurant)
+                .name("Wine Cellar")
+                .roomType(Room.RoomType.PRIVATE_ROOM)
+                .minCapacity(4)
+                .maxCapacity(20)
+                .minimumSpend(minimumSpend)
+                .build();
+    }
+}
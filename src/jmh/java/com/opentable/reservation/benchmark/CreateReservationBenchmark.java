@@ -0,0 +1,121 @@
+package com.opentable.reservation.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opentable.reservation.dto.CreateReservationRequest;
+import com.opentable.reservation.dto.ReservationResponse;
+import com.opentable.reservation.exception.BusinessException;
+import com.opentable.reservation.model.Reservation;
+import com.opentable.reservation.model.Room;
+import com.opentable.reservation.model.TimeSlot;
+import com.opentable.reservation.repository.ArchivedReservationRepository;
+import com.opentable.reservation.repository.OutboxEventRepository;
+import com.opentable.reservation.repository.ReservationRepository;
+import com.opentable.reservation.repository.RestaurantRepository;
+import com.opentable.reservation.repository.RoomRepository;
+import com.opentable.reservation.repository.RoomRules;
+import com.opentable.reservation.service.AvailabilityIndex;
+import com.opentable.reservation.service.ReservationOutbox;
+import com.opentable.reservation.service.ReservationService;
+import com.opentable.reservation.service.RoomRulesCatalog;
+import com.opentable.reservation.service.RoomSlotIndex;
+import com.opentable.reservation.service.SlotClaimTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link ReservationService#createReservation} end to end with in-memory repositories: room
+ * rules from a warm {@link RoomRulesCatalog}, booking rules, slot claim, the active-slot check, building the entity, availability
+ * invalidation, writing the outbox event and mapping the response.
+ * <p>
+ * {@code accepted} measures a booking that passes every rule; {@code rejected} one that fails the
+ * minimum-spend rule, which includes the cost of the {@link BusinessException}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class CreateReservationBenchmark {
+
+    private ReservationService reservationService;
+    private CreateReservationRequest acceptedRequest;
+    private CreateReservationRequest rejectedRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Room room = BenchmarkFixtures.room();
+        ObjectMapper objectMapper = BenchmarkFixtures.objectMapper();
+
+        RoomRepository roomRepository = BenchmarkFixtures.repository(RoomRepository.class, Map.of(
+                "findAllRoomRules", args -> List.of(RoomRules.from(room)),
+                "getReferenceById", args -> room
+        ));
+        RestaurantRepository restaurantRepository = BenchmarkFixtures.repository(RestaurantRepository.class, Map.of(
+                "getReferenceById", args -> room.getRestaurant()
+        ));
+        RoomRulesCatalog roomRulesCatalog = new RoomRulesCatalog(roomRepository);
+        roomRulesCatalog.refresh();
+        ReservationRepository reservationRepository = BenchmarkFixtures.repository(ReservationRepository.class, Map.of(
+                "existsByRoomIdAndReservationDateAndTimeSlotAndStatusIn", args -> false,
+                "save", args -> {
+                    Reservation reservation = (Reservation) args[0];
+                    reservation.setId(UUID.randomUUID());
+                    return reservation;
+                }
+        ));
+        OutboxEventRepository outboxEventRepository = BenchmarkFixtures.repository(OutboxEventRepository.class, Map.of(
+                "save", args -> args[0]
+        ));
+
+        reservationService = new ReservationService(
+                roomRepository,
+                restaurantRepository,
+                roomRulesCatalog,
+                reservationRepository,
+                BenchmarkFixtures.repository(ArchivedReservationRepository.class, Map.of()),
+                new ReservationOutbox(outboxEventRepository, objectMapper),
+                new AvailabilityIndex(new RoomSlotIndex(reservationRepository)),
+                new SlotClaimTable(),
+                TransactionOperations.withoutTransaction()
+        );
+
+        CreateReservationRequest.Diner diner = new CreateReservationRequest.Diner("Sam Smith", "sam.smith@example.com", "+13087469999");
+        LocalDate date = LocalDate.of(2030, 6, 14);
+        acceptedRequest = new CreateReservationRequest(room.getId(), date, TimeSlot.DINNER, 12,
+                new CreateReservationRequest.MonetaryAmount(new BigDecimal("1200.00"), "USD"), "Vegetarian menu", diner);
+        rejectedRequest = new CreateReservationRequest(room.getId(), date, TimeSlot.DINNER, 12,
+                new CreateReservationRequest.MonetaryAmount(new BigDecimal("100.00"), "USD"), null, diner);
+    }
+
+    @Benchmark
+    public ReservationResponse accepted() {
+        return reservationService.createReservation(acceptedRequest);
+    }
+
+    @Benchmark
+    public Object rejected() {
+        try {
+            return reservationService.createReservation(rejectedRequest);
+        } catch (BusinessException e) {
+            return e;
+        }
+    }
+}
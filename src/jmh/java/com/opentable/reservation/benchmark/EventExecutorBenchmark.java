@@ -0,0 +1,97 @@
+package com.opentable.reservation.benchmark;
+
+import com.opentable.reservation.config.AsyncConfiguration;
+import com.opentable.reservation.config.EventExecutorProperties;
+import com.opentable.reservation.config.EventExecutorProperties.Pool;
+import com.opentable.reservation.config.EventExecutorProperties.RejectionPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a burst of blocking listener tasks through the event executors built by
+ * {@link AsyncConfiguration}, on the fixed pool and on virtual threads at the same concurrency.
+ * <p>
+ * Each task sleeps as long as a call to a downstream service. The pool gets {@code concurrency}
+ * threads and a queue large enough for the burst; the virtual-thread executor gets a concurrency
+ * limit of {@code concurrency}. What differs is only the cost of the threads, which grows with the
+ * concurrency the pool has to keep alive. The {@code virtual} runs need Java 21.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class EventExecutorBenchmark {
+
+    private static final int TASKS = 1000;
+    private static final long DOWNSTREAM_LATENCY_MILLIS = 5;
+
+    @Param({"pool", "virtual"})
+    public String executor;
+
+    @Param({"16", "256"})
+    public int concurrency;
+
+    private AsyncTaskExecutor taskExecutor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean virtual = "virtual".equals(executor);
+        // The virtual-thread limit is max pool size plus queue capacity, so it gets no queue
+        Pool pool = new Pool(concurrency, concurrency, virtual ? 0 : TASKS, RejectionPolicy.CALLER_RUNS);
+        MockEnvironment environment = new MockEnvironment().withProperty("spring.threads.virtual.enabled", Boolean.toString(virtual));
+        taskExecutor = new AsyncConfiguration(new EventExecutorProperties(Map.of("benchmark", pool)), new SimpleMeterRegistry(), environment)
+                .eventExecutor("benchmark");
+
+        if (virtual && !(taskExecutor instanceof SimpleAsyncTaskExecutor)) {
+            throw new IllegalStateException("Virtual threads need Java 21 or later");
+        }
+        if (taskExecutor instanceof ThreadPoolTaskExecutor threadPoolTaskExecutor) {
+            threadPoolTaskExecutor.initialize();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (taskExecutor instanceof ThreadPoolTaskExecutor threadPoolTaskExecutor) {
+            threadPoolTaskExecutor.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void blockingListeners() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            taskExecutor.execute(() -> {
+                try {
+                    Thread.sleep(DOWNSTREAM_LATENCY_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+    }
+}
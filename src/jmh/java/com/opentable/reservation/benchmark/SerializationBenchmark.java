@@ -0,0 +1,109 @@
+package com.opentable.reservation.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.opentable.reservation.dto.AvailabilityResponse;
+import com.opentable.reservation.dto.ReservationResponse;
+import com.opentable.reservation.model.Reservation;
+import com.opentable.reservation.model.ReservationStatus;
+import com.opentable.reservation.model.Room;
+import com.opentable.reservation.model.TimeSlot;
+import com.opentable.reservation.repository.BookedSlot;
+import com.opentable.reservation.repository.ReservationRepository;
+import com.opentable.reservation.service.AvailabilityIndex;
+import com.opentable.reservation.service.AvailabilityService;
+import com.opentable.reservation.service.RoomSlotIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes response bodies with an ObjectMapper configured as Spring Boot configures it.
+ * <p>
+ * {@code availability} writes the grid for 7, 30 and 365 days; {@code reservation} maps a
+ * reservation entity with {@link ReservationResponse#from(Reservation)} and writes the result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class SerializationBenchmark {
+
+    private static final LocalDate START = LocalDate.of(2030, 1, 1);
+
+    private ObjectWriter objectWriter;
+    private Reservation reservation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectWriter = BenchmarkFixtures.objectMapper().writer();
+
+        Room room = BenchmarkFixtures.room();
+        reservation = new Reservation();
+        reservation.setId(UUID.randomUUID());
+        reservation.setRoom(room);
+        reservation.setRestaurant(room.getRestaurant());
+        reservation.setReservationDate(START);
+        reservation.setTimeSlot(TimeSlot.DINNER);
+        reservation.setPartySize(12);
+        reservation.setStatus(ReservationStatus.CONFIRMED);
+        reservation.setDinerName("Sam Smith");
+        reservation.setDinerEmail("sam.smith@example.com");
+        reservation.setDinerPhone("+13087469999");
+        reservation.setSpecialRequests("Vegetarian menu");
+        reservation.setCreatedAt(OffsetDateTime.now());
+        reservation.setUpdatedAt(OffsetDateTime.now());
+    }
+
+    @Benchmark
+    public byte[] availability(Grid grid) throws JsonProcessingException {
+        return objectWriter.writeValueAsBytes(grid.availabilityResponse);
+    }
+
+    @Benchmark
+    public byte[] reservation() throws JsonProcessingException {
+        return objectWriter.writeValueAsBytes(ReservationResponse.from(reservation));
+    }
+
+    /**
+     * The availability grid, kept in its own state so that only the grid benchmark is run per range.
+     */
+    @State(Scope.Benchmark)
+    public static class Grid {
+
+        @Param({"7", "30", "365"})
+        public int days;
+
+        private AvailabilityResponse availabilityResponse;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            UUID roomId = UUID.randomUUID();
+            NavigableMap<LocalDate, List<BookedSlot>> bookedSlots = BenchmarkFixtures.bookedSlots(roomId, START, days);
+            ReservationRepository reservationRepository = BenchmarkFixtures.repository(ReservationRepository.class, Map.of(
+                    "findActiveSlots", args -> BenchmarkFixtures.findActiveSlots(bookedSlots, args)
+            ));
+            availabilityResponse = new AvailabilityService(new AvailabilityIndex(new RoomSlotIndex(reservationRepository)))
+                    .getAvailability(roomId, START, START.plusDays(days - 1));
+        }
+    }
+}
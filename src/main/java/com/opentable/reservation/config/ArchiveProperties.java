@@ -0,0 +1,17 @@
+package com.opentable.reservation.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.Period;
+
+/**
+ * Settings for moving past reservations to the archive, bound from {@code app.archive}.
+ *
+ * @param horizon   how far in the past a reservation must be before it is archived
+ * @param batchSize reservations moved per transaction
+ * @param interval  delay between the end of one archival run and the start of the next
+ */
+@ConfigurationProperties(prefix = "app.archive")
+public record ArchiveProperties(Period horizon, int batchSize, Duration interval) {
+}
@@ -1,60 +1,224 @@
 package com.opentable.reservation.config;
 
+import com.opentable.reservation.config.EventExecutorProperties.RejectionPolicy;
+import com.opentable.reservation.service.OutboxDelivery;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Configures a custom thread pool for @Async methods to prevent blocking the main application threads.
+ * Configures bounded thread pools for @Async event listeners.
+ * <p>
+ * Each listener class gets its own pool, so slow notifications cannot starve audit logging or
+ * analytics. Pool sizes, queue capacity and the rejection policy come from {@link EventExecutorProperties}.
+ * Every pool reports its queue depth, active and pool threads, and rejected tasks as
+ * {@code events.executor.*} meters tagged with the pool name. Tasks carry the outbox delivery they
+ * were submitted under ({@link OutboxDelivery}), so the relay only marks an event published once its
+ * listener tasks have run, and a failed task sends the event back to the outbox for another attempt.
+ * <p>
+ * When {@code spring.threads.virtual.enabled} is set and the JVM supports virtual threads, each
+ * listener task runs on its own virtual thread instead. The pool's admission bound
+ * (max pool size plus queue capacity) becomes a concurrency limit that makes submitters wait,
+ * so blocking listeners are limited by the downstream service rather than by a thread count. Queue
+ * and rejection meters are still reported: tasks waiting for a permit count as queued, submissions
+ * that hit the limit count as rejections with the {@code WAIT} policy, and the limit itself is
+ * published as {@code events.executor.concurrency.limit}.
  */
 @Slf4j
 @Configuration
+@EnableConfigurationProperties(EventExecutorProperties.class)
 public class AsyncConfiguration implements AsyncConfigurer {
 
+    public static final String NOTIFICATION_EXECUTOR = "notificationExecutor";
+    public static final String AUDIT_EXECUTOR = "auditExecutor";
+    public static final String ANALYTICS_EXECUTOR = "analyticsExecutor";
+    public static final String DEFAULT_EXECUTOR = "defaultEventExecutor";
+
+    private final EventExecutorProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final boolean virtualThreads;
+
+    public AsyncConfiguration(EventExecutorProperties properties, MeterRegistry meterRegistry, Environment environment) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+    }
+
+    @Bean(NOTIFICATION_EXECUTOR)
+    public AsyncTaskExecutor notificationExecutor() {
+        return eventExecutor("notification");
+    }
+
+    @Bean(AUDIT_EXECUTOR)
+    public AsyncTaskExecutor auditExecutor() {
+        return eventExecutor("audit");
+    }
+
+    @Bean(ANALYTICS_EXECUTOR)
+    public AsyncTaskExecutor analyticsExecutor() {
+        return eventExecutor("analytics");
+    }
+
     /**
-     * Configures a custom thread pool executor for async event processing.
-     * This ensures event listeners don't block the main transaction threads.
+     * Executor for @Async methods that do not name a pool.
      */
+    @Bean(DEFAULT_EXECUTOR)
+    public AsyncTaskExecutor defaultEventExecutor() {
+        return eventExecutor("default");
+    }
+
     @Override
     public Executor getAsyncExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        return defaultEventExecutor();
+    }
 
-        // Core pool size: number of threads to keep alive
-        executor.setCorePoolSize(5);
+    /**
+     * Handles uncaught exceptions thrown from async methods.
+     */
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (throwable, method, params) -> {
+            OutboxDelivery.failCurrent(throwable);
+            log.error("Uncaught exception in async method: {} with params: {}",
+                    method.getName(), params, throwable);
+        };
+    }
+
+    /**
+     * Builds the executor for the named settings and registers its meters: a virtual-thread executor
+     * when virtual threads are active, otherwise an uninitialized pool, which the container
+     * initializes and shuts down like any other executor bean.
+     */
+    public AsyncTaskExecutor eventExecutor(String name) {
+        return virtualThreads ? virtualThreadExecutor(name) : threadPoolExecutor(name);
+    }
+
+    private SimpleAsyncTaskExecutor virtualThreadExecutor(String name) {
+        EventExecutorProperties.Pool pool = properties.pool(name);
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("event-" + name + "-");
+        executor.setVirtualThreads(true);
+
+        // Same admission bound as the pool, but every admitted task runs; further submitters wait
+        int concurrencyLimit = pool.maxPoolSize() + pool.queueCapacity();
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setTaskTerminationTimeout(30_000);
+
+        // Tasks count as queued from submission until they start, which includes submitters waiting for a permit
+        AtomicInteger queued = new AtomicInteger();
+        AtomicInteger active = new AtomicInteger();
+        Counter throttled = Counter.builder("events.executor.rejected")
+                .description("Event tasks submitted at the concurrency limit, whose submitter had to wait")
+                .tag("executor", name)
+                .tag("policy", "WAIT")
+                .register(meterRegistry);
+        executor.setTaskDecorator(task -> {
+            if (queued.get() + active.get() >= concurrencyLimit) {
+                throttled.increment();
+            }
+            queued.incrementAndGet();
+            Runnable delivered = OutboxDelivery.propagate(task);
+            return () -> {
+                queued.decrementAndGet();
+                active.incrementAndGet();
+                try {
+                    delivered.run();
+                } finally {
+                    active.decrementAndGet();
+                }
+            };
+        });
+        Gauge.builder("events.executor.queued", queued, AtomicInteger::get)
+                .description("Event tasks submitted but not yet running")
+                .tag("executor", name)
+                .register(meterRegistry);
+        Gauge.builder("events.executor.queue.remaining", active, a -> Math.max(0, concurrencyLimit - a.get() - queued.get()))
+                .description("Tasks that can still be submitted before submitters wait")
+                .tag("executor", name)
+                .register(meterRegistry);
+        Gauge.builder("events.executor.active", active, AtomicInteger::get)
+                .description("Threads currently running event tasks")
+                .tag("executor", name)
+                .register(meterRegistry);
+        Gauge.builder("events.executor.concurrency.limit", () -> concurrencyLimit)
+                .description("Event tasks allowed to run at once")
+                .tag("executor", name)
+                .register(meterRegistry);
+
+        log.info("Event executor '{}' configured on virtual threads with concurrency limit: {}", name, concurrencyLimit);
+        return executor;
+    }
 
-        // Max pool size: maximum number of threads
-        executor.setMaxPoolSize(10);
+    private ThreadPoolTaskExecutor threadPoolExecutor(String name) {
+        EventExecutorProperties.Pool pool = properties.pool(name);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
 
-        // Queue capacity: number of tasks to queue before creating new threads
-        executor.setQueueCapacity(100);
+        executor.setCorePoolSize(pool.corePoolSize());
+        executor.setMaxPoolSize(pool.maxPoolSize());
+        executor.setQueueCapacity(pool.queueCapacity());
 
         // Thread name prefix for easier debugging
-        executor.setThreadNamePrefix("async-event-");
+        executor.setThreadNamePrefix("event-" + name + "-");
+        executor.setTaskDecorator(OutboxDelivery::propagate);
+
+        Counter rejected = Counter.builder("events.executor.rejected")
+                .description("Event tasks rejected because the pool and its queue were full")
+                .tag("executor", name)
+                .tag("policy", pool.rejectionPolicy().name())
+                .register(meterRegistry);
+        RejectedExecutionHandler policy = rejectionHandler(pool.rejectionPolicy());
+        executor.setRejectedExecutionHandler((task, threadPool) -> {
+            rejected.increment();
+            log.debug("Event executor '{}' saturated (queue {}), applying {}", name, threadPool.getQueue().size(), pool.rejectionPolicy());
+            policy.rejectedExecution(task, threadPool);
+        });
 
         // Graceful shutdown: wait for tasks to complete before shutting down
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(30);
 
-        executor.initialize();
-
-        log.info("Async executor configured with core pool size: {}, max pool size: {}",
-                executor.getCorePoolSize(), executor.getMaxPoolSize());
+        Gauge.builder("events.executor.queued", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Event tasks waiting in the queue")
+                .tag("executor", name)
+                .register(meterRegistry);
+        Gauge.builder("events.executor.queue.remaining", executor, e -> pool.queueCapacity() - e.getQueueSize())
+                .description("Free slots left in the queue")
+                .tag("executor", name)
+                .register(meterRegistry);
+        Gauge.builder("events.executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Threads currently running event tasks")
+                .tag("executor", name)
+                .register(meterRegistry);
+        Gauge.builder("events.executor.pool.size", executor, ThreadPoolTaskExecutor::getPoolSize)
+                .description("Threads currently in the pool")
+                .tag("executor", name)
+                .register(meterRegistry);
 
+        log.info("Event executor '{}' configured with core pool size: {}, max pool size: {}, queue capacity: {}, rejection policy: {}",
+                name, pool.corePoolSize(), pool.maxPoolSize(), pool.queueCapacity(), pool.rejectionPolicy());
         return executor;
     }
 
-    /**
-     * Handles uncaught exceptions thrown from async methods.
-     */
-    @Override
-    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
-        return (throwable, method, params) -> {
-            log.error("Uncaught exception in async method: {} with params: {}",
-                    method.getName(), params, throwable);
+    private static RejectedExecutionHandler rejectionHandler(RejectionPolicy rejectionPolicy) {
+        return switch (rejectionPolicy) {
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case DISCARD -> new ThreadPoolExecutor.DiscardPolicy();
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
         };
     }
-}
\ No newline at end of file
+}
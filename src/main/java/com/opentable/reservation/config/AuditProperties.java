@@ -0,0 +1,16 @@
+package com.opentable.reservation.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Audit log writer settings, bound from {@code app.audit}.
+ *
+ * @param queueCapacity  entries that may wait for the writer before producers block
+ * @param batchSize      most entries written in one transaction
+ * @param commitInterval longest the writer waits for a batch to fill after its first entry
+ */
+@ConfigurationProperties(prefix = "app.audit")
+public record AuditProperties(int queueCapacity, int batchSize, Duration commitInterval) {
+}
@@ -1,15 +1,51 @@
 package com.opentable.reservation.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
- * Cache configuration using Spring's default simple cache (ConcurrentHashMap-based).
- *
- * @EnableCaching is configured on the main application class.
- * For production, consider configuring Redis or Caffeine via spring.cache properties.
+ * Cache configuration backed by bounded Caffeine caches.
+ * <p>
+ * Each cache ("restaurants", "rooms", "restaurantRooms") gets its own maximum size
+ * and expire-after-write settings from {@link CacheSpecProperties}, and records hit, miss and
+ * eviction statistics, which Spring Boot Actuator publishes as cache metrics. Values come from
+ * @Cacheable methods, which a Caffeine loader cannot call, so entries are not refreshed in place:
+ * expire-after-write alone bounds how stale they can get.
  */
+@Slf4j
 @Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheSpecProperties.class)
 public class CacheConfig {
-    // Uses Spring Boot's auto-configured CacheManager
-    // Cache names: "restaurants", "rooms", "availability"
-}
\ No newline at end of file
+
+    @Bean
+    public CacheManager cacheManager(CacheSpecProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+
+        // Fix the set of caches so that an unknown name cannot create an unbounded cache
+        cacheManager.setCacheNames(properties.specs().keySet());
+        properties.specs().forEach((name, spec) -> {
+            cacheManager.registerCustomCache(name, build(spec));
+            log.info("Cache '{}' configured with maximum size: {}, expire after write: {}",
+                    name, spec.maximumSize(), spec.expireAfterWrite());
+        });
+        return cacheManager;
+    }
+
+    private Cache<Object, Object> build(CacheSpecProperties.Spec spec) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(spec.maximumSize())
+                .recordStats();
+        if (spec.expireAfterWrite() != null) {
+            builder.expireAfterWrite(spec.expireAfterWrite());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.opentable.reservation.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Per-cache sizing and expiry settings bound from {@code app.cache.specs.<cache-name>}.
+ */
+@ConfigurationProperties(prefix = "app.cache")
+public record CacheSpecProperties(Map<String, Spec> specs) {
+
+    public CacheSpecProperties {
+        specs = specs == null ? Map.of() : Map.copyOf(specs);
+    }
+
+    /**
+     * Limits for a single cache. A null expireAfterWrite keeps entries until they are evicted by size.
+     */
+    public record Spec(long maximumSize, Duration expireAfterWrite) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.opentable.reservation.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * Thread pool settings for event listeners, bound from {@code app.events.executors.<pool-name>}.
+ */
+@ConfigurationProperties(prefix = "app.events")
+public record EventExecutorProperties(Map<String, Pool> executors) {
+
+    public EventExecutorProperties {
+        executors = executors == null ? Map.of() : Map.copyOf(executors);
+    }
+
+    /**
+     * Returns the settings for the named pool, failing fast when it is not configured.
+     */
+    public Pool pool(String name) {
+        Pool pool = executors.get(name);
+        if (pool == null) {
+            throw new IllegalStateException("No event executor configured under app.events.executors.%s".formatted(name));
+        }
+        return pool;
+    }
+
+    /**
+     * Bounds of a single pool. Threads beyond corePoolSize are only started once the queue is full.
+     */
+    public record Pool(int corePoolSize, int maxPoolSize, int queueCapacity, RejectionPolicy rejectionPolicy) {
+    }
+
+    /**
+     * What happens to an event task when the pool and its queue are both full.
+     */
+    public enum RejectionPolicy {
+        /** Run the task on the submitting thread, slowing the producer down instead of losing the task. */
+        CALLER_RUNS,
+        /** Drop the task. An outbox event whose task is dropped times out in the relay and is delivered again. */
+        DISCARD,
+        /** Throw TaskRejectedException to the submitting thread. */
+        ABORT
+    }
+}
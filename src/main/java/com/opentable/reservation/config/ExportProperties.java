@@ -0,0 +1,12 @@
+package com.opentable.reservation.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for streaming reservation exports, bound from {@code app.export}.
+ *
+ * @param maxConcurrent exports allowed to run at once; each holds a pooled connection until it finishes
+ */
+@ConfigurationProperties(prefix = "app.export")
+public record ExportProperties(int maxConcurrent) {
+}
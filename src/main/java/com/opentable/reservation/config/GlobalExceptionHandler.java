@@ -1,6 +1,7 @@
 package com.opentable.reservation.config;
 
 import com.opentable.reservation.exception.BusinessException;
+import com.opentable.reservation.exception.ExportCapacityExceededException;
 import com.opentable.reservation.exception.NotFoundException;
 import com.opentable.reservation.exception.RoomAlreadyBookedException;
 import jakarta.persistence.OptimisticLockException;
@@ -27,6 +28,11 @@ public class GlobalExceptionHandler {
         return build(HttpStatus.UNPROCESSABLE_ENTITY, exception.getMessage());
     }
 
+    @ExceptionHandler(ExportCapacityExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleExportCapacityExceededException(ExportCapacityExceededException exception) {
+        return build(HttpStatus.SERVICE_UNAVAILABLE, exception.getMessage());
+    }
+
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<Map<String, Object>> handleNotFoundException(NotFoundException exception) {
         return build(HttpStatus.NOT_FOUND, exception.getMessage());
@@ -50,10 +56,11 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<Map<String, Object>> handleDataIntegrityViolation(DataIntegrityViolationException exception) {
         // Database unique constraint violation (e.g., double-booking attempt)
-        String message = exception.getMessage();
+        String message = exception.getMessage() == null ? null : exception.getMessage().toUpperCase();
 
-        // Check for room/date/slot constraint violation
-        if (message != null && (message.toUpperCase().contains("UK_ROOM_DATE_SLOT")
+        // Check for room/date/slot constraint violation; on a partitioned table the violated index is
+        // the partition's copy, whose generated name only lists the key columns
+        if (message != null && (message.contains("UK_ROOM_DATE_SLOT")
                 || (message.contains("ROOM_ID") && message.contains("RESERVATION_DATE") && message.contains("TIME_SLOT")))) {
             return build(HttpStatus.CONFLICT,
                     "This room and time slot is already booked. Please select a different time.");
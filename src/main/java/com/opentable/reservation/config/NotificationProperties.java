@@ -0,0 +1,15 @@
+package com.opentable.reservation.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Batching settings for diner notifications, bound from {@code app.notifications}.
+ *
+ * @param batchSize pending messages that trigger an early flush; also the most sent in one call to the sender
+ * @param maxDelay  longest a message waits for its batch to fill before it is flushed anyway
+ */
+@ConfigurationProperties(prefix = "app.notifications")
+public record NotificationProperties(int batchSize, Duration maxDelay) {
+}
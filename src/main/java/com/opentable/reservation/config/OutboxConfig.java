@@ -0,0 +1,59 @@
+package com.opentable.reservation.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.task.SimpleAsyncTaskSchedulerBuilder;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Enables the scheduled relay that drains the reservation event outbox, and the schedulers that
+ * scheduled jobs run on.
+ * <p>
+ * The outbox relay and the notification flush each get a single-thread scheduler of their own, so
+ * a slow maintenance job on the shared pool cannot hold back event delivery. Declaring them turns
+ * off Spring Boot's default scheduler, so the shared {@code taskScheduler} is declared here too,
+ * built from the {@code spring.task.scheduling} settings as Boot would.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfig {
+
+    public static final String RELAY_SCHEDULER = "outboxRelayScheduler";
+    public static final String NOTIFICATION_SCHEDULER = "notificationScheduler";
+
+    @Bean(RELAY_SCHEDULER)
+    public ThreadPoolTaskScheduler outboxRelayScheduler() {
+        return dedicatedScheduler("outbox-relay-");
+    }
+
+    @Bean(NOTIFICATION_SCHEDULER)
+    public ThreadPoolTaskScheduler notificationScheduler() {
+        return dedicatedScheduler("notification-flush-");
+    }
+
+    @Bean(name = "taskScheduler")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(name = "taskScheduler")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskScheduler taskSchedulerVirtualThreads(SimpleAsyncTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    private static ThreadPoolTaskScheduler dedicatedScheduler(String threadNamePrefix) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        return scheduler;
+    }
+}
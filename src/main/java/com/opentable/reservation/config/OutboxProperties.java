@@ -0,0 +1,20 @@
+package com.opentable.reservation.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Relay settings for the reservation event outbox, bound from {@code app.outbox}.
+ *
+ * @param pollInterval    delay between the end of one drain and the start of the next
+ * @param batchSize       events locked and delivered per transaction
+ * @param maxAttempts     deliveries tried before an event is left in the table for inspection
+ * @param retention       how long delivered events are kept before being purged
+ * @param deliveryTimeout how long the relay waits for listeners to finish with a batch before
+ *                        recording the unfinished events as failed attempts
+ */
+@ConfigurationProperties(prefix = "app.outbox")
+public record OutboxProperties(Duration pollInterval, int batchSize, int maxAttempts, Duration retention,
+                               Duration deliveryTimeout) {
+}
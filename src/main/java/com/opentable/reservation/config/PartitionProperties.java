@@ -0,0 +1,14 @@
+package com.opentable.reservation.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Maintenance settings for the monthly partitions of the reservations table, bound from {@code app.partitions}.
+ *
+ * @param monthsAhead       future months that must always have a partition, besides the current one
+ * @param retentionMonths   past months kept attached; older partitions have their rows moved to the archive and are dropped
+ * @param maintenanceCron   when partitions are created and retired, in addition to startup
+ */
+@ConfigurationProperties(prefix = "app.partitions")
+public record PartitionProperties(int monthsAhead, int retentionMonths, String maintenanceCron) {
+}
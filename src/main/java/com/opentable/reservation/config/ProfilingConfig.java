@@ -0,0 +1,46 @@
+package com.opentable.reservation.config;
+
+import com.opentable.reservation.instrumentation.MethodTimingAspect;
+import com.opentable.reservation.instrumentation.RequestProfilesEndpoint;
+import com.opentable.reservation.instrumentation.RequestProfilingFilter;
+import com.opentable.reservation.instrumentation.SqlStatementCounter;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Wires request profiling: API requests get a {@link com.opentable.reservation.instrumentation.RequestProfile}
+ * that counts Hibernate statements and times service and repository calls.
+ */
+@Configuration
+@EnableConfigurationProperties(ProfilingProperties.class)
+public class ProfilingConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounter() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+
+    @Bean
+    public MethodTimingAspect methodTimingAspect() {
+        return new MethodTimingAspect();
+    }
+
+    @Bean
+    public RequestProfilesEndpoint requestProfilesEndpoint(ProfilingProperties properties) {
+        return new RequestProfilesEndpoint(properties.recentRequests());
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestProfilingFilter> requestProfilingFilter(RequestProfilesEndpoint requestProfiles) {
+        FilterRegistrationBean<RequestProfilingFilter> registration = new FilterRegistrationBean<>(new RequestProfilingFilter(requestProfiles));
+        registration.addUrlPatterns("/api/*");
+        // Outermost, so the profile covers the other filters as well as the handler
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
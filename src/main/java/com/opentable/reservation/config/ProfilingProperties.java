@@ -0,0 +1,13 @@
+package com.opentable.reservation.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Request profiling settings, bound from {@code app.profiling}.
+ *
+ * @param responseHeaders whether responses carry the X-Sql-Statements and Server-Timing headers
+ * @param recentRequests  profiles kept for the requestprofiles actuator endpoint
+ */
+@ConfigurationProperties(prefix = "app.profiling")
+public record ProfilingProperties(boolean responseHeaders, int recentRequests) {
+}
@@ -0,0 +1,55 @@
+package com.opentable.reservation.controller;
+
+import com.opentable.reservation.dto.AuditEntryPageResponse;
+import com.opentable.reservation.service.AuditService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+/**
+ * Staff API for reading the reservation audit trail.
+ */
+@RestController
+@RequestMapping("/api/v1/audit")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Audit", description = "Reservation audit trail for staff")
+public class AuditController {
+
+    private final AuditService auditService;
+
+    @GetMapping
+    @Operation(
+            summary = "List audit entries",
+            description = "Returns the audit trail for one reservation, room or restaurant, newest first. Exactly one filter is required. "
+                    + "Pass the nextCursor of a page as cursor to fetch the following page."
+    )
+    @ApiResponse(responseCode = "200", description = "Audit entries returned")
+    @ApiResponse(responseCode = "422", description = "Missing or conflicting filters, invalid cursor or page size")
+    public ResponseEntity<AuditEntryPageResponse> listAuditEntries(
+            @Parameter(description = "Reservation identifier") @RequestParam(required = false) UUID reservationId,
+            @Parameter(description = "Room identifier") @RequestParam(required = false) UUID roomId,
+            @Parameter(description = "Restaurant identifier") @RequestParam(required = false) UUID restaurantId,
+            @Parameter(description = "Continuation token from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "50") int size
+    ) {
+        log.info("Received request to list audit entries (reservation={}, room={}, restaurant={}, cursor={}, size={})",
+                reservationId, roomId, restaurantId, cursor, size);
+
+        // Ids come from a pooled sequence and interleave across instances, so entries are ordered by
+        // recording time; the id only breaks ties within a batch
+        AuditEntryPageResponse entries = auditService.findEntries(reservationId, roomId, restaurantId, cursor, size);
+
+        return ResponseEntity.ok(entries);
+    }
+}
@@ -1,9 +1,14 @@
 package com.opentable.reservation.controller;
 
+import com.opentable.reservation.dto.BatchCreateReservationRequest;
+import com.opentable.reservation.dto.BatchReservationResponse;
 import com.opentable.reservation.dto.CancelReservationRequest;
 import com.opentable.reservation.dto.CreateReservationRequest;
+import com.opentable.reservation.dto.ReservationPageResponse;
 import com.opentable.reservation.dto.ReservationResponse;
+import com.opentable.reservation.service.ReservationExportService;
 import com.opentable.reservation.service.ReservationService;
+import com.opentable.reservation.service.RestaurantService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,19 +16,23 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.UUID;
-
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import java.util.concurrent.Callable;
 
 /**
  * REST API controller for reservation operations.
@@ -36,6 +45,8 @@ import org.springframework.data.domain.Sort;
 @Tag(name = "Reservations", description = "Reservation management APIs for diners and staffs")
 public class ReservationController {
     private final ReservationService reservationService;
+    private final ReservationExportService reservationExportService;
+    private final RestaurantService restaurantService;
 
     @PostMapping("/reservations")
     @Operation(
@@ -56,6 +67,25 @@ public class ReservationController {
         return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
     }
 
+    @PostMapping("/reservations/batch")
+    @Operation(
+            summary = "Create reservations in bulk",
+            description = "Creates up to " + BatchCreateReservationRequest.MAX_ITEMS + " reservations in one transaction. "
+                    + "Each item is validated like a single reservation and reported as CREATED, CONFLICT or REJECTED."
+    )
+    @ApiResponse(responseCode = "200", description = "Batch processed; see per-item outcomes",
+            content = @Content(schema = @Schema(implementation = BatchReservationResponse.class)))
+    @ApiResponse(responseCode = "400", description = "Validation error")
+    @ApiResponse(responseCode = "409", description = "A slot was taken concurrently; no reservations were created")
+    public ResponseEntity<BatchReservationResponse> createReservations(@Valid @RequestBody BatchCreateReservationRequest request) {
+        log.info("Received batch create request with {} reservations", request.reservations().size());
+
+        BatchReservationResponse response = reservationService.createReservations(request.reservations());
+
+        log.info("Batch created {} reservations, {} failed", response.created(), response.failed());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/reservations/{id}")
     @Operation(summary = "Get reservation details", description = "Fetches a reservation by id.")
     @ApiResponse(responseCode = "200", description = "Reservation found",
@@ -101,38 +131,81 @@ public class ReservationController {
     @GetMapping("/diners/{email}/reservations")
     @Operation(
             summary = "List reservations for a diner",
-            description = "Returns paginated historical or upcoming reservations for a diner. Pass upcomingOnly=true to filter future bookings."
+            description = "Returns historical or upcoming reservations for a diner, newest first. Pass upcomingOnly=true to filter future bookings. "
+                    + "Pass the nextCursor of a page as cursor to fetch the following page."
     )
     @ApiResponse(responseCode = "200", description = "Reservations returned")
-    public ResponseEntity<Page<ReservationResponse>> dinerReservations(
+    @ApiResponse(responseCode = "422", description = "Invalid cursor or page size")
+    public ResponseEntity<ReservationPageResponse> dinerReservations(
             @Parameter(description = "Diner email address", in = ParameterIn.PATH) @PathVariable String email,
             @Parameter(description = "Only include future reservations") @RequestParam(defaultValue = "false") boolean upcomingOnly,
-            @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Continuation token from the previous page") @RequestParam(required = false) String cursor,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size
     ) {
-        log.info("Received request to list reservations for diner {} (upcomingOnly={}, page={}, size={})", email, upcomingOnly, page, size);
+        log.info("Received request to list reservations for diner {} (upcomingOnly={}, cursor={}, size={})", email, upcomingOnly, cursor, size);
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "reservationDate"));
-        Page<ReservationResponse> reservationsByDiner = reservationService.listReservationsByDiner(email, upcomingOnly, pageable);
+        ReservationPageResponse reservationsByDiner = reservationService.listReservationsByDiner(email, upcomingOnly, cursor, size);
 
-        log.info("Found {} reservations for diner {} (page {} of {})", reservationsByDiner.getContent().size(), email, page, reservationsByDiner.getTotalPages());
+        log.info("Found {} reservations for diner {} (hasNext={})", reservationsByDiner.content().size(), email, reservationsByDiner.hasNext());
         return ResponseEntity.ok(reservationsByDiner);
     }
 
     @GetMapping("/restaurants/{restaurantId}/reservations")
-    @Operation(summary = "List reservations for a restaurant", description = "Staff endpoint to view reservations for a restaurant.")
+    @Operation(summary = "List reservations for a restaurant", description = "Staff endpoint to view reservations for a restaurant, newest first. "
+            + "Pass the nextCursor of a page as cursor to fetch the following page.")
     @ApiResponse(responseCode = "200", description = "Reservations returned")
-    public ResponseEntity<Page<ReservationResponse>> restaurantReservations(
+    @ApiResponse(responseCode = "422", description = "Invalid cursor or page size")
+    public ResponseEntity<ReservationPageResponse> restaurantReservations(
             @PathVariable UUID restaurantId,
-            @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Continuation token from the previous page") @RequestParam(required = false) String cursor,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size
     ) {
-        log.info("Received request to list reservations for restaurant {} (page={}, size={})", restaurantId, page, size);
+        log.info("Received request to list reservations for restaurant {} (cursor={}, size={})", restaurantId, cursor, size);
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "reservationDate"));
-        Page<ReservationResponse> reservationsByRestaurant = reservationService.listReservationsByRestaurant(restaurantId, pageable);
+        ReservationPageResponse reservationsByRestaurant = reservationService.listReservationsByRestaurant(restaurantId, cursor, size);
 
-        log.info("Found {} reservations for restaurant {} (page {} of {})", reservationsByRestaurant.getContent().size(), restaurantId, page, reservationsByRestaurant.getTotalPages());
+        log.info("Found {} reservations for restaurant {} (hasNext={})", reservationsByRestaurant.content().size(), restaurantId, reservationsByRestaurant.hasNext());
         return ResponseEntity.ok(reservationsByRestaurant);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/restaurants/{restaurantId}/reservations/export")
+    @Operation(
+            summary = "Export reservations for a restaurant",
+            description = "Streams every reservation of the restaurant, including archived ones, as NDJSON (one JSON object per line) or CSV."
+    )
+    @ApiResponse(responseCode = "200", description = "Export streamed")
+    @ApiResponse(responseCode = "404", description = "Restaurant not found")
+    @ApiResponse(responseCode = "503", description = "Too many exports in progress")
+    public ResponseEntity<StreamingResponseBody> exportRestaurantReservations(
+            @Parameter(description = "Restaurant identifier", in = ParameterIn.PATH) @PathVariable UUID restaurantId,
+            @Parameter(description = "Output format") @RequestParam(defaultValue = "NDJSON") ReservationExportService.Format format,
+            HttpServletRequest request
+    ) {
+        log.info("Received request to export reservations for restaurant {} as {}", restaurantId, format);
+
+        // Checked up front: once streaming starts the status can no longer change
+        restaurantService.getRestaurantById(restaurantId);
+        ReservationExportService.Permit permit = reservationExportService.acquirePermit();
+        // The body only runs once the async task starts, so also release the permit when the request
+        // completes without it: a rejected task, a timeout or a client gone before it was scheduled
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(permit, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                permit.close();
+            }
+        });
+        StreamingResponseBody body = outputStream -> {
+            try (permit) {
+                reservationExportService.export(restaurantId, format, outputStream);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.mediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("reservations-" + restaurantId + "." + format.extension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
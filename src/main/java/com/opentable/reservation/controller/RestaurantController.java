@@ -1,10 +1,15 @@
 package com.opentable.reservation.controller;
 
 import com.opentable.reservation.dto.AvailabilityResponse;
+import com.opentable.reservation.dto.AvailabilitySearchResponse;
+import com.opentable.reservation.dto.OccupancyStatsResponse;
 import com.opentable.reservation.dto.RoomSummaryResponse;
 import com.opentable.reservation.model.Restaurant;
 import com.opentable.reservation.model.Room;
+import com.opentable.reservation.model.TimeSlot;
+import com.opentable.reservation.service.AvailabilitySearchService;
 import com.opentable.reservation.service.AvailabilityService;
+import com.opentable.reservation.service.OccupancyStatsService;
 import com.opentable.reservation.service.RestaurantService;
 import com.opentable.reservation.service.RoomService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -41,6 +46,8 @@ public class RestaurantController {
     private final RestaurantService restaurantService;
     private final RoomService roomService;
     private final AvailabilityService availabilityService;
+    private final AvailabilitySearchService availabilitySearchService;
+    private final OccupancyStatsService occupancyStatsService;
 
     @GetMapping
     @Operation(summary = "List all restaurants", description = "Optionally filter restaurants by city.")
@@ -91,4 +98,72 @@ public class RestaurantController {
         log.info("Returning availability for room {} from {} to {}", roomId, startDate, endDate);
         return ResponseEntity.ok(roomAvailability);
     }
+
+    @GetMapping("/{restaurantId}/availability")
+    @Operation(
+            summary = "Search availability across a restaurant",
+            description = "Returns free slots between startDate and endDate for every active room of the restaurant that can host the party."
+    )
+    @ApiResponse(responseCode = "200", description = "Free slots per eligible room",
+            content = @Content(schema = @Schema(implementation = AvailabilitySearchResponse.class)))
+    @ApiResponse(responseCode = "404", description = "Restaurant not found")
+    @ApiResponse(responseCode = "422", description = "Invalid date range")
+    public ResponseEntity<AvailabilitySearchResponse> searchRestaurantAvailability(
+            @Parameter(description = "Restaurant identifier", in = ParameterIn.PATH) @PathVariable UUID restaurantId,
+            @Parameter(description = "Start date (inclusive)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date (inclusive)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Party size the room must be able to host") @RequestParam int partySize,
+            @Parameter(description = "Only return this time slot") @RequestParam(required = false) TimeSlot timeSlot
+    ) {
+        log.debug("Searching availability for restaurant {} from {} to {} (partySize={}, timeSlot={})", restaurantId, startDate, endDate, partySize, timeSlot);
+
+        restaurantService.getRestaurantById(restaurantId);
+        AvailabilitySearchResponse availability = availabilitySearchService.searchByRestaurant(restaurantId, startDate, endDate, partySize, timeSlot);
+
+        log.info("Returning availability for {} rooms of restaurant {} from {} to {}", availability.rooms().size(), restaurantId, startDate, endDate);
+        return ResponseEntity.ok(availability);
+    }
+
+    @GetMapping("/{restaurantId}/stats")
+    @Operation(
+            summary = "Room occupancy statistics",
+            description = "Returns utilisation over the next 7, 30 and 90 days, cancellation rate and average booking lead time for every room of the restaurant."
+    )
+    @ApiResponse(responseCode = "200", description = "Statistics per room",
+            content = @Content(schema = @Schema(implementation = OccupancyStatsResponse.class)))
+    @ApiResponse(responseCode = "404", description = "Restaurant not found")
+    public ResponseEntity<OccupancyStatsResponse> getOccupancyStats(
+            @Parameter(description = "Restaurant identifier", in = ParameterIn.PATH) @PathVariable UUID restaurantId
+    ) {
+        log.debug("Fetching occupancy statistics for restaurant {}", restaurantId);
+
+        Restaurant restaurant = restaurantService.getRestaurantById(restaurantId);
+        OccupancyStatsResponse stats = occupancyStatsService.getStats(restaurant);
+
+        log.info("Returning occupancy statistics for {} rooms of restaurant {}", stats.rooms().size(), restaurantId);
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/availability")
+    @Operation(
+            summary = "Search availability across a city",
+            description = "Returns free slots between startDate and endDate for every active room in the city that can host the party."
+    )
+    @ApiResponse(responseCode = "200", description = "Free slots per eligible room",
+            content = @Content(schema = @Schema(implementation = AvailabilitySearchResponse.class)))
+    @ApiResponse(responseCode = "422", description = "Invalid date range")
+    public ResponseEntity<AvailabilitySearchResponse> searchCityAvailability(
+            @Parameter(description = "City to search") @RequestParam String city,
+            @Parameter(description = "Start date (inclusive)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date (inclusive)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Party size the room must be able to host") @RequestParam int partySize,
+            @Parameter(description = "Only return this time slot") @RequestParam(required = false) TimeSlot timeSlot
+    ) {
+        log.debug("Searching availability in {} from {} to {} (partySize={}, timeSlot={})", city, startDate, endDate, partySize, timeSlot);
+
+        AvailabilitySearchResponse availability = availabilitySearchService.searchByCity(city, startDate, endDate, partySize, timeSlot);
+
+        log.info("Returning availability for {} rooms in {} from {} to {}", availability.rooms().size(), city, startDate, endDate);
+        return ResponseEntity.ok(availability);
+    }
 }
\ No newline at end of file
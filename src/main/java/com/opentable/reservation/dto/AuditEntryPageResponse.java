@@ -0,0 +1,13 @@
+package com.opentable.reservation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "One page of audit entries in a keyset-paginated listing")
+public record AuditEntryPageResponse(
+        @Schema(description = "Audit entries, most recently recorded first") List<AuditEntryResponse> content,
+        @Schema(description = "Token for the next page; absent on the last page") String nextCursor,
+        @Schema(description = "Whether another page follows") boolean hasNext
+) {
+}
@@ -0,0 +1,42 @@
+package com.opentable.reservation.dto;
+
+import com.opentable.reservation.model.AuditEntry;
+import com.opentable.reservation.model.TimeSlot;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Schema(description = "Audit trail entry for a reservation change")
+public record AuditEntryResponse(
+        @Schema(description = "Audit entry identifier; increases with recording order") Long id,
+        @Schema(description = "What happened") AuditEntry.Action action,
+        @Schema(description = "Reservation identifier") UUID reservationId,
+        @Schema(description = "Restaurant identifier") UUID restaurantId,
+        @Schema(description = "Room identifier") UUID roomId,
+        @Schema(description = "Room name at the time of the change") String roomName,
+        @Schema(description = "Reservation date") LocalDate reservationDate,
+        @Schema(description = "Time slot") TimeSlot timeSlot,
+        @Schema(description = "Diner who booked or party who cancelled") String actor,
+        @Schema(description = "Additional details such as party size or cancellation reason") String details,
+        @Schema(description = "When the change happened") OffsetDateTime occurredAt,
+        @Schema(description = "When the entry was written to the audit log") OffsetDateTime recordedAt
+) {
+    public static AuditEntryResponse from(AuditEntry entry) {
+        return new AuditEntryResponse(
+                entry.getId(),
+                entry.getAction(),
+                entry.getReservationId(),
+                entry.getRestaurantId(),
+                entry.getRoomId(),
+                entry.getRoomName(),
+                entry.getReservationDate(),
+                entry.getTimeSlot(),
+                entry.getActor(),
+                entry.getDetails(),
+                entry.getOccurredAt(),
+                entry.getRecordedAt()
+        );
+    }
+}
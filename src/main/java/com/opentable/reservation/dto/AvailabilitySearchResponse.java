@@ -0,0 +1,29 @@
+package com.opentable.reservation.dto;
+
+import com.opentable.reservation.model.TimeSlot;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Schema(description = "Free slots for every room that can host the party across a restaurant or city")
+public record AvailabilitySearchResponse(
+        @Schema(description = "First date searched (inclusive)", example = "2025-11-27") LocalDate startDate,
+        @Schema(description = "Last date searched (inclusive)", example = "2025-11-30") LocalDate endDate,
+        @Schema(description = "Party size the rooms were filtered by") int partySize,
+        @Schema(description = "Eligible rooms with at least one free slot") List<RoomAvailability> rooms
+) {
+    @Schema(description = "Free slots of a single room")
+    public record RoomAvailability(
+            @Schema(description = "Room and parent restaurant") RoomSummaryResponse room,
+            @Schema(description = "Dates with at least one free slot") List<FreeDay> days
+    ) {
+    }
+
+    @Schema(description = "Free slots within a date")
+    public record FreeDay(
+            @Schema(description = "Date", example = "2025-11-27") LocalDate date,
+            @Schema(description = "Slots that can still be booked") List<TimeSlot> slots
+    ) {
+    }
+}
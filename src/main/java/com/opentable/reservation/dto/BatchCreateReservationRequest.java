@@ -0,0 +1,16 @@
+package com.opentable.reservation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(description = "Payload used to create several reservations in one request")
+public record BatchCreateReservationRequest(
+        @Schema(description = "Reservations to create, processed in order", requiredMode = Schema.RequiredMode.REQUIRED)
+        @NotEmpty @Size(max = BatchCreateReservationRequest.MAX_ITEMS) List<@Valid CreateReservationRequest> reservations
+) {
+    public static final int MAX_ITEMS = 200;
+}
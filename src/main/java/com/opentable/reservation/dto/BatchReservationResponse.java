@@ -0,0 +1,39 @@
+package com.opentable.reservation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Per-item outcome of a batch reservation request")
+public record BatchReservationResponse(
+        @Schema(description = "Number of reservations created") int created,
+        @Schema(description = "Number of items that were not created") int failed,
+        @Schema(description = "Outcome of each item, in request order") List<Item> results
+) {
+    public static BatchReservationResponse of(List<Item> results) {
+        int created = (int) results.stream().filter(item -> item.outcome() == Outcome.CREATED).count();
+        return new BatchReservationResponse(created, results.size() - created, results);
+    }
+
+    public enum Outcome {
+        CREATED,
+        CONFLICT,
+        REJECTED
+    }
+
+    @Schema(description = "Outcome of a single batch item")
+    public record Item(
+            @Schema(description = "Position of the item in the request") int index,
+            @Schema(description = "CREATED, CONFLICT when the slot is taken, or REJECTED when a business rule failed") Outcome outcome,
+            @Schema(description = "Created reservation, present only when outcome is CREATED") ReservationResponse reservation,
+            @Schema(description = "Reason the item was not created") String message
+    ) {
+        public static Item created(int index, ReservationResponse reservation) {
+            return new Item(index, Outcome.CREATED, reservation, null);
+        }
+
+        public static Item failed(int index, Outcome outcome, String message) {
+            return new Item(index, outcome, null, message);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.opentable.reservation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "Live utilisation and demand statistics for a restaurant's rooms")
+public record OccupancyStatsResponse(
+        @Schema(description = "Restaurant identifier") UUID restaurantId,
+        @Schema(description = "First day of the forward-looking windows") LocalDate asOf,
+        @Schema(description = "Statistics per room") List<RoomOccupancy> rooms
+) {
+    @Schema(description = "Statistics for a single room")
+    public record RoomOccupancy(
+            @Schema(description = "Room identifier") UUID roomId,
+            @Schema(description = "Room name") String roomName,
+            @Schema(description = "Share of slots booked over the next 7 days (0-1)") double utilisationNext7Days,
+            @Schema(description = "Share of slots booked over the next 30 days (0-1)") double utilisationNext30Days,
+            @Schema(description = "Share of slots booked over the next 90 days (0-1)") double utilisationNext90Days,
+            @Schema(description = "Reservations ever made for the room") long reservations,
+            @Schema(description = "Reservations later cancelled") long cancellations,
+            @Schema(description = "Cancelled share of all reservations (0-1)") double cancellationRate,
+            @Schema(description = "Average days between booking and the reservation date") double averageLeadTimeDays
+    ) {
+    }
+}
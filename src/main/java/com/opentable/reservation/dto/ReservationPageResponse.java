@@ -0,0 +1,13 @@
+package com.opentable.reservation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "One page of reservations in a keyset-paginated listing")
+public record ReservationPageResponse(
+        @Schema(description = "Reservations, newest reservation date first") List<ReservationResponse> content,
+        @Schema(description = "Token for the next page; absent on the last page") String nextCursor,
+        @Schema(description = "Whether another page follows") boolean hasNext
+) {
+}
@@ -28,7 +28,7 @@ public record ReservationResponse(
     public static ReservationResponse from(Reservation reservation) {
         return new ReservationResponse(
                 reservation.getId(),
-              reservation.getRoom().getId(),
+                reservation.getRoom().getId(),
                 reservation.getRestaurant().getId(),
                 reservation.getReservationDate(),
                 reservation.getTimeSlot(),
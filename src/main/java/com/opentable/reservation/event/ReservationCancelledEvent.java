@@ -1,5 +1,6 @@
 package com.opentable.reservation.event;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.opentable.reservation.model.TimeSlot;
 import lombok.Getter;
 
@@ -27,6 +28,7 @@ public class ReservationCancelledEvent {
     private final String cancellationReason;
     private final OffsetDateTime cancelledAt;
 
+    @JsonCreator
     public ReservationCancelledEvent(
             UUID reservationId,
             UUID restaurantId,
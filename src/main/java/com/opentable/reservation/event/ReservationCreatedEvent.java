@@ -1,5 +1,6 @@
 package com.opentable.reservation.event;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.opentable.reservation.model.TimeSlot;
 import lombok.Getter;
 
@@ -28,6 +29,7 @@ public class ReservationCreatedEvent {
     private final String specialRequests;
     private final OffsetDateTime createdAt;
 
+    @JsonCreator
     public ReservationCreatedEvent(
             UUID reservationId,
             UUID restaurantId,
@@ -0,0 +1,7 @@
+package com.opentable.reservation.exception;
+
+public class ExportCapacityExceededException extends BusinessException {
+    public ExportCapacityExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,55 @@
+package com.opentable.reservation.instrumentation;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.data.repository.Repository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times public methods of the {@code @Service} beans, the availability cache index and the Spring
+ * Data repositories into the {@link RequestProfile} of the current thread. A cached service call
+ * shows up without the repository call beneath it. Calls made outside a profiled request, such as
+ * scheduled jobs, only pay for the profile lookup.
+ */
+@Aspect
+public class MethodTimingAspect {
+
+    private final Map<Class<?>, String> names = new ConcurrentHashMap<>();
+
+    @Around("execution(public * *(..)) && (@within(org.springframework.stereotype.Service)"
+            + " || within(com.opentable.reservation.service.AvailabilityIndex)"
+            + " || this(org.springframework.data.repository.Repository))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestProfile profile = RequestProfile.current();
+        if (profile == null) {
+            return joinPoint.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            profile.methodCompleted(name(joinPoint.getThis()) + "." + joinPoint.getSignature().getName(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Repository proxies are named after the repository interface they implement, beans after their class.
+     */
+    private String name(Object proxy) {
+        return names.computeIfAbsent(proxy.getClass(), type -> {
+            if (proxy instanceof Repository<?, ?>) {
+                for (Class<?> proxiedInterface : AopProxyUtils.proxiedUserInterfaces(proxy)) {
+                    if (Repository.class.isAssignableFrom(proxiedInterface) && proxiedInterface != Repository.class) {
+                        return proxiedInterface.getSimpleName();
+                    }
+                }
+            }
+            return AopUtils.getTargetClass(proxy).getSimpleName();
+        });
+    }
+}
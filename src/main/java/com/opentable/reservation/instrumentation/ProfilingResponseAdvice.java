@@ -0,0 +1,46 @@
+package com.opentable.reservation.instrumentation;
+
+import com.opentable.reservation.config.ProfilingProperties;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the request's profile to the response as {@code X-Sql-Statements} and {@code Server-Timing}
+ * headers when {@code app.profiling.response-headers} is set. Headers must be set before the body
+ * is written, so they are added here rather than in {@link RequestProfilingFilter}; the timings
+ * cover the handler but not the serialization of its result.
+ */
+@ControllerAdvice
+public class ProfilingResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String SQL_STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final ProfilingProperties properties;
+
+    public ProfilingResponseAdvice(ProfilingProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return properties.responseHeaders();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestProfile profile = RequestProfile.current();
+        if (profile != null) {
+            response.getHeaders().set(SQL_STATEMENTS_HEADER, Integer.toString(profile.sqlStatements()));
+            response.getHeaders().set(SERVER_TIMING_HEADER, profile.serverTiming());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,156 @@
+package com.opentable.reservation.instrumentation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * SQL statement count and method timings collected on one thread while a request is handled.
+ * <p>
+ * A profile is bound to the current thread between {@link #start()} and {@link #finish()}; starting
+ * one while another is active suspends the outer profile until the inner one finishes. Timings are
+ * inclusive: a service method's time includes the repository calls it makes. Work handed to other
+ * threads, such as async event listeners or streamed exports, is not counted.
+ */
+public final class RequestProfile {
+
+    /**
+     * Request attribute under which the finished profile of a request is stored.
+     */
+    public static final String REQUEST_ATTRIBUTE = RequestProfile.class.getName();
+
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+    private final RequestProfile outer;
+    private final long startNanos = System.nanoTime();
+    private final Map<String, MethodTiming> methods = new LinkedHashMap<>();
+    // Only kept when asked for, so that profiling every request does not hold on to its SQL
+    private final List<String> statements;
+    private int sqlStatements;
+    private long elapsedNanos = -1;
+
+    private RequestProfile(RequestProfile outer, boolean captureSql) {
+        this.outer = outer;
+        this.statements = captureSql ? new ArrayList<>() : null;
+    }
+
+    /**
+     * Starts a profile on the current thread.
+     */
+    public static RequestProfile start() {
+        return start(false);
+    }
+
+    /**
+     * Starts a profile on the current thread that also keeps the text of every statement counted,
+     * for tests that check the SQL the repositories issue.
+     */
+    public static RequestProfile startCapturingSql() {
+        return start(true);
+    }
+
+    private static RequestProfile start(boolean captureSql) {
+        RequestProfile profile = new RequestProfile(CURRENT.get(), captureSql);
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    /**
+     * Returns the profile active on the current thread, or null when nothing is being profiled.
+     * Called for every SQL statement and timed method, so it does not allocate.
+     */
+    public static RequestProfile current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stops the profile and restores the one it suspended, if any.
+     */
+    public RequestProfile finish() {
+        if (elapsedNanos < 0) {
+            elapsedNanos = System.nanoTime() - startNanos;
+            if (outer == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(outer);
+            }
+        }
+        return this;
+    }
+
+    void statementPrepared(String sql) {
+        sqlStatements++;
+        if (statements != null) {
+            statements.add(sql);
+        }
+    }
+
+    void methodCompleted(String method, long nanos) {
+        methods.computeIfAbsent(method, name -> new MethodTiming()).add(nanos);
+    }
+
+    public int sqlStatements() {
+        return sqlStatements;
+    }
+
+    /**
+     * The SQL of the statements counted, in order, as Hibernate prepared it with {@code ?}
+     * placeholders. Empty unless the profile was started with {@link #startCapturingSql()}.
+     */
+    public List<String> statements() {
+        return statements == null ? List.of() : Collections.unmodifiableList(statements);
+    }
+
+    /**
+     * Time from start to finish, or so far if the profile is still running.
+     */
+    public Duration elapsed() {
+        return Duration.ofNanos(elapsedNanos < 0 ? System.nanoTime() - startNanos : elapsedNanos);
+    }
+
+    /**
+     * Timings keyed by {@code Class.method}, in order of first call.
+     */
+    public Map<String, MethodTiming> methods() {
+        return Collections.unmodifiableMap(methods);
+    }
+
+    /**
+     * Formats the profile as a {@code Server-Timing} header value (durations in milliseconds).
+     */
+    public String serverTiming() {
+        StringJoiner header = new StringJoiner(", ");
+        header.add("sql;desc=\"%d statements\"".formatted(sqlStatements));
+        methods.forEach((method, timing) -> header.add(String.format(Locale.ROOT, "%s;desc=\"%d calls\";dur=%.2f",
+                method, timing.calls(), timing.nanos() / 1_000_000.0)));
+        header.add(String.format(Locale.ROOT, "total;dur=%.2f", elapsed().toNanos() / 1_000_000.0));
+        return header.toString();
+    }
+
+    /**
+     * Number of calls to a method and their summed duration.
+     */
+    public static final class MethodTiming {
+
+        private int calls;
+        private long nanos;
+
+        private void add(long callNanos) {
+            calls++;
+            nanos += callNanos;
+        }
+
+        public int calls() {
+            return calls;
+        }
+
+        public long nanos() {
+            return nanos;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.opentable.reservation.instrumentation;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Actuator endpoint {@code /actuator/requestprofiles} listing the most recent profiled requests,
+ * newest first, with their SQL statement count and method timings. Like the profiling response
+ * headers it reveals internal method names, so it is left out of the default web exposure.
+ * <p>
+ * Profiles are kept in a fixed-size ring that requests overwrite without locking, so recording
+ * adds no contention between requests.
+ */
+@Endpoint(id = "requestprofiles")
+public class RequestProfilesEndpoint {
+
+    private final AtomicReferenceArray<Entry> ring;
+    private final AtomicLong recorded = new AtomicLong();
+
+    public RequestProfilesEndpoint(int capacity) {
+        this.ring = new AtomicReferenceArray<>(capacity);
+    }
+
+    void record(String method, String route, int status, RequestProfile profile) {
+        Map<String, Timing> methods = new LinkedHashMap<>();
+        profile.methods().forEach((name, timing) -> methods.put(name, new Timing(timing.calls(), timing.nanos() / 1_000_000.0)));
+        Entry entry = new Entry(Instant.now(), method, route, status, profile.elapsed().toNanos() / 1_000_000.0, profile.sqlStatements(), methods);
+        ring.set((int) (recorded.getAndIncrement() % ring.length()), entry);
+    }
+
+    @ReadOperation
+    public List<Entry> recent() {
+        long last = recorded.get();
+        List<Entry> entries = new ArrayList<>(ring.length());
+        for (long i = last - 1; i >= Math.max(0, last - ring.length()); i--) {
+            Entry entry = ring.get((int) (i % ring.length()));
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    public record Entry(Instant timestamp, String method, String route, int status, double elapsedMillis,
+                        int sqlStatements, Map<String, Timing> methods) {
+    }
+
+    public record Timing(int calls, double totalMillis) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.opentable.reservation.instrumentation;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Profiles each API request: starts a {@link RequestProfile} before the request is handled,
+ * stores the finished profile as a request attribute and hands it to {@link RequestProfilesEndpoint}.
+ */
+public class RequestProfilingFilter extends OncePerRequestFilter {
+
+    private final RequestProfilesEndpoint requestProfiles;
+
+    public RequestProfilingFilter(RequestProfilesEndpoint requestProfiles) {
+        this.requestProfiles = requestProfiles;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestProfile profile = RequestProfile.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            profile.finish();
+            request.setAttribute(RequestProfile.REQUEST_ATTRIBUTE, profile);
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            requestProfiles.record(request.getMethod(), route != null ? route.toString() : request.getRequestURI(), response.getStatus(), profile);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.opentable.reservation.instrumentation;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares into the {@link RequestProfile} of the current
+ * thread. Queries, inserts, updates and sequence calls are counted; a JDBC batch counts once.
+ * Statements run through JdbcTemplate bypass Hibernate and are not counted. A profile started with
+ * {@link RequestProfile#startCapturingSql()} also keeps their text.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestProfile profile = RequestProfile.current();
+        if (profile != null) {
+            profile.statementPrepared(sql);
+        }
+        return sql;
+    }
+}
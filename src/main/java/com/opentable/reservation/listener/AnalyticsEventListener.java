@@ -1,68 +1,134 @@
 package com.opentable.reservation.listener;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.opentable.reservation.config.AsyncConfiguration;
 import com.opentable.reservation.event.ReservationCancelledEvent;
 import com.opentable.reservation.event.ReservationCreatedEvent;
+import com.opentable.reservation.model.TimeSlot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
- * Event listener that tracks analytics and business metrics.
+ * Event listener that aggregates reservation analytics into Micrometer meters.
+ * <p>
+ * Bookings, cancellations and party sizes are tagged by restaurant and time slot, and are
+ * published through the actuator metrics endpoint:
+ * <ul>
+ *     <li>{@code reservations.created} and {@code reservations.cancelled} counters</li>
+ *     <li>{@code reservations.party.size} distribution with party-size buckets</li>
+ * </ul>
+ * Meters are resolved once per (restaurant, time slot) and cached, so recording is a map lookup
+ * plus increments on Micrometer's striped adders, with no registry lookup or contention between
+ * listener threads.
+ * <p>
+ * The outbox relay delivers an event again when any listener fails it, so each reservation's
+ * creation and cancellation are counted once: the reservation ids seen recently are remembered for
+ * longer than the relay keeps retrying, and repeated events for them are skipped.
  */
 @Slf4j
 @Component
 public class AnalyticsEventListener {
 
+    private static final double[] PARTY_SIZE_BUCKETS = {2, 4, 6, 8, 10, 12, 16, 20, 30, 50};
+    private static final long MAX_SEEN_RESERVATIONS = 100_000;
+    private static final Duration SEEN_RETENTION = Duration.ofHours(1);
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<RestaurantSlot, SlotMeters> meters = new ConcurrentHashMap<>();
+    private final Cache<UUID, Boolean> createdSeen = seenCache();
+    private final Cache<UUID, Boolean> cancelledSeen = seenCache();
+
+    public AnalyticsEventListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     /**
      * Tracks metrics when a reservation is created.
-     * Examples: conversion rates, popular time slots, average party size, etc.
      */
-    @Async
+    @Async(AsyncConfiguration.ANALYTICS_EXECUTOR)
     @EventListener
     public void trackReservationCreated(ReservationCreatedEvent event) {
-        log.info("[ANALYTICS] Reservation created - Restaurant: {}, Room: {}, TimeSlot: {}, PartySize: {}, Date: {}",
-                event.getRestaurantId(),
-                event.getRoomName(),
-                event.getTimeSlot(),
-                event.getPartySize(),
-                event.getReservationDate());
-
-        // Simulate sending metrics to analytics service
-        trackMetric("reservation.created", 1, event.getRestaurantId());
-        trackMetric("reservation.party_size", event.getPartySize(), event.getRestaurantId());
-        trackMetric("reservation.time_slot." + event.getTimeSlot(), 1, event.getRestaurantId());
+        if (!firstDelivery(createdSeen, event.getReservationId())) {
+            log.debug("[ANALYTICS] Skipping repeated creation of reservation {}", event.getReservationId());
+            return;
+        }
+        SlotMeters slotMeters = metersFor(event.getRestaurantId(), event.getTimeSlot());
+        slotMeters.created().increment();
+        slotMeters.partySize().record(event.getPartySize());
+
+        log.debug("[ANALYTICS] Reservation created - Restaurant: {}, TimeSlot: {}, PartySize: {}",
+                event.getRestaurantId(), event.getTimeSlot(), event.getPartySize());
     }
 
     /**
      * Tracks metrics when a reservation is cancelled.
-     * Useful for identifying cancellation patterns and improving service.
      */
-    @Async
+    @Async(AsyncConfiguration.ANALYTICS_EXECUTOR)
     @EventListener
     public void trackReservationCancelled(ReservationCancelledEvent event) {
-        log.info("[ANALYTICS] Reservation cancelled - Restaurant: {}, Room: {}, CancelledBy: {}",
-                event.getRestaurantId(),
-                event.getRoomName(),
-                event.getCancelledBy());
+        if (!firstDelivery(cancelledSeen, event.getReservationId())) {
+            log.debug("[ANALYTICS] Skipping repeated cancellation of reservation {}", event.getReservationId());
+            return;
+        }
+        metersFor(event.getRestaurantId(), event.getTimeSlot()).cancelled().increment();
 
-        // Simulate sending metrics
-        trackMetric("reservation.cancelled", 1, event.getRestaurantId());
+        log.debug("[ANALYTICS] Reservation cancelled - Restaurant: {}, TimeSlot: {}, CancelledBy: {}",
+                event.getRestaurantId(), event.getTimeSlot(), event.getCancelledBy());
+    }
 
-        // Track cancellation reason for analysis
-        if (event.getCancellationReason() != null && !event.getCancellationReason().isBlank()) {
-            log.debug("Cancellation reason captured for analytics: {}", event.getCancellationReason());
-        }
+    private static boolean firstDelivery(Cache<UUID, Boolean> seen, UUID reservationId) {
+        return seen.asMap().putIfAbsent(reservationId, Boolean.TRUE) == null;
     }
 
-    /**
-     * Simulates sending a metric to an analytics service.
-     * In production, this would use Micrometer, StatsD, or a custom metrics client.
-     */
-    private void trackMetric(String metricName, Number value, Object... tags) {
-        log.debug(" Metric tracked: {} = {} (tags: {})", metricName, value, tags);
+    private static Cache<UUID, Boolean> seenCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(MAX_SEEN_RESERVATIONS)
+                .expireAfterWrite(SEEN_RETENTION)
+                .build();
+    }
+
+    private SlotMeters metersFor(UUID restaurantId, TimeSlot timeSlot) {
+        return meters.computeIfAbsent(new RestaurantSlot(restaurantId, timeSlot), this::register);
+    }
+
+    private SlotMeters register(RestaurantSlot key) {
+        String restaurant = key.restaurantId().toString();
+        String timeSlot = key.timeSlot().name();
+        return new SlotMeters(
+                Counter.builder("reservations.created")
+                        .description("Reservations created")
+                        .tag("restaurant", restaurant)
+                        .tag("time_slot", timeSlot)
+                        .register(meterRegistry),
+                Counter.builder("reservations.cancelled")
+                        .description("Reservations cancelled")
+                        .tag("restaurant", restaurant)
+                        .tag("time_slot", timeSlot)
+                        .register(meterRegistry),
+                DistributionSummary.builder("reservations.party.size")
+                        .description("Party size of created reservations")
+                        .baseUnit("guests")
+                        .serviceLevelObjectives(PARTY_SIZE_BUCKETS)
+                        .tag("restaurant", restaurant)
+                        .tag("time_slot", timeSlot)
+                        .register(meterRegistry)
+        );
+    }
+
+    private record RestaurantSlot(UUID restaurantId, TimeSlot timeSlot) {
+    }
 
-        // Production implementation:
-        // meterRegistry.counter(metricName, Tags.of(convertToTags(tags))).increment(value.doubleValue());
+    private record SlotMeters(Counter created, Counter cancelled, DistributionSummary partySize) {
     }
-}
\ No newline at end of file
+}
@@ -1,64 +1,68 @@
 package com.opentable.reservation.listener;
 
+import com.opentable.reservation.config.AsyncConfiguration;
 import com.opentable.reservation.event.ReservationCancelledEvent;
 import com.opentable.reservation.event.ReservationCreatedEvent;
+import com.opentable.reservation.model.AuditEntry;
+import com.opentable.reservation.service.AuditLogWriter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
-import java.time.OffsetDateTime;
-
 /**
- * Listens for reservation events and creates audit logs.
+ * Listens for reservation events and records them in the audit log.
+ * Entries are persisted in batches by {@link AuditLogWriter}.
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class AuditEventListener {
 
+    private final AuditLogWriter auditLogWriter;
+
     /**
      * Audits reservation creation events.
      */
-    @Async
+    @Async(AsyncConfiguration.AUDIT_EXECUTOR)
     @EventListener
     public void auditReservationCreated(ReservationCreatedEvent event) {
-        String auditEntry = String.format(
-                "[AUDIT] RESERVATION_CREATED | ID: %s | Restaurant: %s | Room: %s | Date: %s | Time: %s | Diner: %s | Party: %d | Timestamp: %s",
-                event.getReservationId(),
-                event.getRestaurantId(),
-                event.getRoomName(),
-                event.getReservationDate(),
-                event.getTimeSlot(),
-                event.getDinerEmail(),
-                event.getPartySize(),
-                event.getCreatedAt()
-        );
+        AuditEntry entry = new AuditEntry();
+        entry.setAction(AuditEntry.Action.RESERVATION_CREATED);
+        entry.setReservationId(event.getReservationId());
+        entry.setRestaurantId(event.getRestaurantId());
+        entry.setRoomId(event.getRoomId());
+        entry.setRoomName(event.getRoomName());
+        entry.setReservationDate(event.getReservationDate());
+        entry.setTimeSlot(event.getTimeSlot());
+        entry.setActor(event.getDinerEmail());
+        entry.setDetails("Party: " + event.getPartySize());
+        entry.setOccurredAt(event.getCreatedAt());
 
-        log.info(auditEntry);
-
-        // In production, persist to audit table:
+        log.debug("[AUDIT] RESERVATION_CREATED queued for reservation {}", event.getReservationId());
+        auditLogWriter.append(entry);
     }
 
     /**
      * Audits reservation cancellation events.
      */
-    @Async
+    @Async(AsyncConfiguration.AUDIT_EXECUTOR)
     @EventListener
     public void auditReservationCancelled(ReservationCancelledEvent event) {
-        String auditEntry = String.format(
-                "[AUDIT] RESERVATION_CANCELLED | ID: %s | Restaurant: %s | Room: %s | Date: %s | Time: %s | Cancelled By: %s | Reason: %s | Timestamp: %s",
-                event.getReservationId(),
-                event.getRestaurantId(),
-                event.getRoomName(),
-                event.getReservationDate(),
-                event.getTimeSlot(),
-                event.getCancelledBy(),
-                event.getCancellationReason(),
-                event.getCancelledAt()
-        );
-
-        log.info(auditEntry);
+        AuditEntry entry = new AuditEntry();
+        entry.setAction(AuditEntry.Action.RESERVATION_CANCELLED);
+        entry.setReservationId(event.getReservationId());
+        entry.setRestaurantId(event.getRestaurantId());
+        entry.setRoomId(event.getRoomId());
+        entry.setRoomName(event.getRoomName());
+        entry.setReservationDate(event.getReservationDate());
+        entry.setTimeSlot(event.getTimeSlot());
+        entry.setActor(event.getCancelledBy());
+        entry.setDetails(event.getCancellationReason() == null ? null : "Reason: " + event.getCancellationReason());
+        entry.setOccurredAt(event.getCancelledAt());
 
-        // In production, persist to audit table
+        log.debug("[AUDIT] RESERVATION_CANCELLED queued for reservation {}", event.getReservationId());
+        auditLogWriter.append(entry);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package com.opentable.reservation.listener;
+
+import com.opentable.reservation.model.Room;
+import com.opentable.reservation.repository.RoomRules;
+import com.opentable.reservation.service.RoomRulesCatalog;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * JPA entity listener that applies room changes to {@link RoomRulesCatalog} once they are committed,
+ * so a booking never validates against a change that is later rolled back.
+ * <p>
+ * Hibernate creates the listener through Spring's bean container while the entity manager factory is
+ * being built, before the catalog and the repository it needs can exist, so the catalog is looked up
+ * on first use.
+ */
+public class RoomChangeListener {
+
+    private final ObjectProvider<RoomRulesCatalog> roomRulesCatalog;
+
+    public RoomChangeListener(ObjectProvider<RoomRulesCatalog> roomRulesCatalog) {
+        this.roomRulesCatalog = roomRulesCatalog;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void roomSaved(Room room) {
+        RoomRules rules = RoomRules.from(room);
+        afterCommit(() -> roomRulesCatalog.getObject().put(rules));
+    }
+
+    @PostRemove
+    public void roomRemoved(Room room) {
+        UUID roomId = room.getId();
+        afterCommit(() -> roomRulesCatalog.getObject().evict(roomId));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
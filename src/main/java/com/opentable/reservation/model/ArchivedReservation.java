@@ -0,0 +1,77 @@
+package com.opentable.reservation.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * A past reservation moved out of the reservations table by the archival job. Read-only; rows are
+ * only ever written by the archive move itself.
+ */
+@Getter
+@Entity
+@Immutable
+@Table(name = "reservations_archive")
+public class ArchivedReservation {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "restaurant_id")
+    private UUID restaurantId;
+
+    @Column(name = "room_id")
+    private UUID roomId;
+
+    @Column(name = "reservation_date")
+    private LocalDate reservationDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "time_slot")
+    private TimeSlot timeSlot;
+
+    @Column(name = "party_size")
+    private int partySize;
+
+    @Column(name = "diner_name")
+    private String dinerName;
+
+    @Column(name = "diner_email")
+    private String dinerEmail;
+
+    @Column(name = "diner_phone")
+    private String dinerPhone;
+
+    @Enumerated(EnumType.STRING)
+    private ReservationStatus status;
+
+    @Column(name = "special_requests")
+    private String specialRequests;
+
+    @Column(name = "cancellation_reason")
+    private String cancellationReason;
+
+    @Column(name = "cancelled_by")
+    private String cancelledBy;
+
+    @Column(name = "confirmed_at")
+    private OffsetDateTime confirmedAt;
+
+    @Column(name = "cancelled_at")
+    private OffsetDateTime cancelledAt;
+
+    @Column(name = "created_at")
+    private OffsetDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+
+    private long version;
+
+    @Column(name = "archived_at")
+    private OffsetDateTime archivedAt;
+}
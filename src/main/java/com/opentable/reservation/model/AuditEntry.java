@@ -0,0 +1,66 @@
+package com.opentable.reservation.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * One immutable line of the reservation audit trail. Rows are only ever inserted, by
+ * {@link com.opentable.reservation.service.AuditLogWriter}, and a reservation has at most one per action.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "audit_log")
+public class AuditEntry {
+
+    public enum Action {
+        RESERVATION_CREATED,
+        RESERVATION_CANCELLED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_log_seq")
+    @SequenceGenerator(name = "audit_log_seq", sequenceName = "audit_log_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private Action action;
+
+    @Column(name = "reservation_id", nullable = false)
+    private UUID reservationId;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private UUID restaurantId;
+
+    @Column(name = "room_id", nullable = false)
+    private UUID roomId;
+
+    @Column(name = "room_name")
+    private String roomName;
+
+    @Column(name = "reservation_date", nullable = false)
+    private LocalDate reservationDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "time_slot", nullable = false)
+    private TimeSlot timeSlot;
+
+    private String actor;
+
+    @Column(length = 1000)
+    private String details;
+
+    @Column(name = "occurred_at")
+    private OffsetDateTime occurredAt;
+
+    @CreationTimestamp
+    @Column(name = "recorded_at", nullable = false)
+    private OffsetDateTime recordedAt;
+}
@@ -0,0 +1,48 @@
+package com.opentable.reservation.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * A reservation event waiting to be (or already) delivered to listeners by the outbox relay.
+ * Rows become visible only when the transaction that wrote the reservation commits.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "reservation_outbox")
+public class OutboxEvent {
+
+    // Sequence with a matching allocation size keeps outbox inserts batchable alongside reservation inserts
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_outbox_seq")
+    @SequenceGenerator(name = "reservation_outbox_seq", sequenceName = "reservation_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private UUID aggregateId;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "published_at")
+    private OffsetDateTime publishedAt;
+}
@@ -1,5 +1,6 @@
 package com.opentable.reservation.model;
 
+import com.opentable.reservation.listener.RoomChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -18,6 +19,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity(name = "rooms")
+@EntityListeners(RoomChangeListener.class)
 public class Room {
 
     @Id
@@ -0,0 +1,30 @@
+package com.opentable.reservation.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Simulates a bulk email provider: one call with fixed latency per batch, logging each message.
+ * In real-world scenario this would integrate with an email service (SendGrid, SES, etc.)
+ */
+@Slf4j
+@Component
+public class LoggingNotificationSender implements NotificationSender {
+
+    @Override
+    public void send(List<Notification> batch) {
+        try {
+            // Simulate email service latency, paid once per provider call
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Email sending interrupted", e);
+        }
+        for (Notification notification : batch) {
+            log.debug("Email sent - To: {}, Subject: {}, Reservation: {}", notification.recipient(), notification.subject(), notification.reservationId());
+        }
+        log.info("[NOTIFICATION] Sent {} emails in one provider call", batch.size());
+    }
+}
@@ -0,0 +1,73 @@
+package com.opentable.reservation.notification;
+
+import com.opentable.reservation.event.ReservationCancelledEvent;
+import com.opentable.reservation.event.ReservationCreatedEvent;
+import com.opentable.reservation.model.TimeSlot;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * An outgoing diner email. The subject and body are rendered only when the message is sent,
+ * so messages that are coalesced away never pay for formatting.
+ */
+public record Notification(
+        Kind kind,
+        UUID reservationId,
+        String recipient,
+        String dinerName,
+        String roomName,
+        LocalDate reservationDate,
+        TimeSlot timeSlot,
+        int partySize
+) {
+
+    public enum Kind {
+        CONFIRMATION,
+        CANCELLATION
+    }
+
+    public static Notification confirmation(ReservationCreatedEvent event) {
+        return new Notification(Kind.CONFIRMATION, event.getReservationId(), event.getDinerEmail(), event.getDinerName(),
+                event.getRoomName(), event.getReservationDate(), event.getTimeSlot(), event.getPartySize());
+    }
+
+    public static Notification cancellation(ReservationCancelledEvent event) {
+        return new Notification(Kind.CANCELLATION, event.getReservationId(), event.getDinerEmail(), event.getDinerName(),
+                event.getRoomName(), event.getReservationDate(), event.getTimeSlot(), 0);
+    }
+
+    public String subject() {
+        return kind == Kind.CONFIRMATION ? "Reservation Confirmation" : "Reservation Cancelled";
+    }
+
+    public String body() {
+        if (kind == Kind.CONFIRMATION) {
+            return """
+                    Dear %s,
+
+                    Your reservation at %s has been confirmed!
+
+                    Date: %s
+                    Time: %s
+                    Party Size: %d
+                    Room: %s
+
+                    We look forward to serving you!
+
+                    Reservation ID: %s
+                    """.formatted(dinerName, roomName, reservationDate, timeSlot, partySize, roomName, reservationId);
+        }
+        return """
+                Dear %s,
+
+                Your reservation at %s has been cancelled.
+
+                Original Date: %s
+                Original Time: %s
+                Reservation ID: %s
+
+                We hope to serve you in the future.
+                """.formatted(dinerName, roomName, reservationDate, timeSlot, reservationId);
+    }
+}
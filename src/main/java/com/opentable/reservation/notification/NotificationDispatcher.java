@@ -0,0 +1,172 @@
+package com.opentable.reservation.notification;
+
+import com.opentable.reservation.config.NotificationProperties;
+import com.opentable.reservation.config.OutboxConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffers diner notifications and hands them to the {@link NotificationSender} in batches.
+ * <p>
+ * Pending messages are keyed by reservation, and a newer message replaces the one still pending for
+ * the same reservation. A booking cancelled before its confirmation went out therefore produces a
+ * single message, the cancellation notice, which tells the diner everything the confirmation would
+ * have; a redelivered event replaces its own earlier copy. The buffer is
+ * flushed on the dispatcher's own scheduler thread every {@link NotificationProperties#maxDelay()}, and
+ * sooner once {@link NotificationProperties#batchSize()} messages are pending; a flush sends at most
+ * that many messages per call to the sender.
+ * <p>
+ * A message is accepted as soon as it is queued, so the outbox relay never waits for a send. The
+ * dispatcher owns retries instead: messages in a batch the sender rejects go back into the buffer
+ * unless a newer message for the same reservation has replaced them, and are given up on after
+ * {@link #MAX_SEND_ATTEMPTS} failed sends. The buffer is flushed once more when the instance stops.
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher {
+
+    static final int MAX_SEND_ATTEMPTS = 5;
+
+    private final NotificationSender sender;
+    private final Executor flushExecutor;
+    private final int batchSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<UUID, Notification> pending = new LinkedHashMap<>();
+    private final Map<UUID, Integer> failedSends = new HashMap<>();
+
+    private final Counter sent;
+    private final Counter batches;
+    private final Counter coalesced;
+    private final Counter retried;
+    private final Counter failed;
+
+    public NotificationDispatcher(NotificationSender sender,
+                                  @Qualifier(OutboxConfig.NOTIFICATION_SCHEDULER) Executor flushExecutor,
+                                  NotificationProperties properties, MeterRegistry meterRegistry) {
+        this.sender = sender;
+        this.flushExecutor = flushExecutor;
+        this.batchSize = properties.batchSize();
+        this.sent = meterRegistry.counter("notifications.sent");
+        this.batches = meterRegistry.counter("notifications.batches");
+        this.coalesced = meterRegistry.counter("notifications.coalesced");
+        this.retried = meterRegistry.counter("notifications.retried");
+        this.failed = meterRegistry.counter("notifications.failed");
+    }
+
+    /**
+     * Queues the notification, triggering a flush if a full batch is now pending. Never sends on the
+     * calling thread.
+     */
+    public void enqueue(Notification notification) {
+        boolean full;
+        lock.lock();
+        try {
+            // Remove first so the replacement takes the newest position in the batch
+            Notification previous = pending.remove(notification.reservationId());
+            if (previous != null) {
+                // A newer message starts its own count of send attempts
+                failedSends.remove(notification.reservationId());
+            }
+            if (previous != null) {
+                coalesced.increment();
+                log.debug("Coalesced {} into {} for reservation {}", previous.kind(), notification.kind(), notification.reservationId());
+            }
+            pending.put(notification.reservationId(), notification);
+            full = pending.size() >= batchSize;
+        } finally {
+            lock.unlock();
+        }
+        if (full) {
+            flushExecutor.execute(this::flush);
+        }
+    }
+
+    /**
+     * Sends whatever is pending, so no message waits longer than the configured delay.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.max-delay}", scheduler = OutboxConfig.NOTIFICATION_SCHEDULER)
+    @PreDestroy
+    public void flush() {
+        List<Notification> drained;
+        lock.lock();
+        try {
+            drained = new ArrayList<>(pending.values());
+            pending.clear();
+        } finally {
+            lock.unlock();
+        }
+        for (int from = 0; from < drained.size(); from += batchSize) {
+            send(drained.subList(from, Math.min(from + batchSize, drained.size())));
+        }
+    }
+
+    private void send(List<Notification> batch) {
+        try {
+            sender.send(batch);
+            batches.increment();
+            sent.increment(batch.size());
+            if (!failedSends.isEmpty()) {
+                forgetFailures(batch);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to send batch of {} notifications", batch.size(), e);
+            requeue(batch);
+        }
+    }
+
+    /**
+     * Puts the messages of a failed batch back ahead of those queued since, unless a newer message
+     * for the same reservation has replaced them or they have run out of attempts.
+     */
+    private void requeue(List<Notification> batch) {
+        lock.lock();
+        try {
+            Map<UUID, Notification> queuedSince = new LinkedHashMap<>(pending);
+            pending.clear();
+            for (Notification notification : batch) {
+                UUID reservationId = notification.reservationId();
+                if (queuedSince.containsKey(reservationId)) {
+                    failedSends.remove(reservationId);
+                    continue;
+                }
+                int attempts = failedSends.merge(reservationId, 1, Integer::sum);
+                if (attempts >= MAX_SEND_ATTEMPTS) {
+                    failedSends.remove(reservationId);
+                    failed.increment();
+                    log.error("Giving up on {} notification for reservation {} after {} attempts",
+                            notification.kind(), reservationId, attempts);
+                    continue;
+                }
+                retried.increment();
+                pending.put(reservationId, notification);
+            }
+            pending.putAll(queuedSince);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void forgetFailures(List<Notification> batch) {
+        lock.lock();
+        try {
+            batch.forEach(notification -> failedSends.remove(notification.reservationId()));
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.opentable.reservation.notification;
+
+import java.util.List;
+
+/**
+ * Delivers a batch of notifications to an email provider in as few calls as the provider allows.
+ * Declare another implementation as a {@code @Primary} bean to replace {@link LoggingNotificationSender}.
+ */
+public interface NotificationSender {
+
+    void send(List<Notification> batch);
+}
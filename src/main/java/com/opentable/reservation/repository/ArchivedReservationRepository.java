@@ -0,0 +1,97 @@
+package com.opentable.reservation.repository;
+
+import com.opentable.reservation.dto.ReservationResponse;
+import com.opentable.reservation.model.ArchivedReservation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface ArchivedReservationRepository extends JpaRepository<ArchivedReservation, UUID> {
+
+    /**
+     * Moves up to {@code limit} confirmed or cancelled reservations dated before the cutoff into the
+     * archive in one statement, so each row is in exactly one of the two tables at any time. Rows
+     * locked by a running booking or cancellation are skipped and picked up by a later batch.
+     */
+    @Modifying
+    @Query(value = """
+            with moved as (
+                delete from reservations
+                where (id, reservation_date) in (
+                    select id, reservation_date from reservations
+                    where reservation_date < :cutoff
+                      and status in ('CONFIRMED', 'CANCELLED')
+                    limit :limit
+                    for update skip locked
+                )
+                returning *
+            )
+            insert into reservations_archive (
+                id, restaurant_id, room_id, reservation_date, time_slot, party_size,
+                diner_name, diner_email, diner_phone, status, special_requests,
+                cancellation_reason, cancelled_by, confirmed_at, cancelled_at,
+                created_at, updated_at, version)
+            select id, restaurant_id, room_id, reservation_date, time_slot, party_size,
+                   diner_name, diner_email, diner_phone, status, special_requests,
+                   cancellation_reason, cancelled_by, confirmed_at, cancelled_at,
+                   created_at, updated_at, version
+            from moved
+            """, nativeQuery = true)
+    int archiveBatch(@Param("cutoff") LocalDate cutoff, @Param("limit") int limit);
+
+    @Query("""
+            select new com.opentable.reservation.dto.ReservationResponse(
+                a.id, a.roomId, a.restaurantId, a.reservationDate, a.timeSlot, a.partySize, a.status,
+                a.dinerName, a.dinerEmail, a.dinerPhone, a.specialRequests, a.createdAt, a.updatedAt)
+            from ArchivedReservation a
+            where a.id = :id
+            """)
+    Optional<ReservationResponse> findResponseById(@Param("id") UUID id);
+
+    @Query("""
+            select new com.opentable.reservation.dto.ReservationResponse(
+                a.id, a.roomId, a.restaurantId, a.reservationDate, a.timeSlot, a.partySize, a.status,
+                a.dinerName, a.dinerEmail, a.dinerPhone, a.specialRequests, a.createdAt, a.updatedAt)
+            from ArchivedReservation a
+            where lower(a.dinerEmail) = lower(:email)
+            order by a.reservationDate desc, a.id desc
+            """)
+    List<ReservationResponse> findDinerReservations(@Param("email") String email, Limit limit);
+
+    @Query("""
+            select new com.opentable.reservation.dto.ReservationResponse(
+                a.id, a.roomId, a.restaurantId, a.reservationDate, a.timeSlot, a.partySize, a.status,
+                a.dinerName, a.dinerEmail, a.dinerPhone, a.specialRequests, a.createdAt, a.updatedAt)
+            from ArchivedReservation a
+            where lower(a.dinerEmail) = lower(:email)
+              and a.reservationDate <= :afterDate
+              and (a.reservationDate, a.id) < (:afterDate, :afterId)
+            order by a.reservationDate desc, a.id desc
+            """)
+    List<ReservationResponse> findDinerReservationsAfter(@Param("email") String email,
+                                                         @Param("afterDate") LocalDate afterDate,
+                                                         @Param("afterId") UUID afterId,
+                                                         Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ReservationRepository.EXPORT_FETCH_SIZE))
+    @Query("""
+            select new com.opentable.reservation.repository.ReservationExportRow(
+                a.id, a.roomId, a.reservationDate, a.timeSlot, a.partySize, a.status,
+                a.dinerName, a.dinerEmail, a.dinerPhone, a.specialRequests, a.createdAt, a.cancelledAt)
+            from ArchivedReservation a
+            where a.restaurantId = :restaurantId
+            order by a.reservationDate desc, a.id desc
+            """)
+    Stream<ReservationExportRow> streamRestaurantReservations(@Param("restaurantId") UUID restaurantId);
+}
@@ -0,0 +1,75 @@
+package com.opentable.reservation.repository;
+
+import com.opentable.reservation.model.AuditEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keyset-paginated reads of the audit trail, newest first by (recorded_at, id), each served by the
+ * matching composite index on audit_log.
+ */
+public interface AuditEntryRepository extends JpaRepository<AuditEntry, Long> {
+
+    @Query("""
+            select e from AuditEntry e
+            where e.reservationId = :reservationId
+            order by e.recordedAt desc, e.id desc
+            """)
+    List<AuditEntry> findReservationEntries(@Param("reservationId") UUID reservationId, Limit limit);
+
+    @Query("""
+            select e from AuditEntry e
+            where e.reservationId = :reservationId
+              and e.recordedAt <= :afterRecordedAt
+              and (e.recordedAt, e.id) < (:afterRecordedAt, :afterId)
+            order by e.recordedAt desc, e.id desc
+            """)
+    List<AuditEntry> findReservationEntriesAfter(@Param("reservationId") UUID reservationId,
+                                                 @Param("afterRecordedAt") OffsetDateTime afterRecordedAt,
+                                                 @Param("afterId") Long afterId,
+                                                 Limit limit);
+
+    @Query("""
+            select e from AuditEntry e
+            where e.roomId = :roomId
+            order by e.recordedAt desc, e.id desc
+            """)
+    List<AuditEntry> findRoomEntries(@Param("roomId") UUID roomId, Limit limit);
+
+    @Query("""
+            select e from AuditEntry e
+            where e.roomId = :roomId
+              and e.recordedAt <= :afterRecordedAt
+              and (e.recordedAt, e.id) < (:afterRecordedAt, :afterId)
+            order by e.recordedAt desc, e.id desc
+            """)
+    List<AuditEntry> findRoomEntriesAfter(@Param("roomId") UUID roomId,
+                                          @Param("afterRecordedAt") OffsetDateTime afterRecordedAt,
+                                          @Param("afterId") Long afterId,
+                                          Limit limit);
+
+    @Query("""
+            select e from AuditEntry e
+            where e.restaurantId = :restaurantId
+            order by e.recordedAt desc, e.id desc
+            """)
+    List<AuditEntry> findRestaurantEntries(@Param("restaurantId") UUID restaurantId, Limit limit);
+
+    @Query("""
+            select e from AuditEntry e
+            where e.restaurantId = :restaurantId
+              and e.recordedAt <= :afterRecordedAt
+              and (e.recordedAt, e.id) < (:afterRecordedAt, :afterId)
+            order by e.recordedAt desc, e.id desc
+            """)
+    List<AuditEntry> findRestaurantEntriesAfter(@Param("restaurantId") UUID restaurantId,
+                                                @Param("afterRecordedAt") OffsetDateTime afterRecordedAt,
+                                                @Param("afterId") Long afterId,
+                                                Limit limit);
+}
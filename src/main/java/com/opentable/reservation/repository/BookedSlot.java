@@ -0,0 +1,14 @@
+package com.opentable.reservation.repository;
+
+import com.opentable.reservation.model.TimeSlot;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Read-only projection of the reservation columns needed to compute availability. Every query
+ * returning it already filters to active statuses, so the status itself is not selected.
+ * Being a DTO rather than an entity, it is neither registered in the persistence context nor dirty-checked.
+ */
+public record BookedSlot(UUID roomId, LocalDate reservationDate, TimeSlot timeSlot) {
+}
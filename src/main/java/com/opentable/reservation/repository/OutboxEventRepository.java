@@ -0,0 +1,31 @@
+package com.opentable.reservation.repository;
+
+import com.opentable.reservation.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest undelivered events. Rows locked by another relay instance are skipped
+     * rather than waited on, so several instances can drain the outbox side by side.
+     */
+    @Query(value = """
+            select * from reservation_outbox
+            where published_at is null
+              and attempts < :maxAttempts
+            order by id
+            limit :limit
+            for update skip locked
+            """, nativeQuery = true)
+    List<OutboxEvent> lockPendingBatch(@Param("maxAttempts") int maxAttempts, @Param("limit") int limit);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") OffsetDateTime cutoff);
+}
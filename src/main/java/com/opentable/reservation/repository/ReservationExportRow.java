@@ -0,0 +1,28 @@
+package com.opentable.reservation.repository;
+
+import com.opentable.reservation.model.ReservationStatus;
+import com.opentable.reservation.model.TimeSlot;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Flat reservation row streamed by the export queries. Being a projection rather than an entity,
+ * rows are not kept in the persistence context, so a stream of any length uses constant memory.
+ */
+public record ReservationExportRow(
+        UUID id,
+        UUID roomId,
+        LocalDate reservationDate,
+        TimeSlot timeSlot,
+        int partySize,
+        ReservationStatus status,
+        String dinerName,
+        String dinerEmail,
+        String dinerPhone,
+        String specialRequests,
+        OffsetDateTime createdAt,
+        OffsetDateTime cancelledAt
+) {
+}
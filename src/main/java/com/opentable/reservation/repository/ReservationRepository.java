@@ -1,20 +1,29 @@
 package com.opentable.reservation.repository;
 
+import com.opentable.reservation.dto.ReservationResponse;
 import com.opentable.reservation.model.Reservation;
 import com.opentable.reservation.model.ReservationStatus;
 import com.opentable.reservation.model.TimeSlot;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface ReservationRepository extends JpaRepository<Reservation, UUID> {
 
+    String EXPORT_FETCH_SIZE = "500";
+
     boolean existsByRoomIdAndReservationDateAndTimeSlotAndStatusIn(
             UUID roomId,
             LocalDate reservationDate,
@@ -22,12 +31,175 @@ public interface ReservationRepository extends JpaRepository<Reservation, UUID>
             List<ReservationStatus> statuses
     );
 
-    Page<Reservation> findByDinerEmailIgnoreCase(String dinerEmail, Pageable pageable);
+    @Query("""
+            select new com.opentable.reservation.dto.ReservationResponse(
+                r.id, r.room.id, r.restaurant.id, r.reservationDate, r.timeSlot, r.partySize, r.status,
+                r.dinerName, r.dinerEmail, r.dinerPhone, r.specialRequests, r.createdAt, r.updatedAt)
+            from Reservation r
+            where r.id = :id
+            """)
+    Optional<ReservationResponse> findResponseById(@Param("id") UUID id);
+
+    /**
+     * Loads a reservation together with its room, whose name goes into the events published on
+     * cancellation. The restaurant stays lazy: only its id, already held by the proxy, is read.
+     */
+    @EntityGraph(attributePaths = "room")
+    Optional<Reservation> findWithRoomById(UUID id);
+
+    /*
+     * Listings are keyset-paginated on (reservation_date DESC, id DESC): the first page has no
+     * position, and each following page starts strictly after the last row of the previous one.
+     * Nothing is skipped or counted, so every page costs the same however deep it is. The
+     * redundant reservationDate bound lets the planner prune later monthly partitions, which it
+     * cannot do from the row comparison alone.
+     *
+     * Rows are projected straight into ReservationResponse. The room and restaurant ids come from
+     * the foreign key columns, so a page is one statement and no entity is loaded into the session.
+     */
+
+    @Query("""
+            select new com.opentable.reservation.dto.ReservationResponse(
+                r.id, r.room.id, r.restaurant.id, r.reservationDate, r.timeSlot, r.partySize, r.status,
+                r.dinerName, r.dinerEmail, r.dinerPhone, r.specialRequests, r.createdAt, r.updatedAt)
+            from Reservation r
+            where lower(r.dinerEmail) = lower(:email)
+            order by r.reservationDate desc, r.id desc
+            """)
+    List<ReservationResponse> findDinerReservations(@Param("email") String email, Limit limit);
+
+    @Query("""
+            select new com.opentable.reservation.dto.ReservationResponse(
+                r.id, r.room.id, r.restaurant.id, r.reservationDate, r.timeSlot, r.partySize, r.status,
+                r.dinerName, r.dinerEmail, r.dinerPhone, r.specialRequests, r.createdAt, r.updatedAt)
+            from Reservation r
+            where lower(r.dinerEmail) = lower(:email)
+              and r.reservationDate <= :afterDate
+              and (r.reservationDate, r.id) < (:afterDate, :afterId)
+            order by r.reservationDate desc, r.id desc
+            """)
+    List<ReservationResponse> findDinerReservationsAfter(@Param("email") String email,
+                                                         @Param("afterDate") LocalDate afterDate,
+                                                         @Param("afterId") UUID afterId,
+                                                         Limit limit);
+
+    @Query("""
+            select new com.opentable.reservation.dto.ReservationResponse(
+                r.id, r.room.id, r.restaurant.id, r.reservationDate, r.timeSlot, r.partySize, r.status,
+                r.dinerName, r.dinerEmail, r.dinerPhone, r.specialRequests, r.createdAt, r.updatedAt)
+            from Reservation r
+            where lower(r.dinerEmail) = lower(:email)
+              and r.reservationDate >= :from
+            order by r.reservationDate desc, r.id desc
+            """)
+    List<ReservationResponse> findUpcomingDinerReservations(@Param("email") String email, @Param("from") LocalDate from, Limit limit);
+
+    @Query("""
+            select new com.opentable.reservation.dto.ReservationResponse(
+                r.id, r.room.id, r.restaurant.id, r.reservationDate, r.timeSlot, r.partySize, r.status,
+                r.dinerName, r.dinerEmail, r.dinerPhone, r.specialRequests, r.createdAt, r.updatedAt)
+            from Reservation r
+            where lower(r.dinerEmail) = lower(:email)
+              and r.reservationDate >= :from
+              and r.reservationDate <= :afterDate
+              and (r.reservationDate, r.id) < (:afterDate, :afterId)
+            order by r.reservationDate desc, r.id desc
+            """)
+    List<ReservationResponse> findUpcomingDinerReservationsAfter(@Param("email") String email,
+                                                                 @Param("from") LocalDate from,
+                                                                 @Param("afterDate") LocalDate afterDate,
+                                                                 @Param("afterId") UUID afterId,
+                                                                 Limit limit);
+
+    @Query("""
+            select new com.opentable.reservation.dto.ReservationResponse(
+                r.id, r.room.id, r.restaurant.id, r.reservationDate, r.timeSlot, r.partySize, r.status,
+                r.dinerName, r.dinerEmail, r.dinerPhone, r.specialRequests, r.createdAt, r.updatedAt)
+            from Reservation r
+            where r.restaurant.id = :restaurantId
+            order by r.reservationDate desc, r.id desc
+            """)
+    List<ReservationResponse> findRestaurantReservations(@Param("restaurantId") UUID restaurantId, Limit limit);
+
+    @Query("""
+            select new com.opentable.reservation.dto.ReservationResponse(
+                r.id, r.room.id, r.restaurant.id, r.reservationDate, r.timeSlot, r.partySize, r.status,
+                r.dinerName, r.dinerEmail, r.dinerPhone, r.specialRequests, r.createdAt, r.updatedAt)
+            from Reservation r
+            where r.restaurant.id = :restaurantId
+              and r.reservationDate <= :afterDate
+              and (r.reservationDate, r.id) < (:afterDate, :afterId)
+            order by r.reservationDate desc, r.id desc
+            """)
+    List<ReservationResponse> findRestaurantReservationsAfter(@Param("restaurantId") UUID restaurantId,
+                                                              @Param("afterDate") LocalDate afterDate,
+                                                              @Param("afterId") UUID afterId,
+                                                              Limit limit);
+
+    @Query("""
+            select new com.opentable.reservation.repository.BookedSlot(r.room.id, r.reservationDate, r.timeSlot)
+            from Reservation r
+            where r.room.id = :roomId
+              and r.reservationDate between :start and :end
+              and r.status in :statuses
+            """)
+    List<BookedSlot> findActiveSlots(@Param("roomId") UUID roomId,
+                                     @Param("start") LocalDate start,
+                                     @Param("end") LocalDate end,
+                                     @Param("statuses") List<ReservationStatus> statuses);
+
+    @Query("""
+            select new com.opentable.reservation.repository.BookedSlot(r.room.id, r.reservationDate, r.timeSlot)
+            from Reservation r
+            where r.room.id in :roomIds
+              and r.reservationDate between :start and :end
+              and r.status in :statuses
+            """)
+    List<BookedSlot> findBookedSlotsForRooms(@Param("roomIds") Collection<UUID> roomIds,
+                                             @Param("start") LocalDate start,
+                                             @Param("end") LocalDate end,
+                                             @Param("statuses") List<ReservationStatus> statuses);
 
-    @Query("select r from Reservation r where r.dinerEmail = :email and r.reservationDate >= :from")
-    Page<Reservation> findUpcomingReservations(@Param("email") String email, @Param("from") LocalDate from, Pageable pageable);
+    @Query("""
+            select new com.opentable.reservation.repository.BookedSlot(r.room.id, r.reservationDate, r.timeSlot)
+            from Reservation r
+            where r.reservationDate between :start and :end
+              and r.status in :statuses
+            """)
+    List<BookedSlot> findBookedSlotsBetween(@Param("start") LocalDate start,
+                                            @Param("end") LocalDate end,
+                                            @Param("statuses") List<ReservationStatus> statuses);
 
-    Page<Reservation> findByRestaurantId(UUID restaurantId, Pageable pageable);
+    /**
+     * Per-room lifetime totals used to seed occupancy statistics, including archived reservations.
+     * Lead time is counted in whole days from booking to the reservation date.
+     */
+    @Query(value = """
+            select room_id as roomId,
+                   count(*) as reservations,
+                   count(*) filter (where status = 'CANCELLED') as cancellations,
+                   coalesce(sum(reservation_date - cast(created_at as date)), 0) as leadDays
+            from (
+                select room_id, status, reservation_date, created_at from reservations
+                union all
+                select room_id, status, reservation_date, created_at from reservations_archive
+            ) all_reservations
+            group by room_id
+            """, nativeQuery = true)
+    List<RoomReservationTotals> summarizeByRoom();
 
-    List<Reservation> findByRoomIdAndReservationDateBetween(UUID roomId, LocalDate start, LocalDate end);
-}
\ No newline at end of file
+    /**
+     * Streams every reservation of a restaurant, newest first, through a server-side cursor that
+     * fetches {@value #EXPORT_FETCH_SIZE} rows at a time. Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("""
+            select new com.opentable.reservation.repository.ReservationExportRow(
+                r.id, r.room.id, r.reservationDate, r.timeSlot, r.partySize, r.status,
+                r.dinerName, r.dinerEmail, r.dinerPhone, r.specialRequests, r.createdAt, r.cancelledAt)
+            from Reservation r
+            where r.restaurant.id = :restaurantId
+            order by r.reservationDate desc, r.id desc
+            """)
+    Stream<ReservationExportRow> streamRestaurantReservations(@Param("restaurantId") UUID restaurantId);
+}
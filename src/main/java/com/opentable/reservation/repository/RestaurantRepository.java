@@ -2,10 +2,15 @@ package com.opentable.reservation.repository;
 
 import com.opentable.reservation.model.Restaurant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.UUID;
 
 public interface RestaurantRepository extends JpaRepository<Restaurant, UUID> {
-    List<Restaurant> findByCityIgnoreCase(String city);
+
+    // Spelled out so it matches the lower(city) index, like RoomRepository.findBookableRoomsInCity
+    @Query("select r from Restaurant r where lower(r.city) = lower(:city)")
+    List<Restaurant> findByCityIgnoreCase(@Param("city") String city);
 }
\ No newline at end of file
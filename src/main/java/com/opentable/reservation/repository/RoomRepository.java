@@ -4,7 +4,10 @@ import com.opentable.reservation.model.Restaurant;
 import com.opentable.reservation.model.Room;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,4 +18,37 @@ public interface RoomRepository extends JpaRepository<Room, UUID> {
     List<Room> findByRestaurant(Restaurant restaurant);
 
     Optional<Room> findByIdAndRestaurantId(UUID roomId, UUID restaurantId);
-}
\ No newline at end of file
+
+    @Query("""
+            select r from rooms r join fetch r.restaurant
+            where r.restaurant.id = :restaurantId
+              and r.active = true
+              and r.minCapacity <= :partySize and r.maxCapacity >= :partySize
+            """)
+    List<Room> findBookableRooms(@Param("restaurantId") UUID restaurantId, @Param("partySize") int partySize);
+
+    @Query("""
+            select r from rooms r join fetch r.restaurant rest
+            where lower(rest.city) = lower(:city)
+              and r.active = true
+              and r.minCapacity <= :partySize and r.maxCapacity >= :partySize
+            """)
+    List<Room> findBookableRoomsInCity(@Param("city") String city, @Param("partySize") int partySize);
+
+    @Query("""
+            select new com.opentable.reservation.repository.RoomRules(
+                r.id, r.restaurant.id, r.name, r.active, r.minCapacity, r.maxCapacity,
+                r.minimumSpend.amount, r.minimumSpend.currency)
+            from rooms r
+            """)
+    List<RoomRules> findAllRoomRules();
+
+    @Query("""
+            select new com.opentable.reservation.repository.RoomRules(
+                r.id, r.restaurant.id, r.name, r.active, r.minCapacity, r.maxCapacity,
+                r.minimumSpend.amount, r.minimumSpend.currency)
+            from rooms r
+            where r.id in :roomIds
+            """)
+    List<RoomRules> findRoomRules(@Param("roomIds") Collection<UUID> roomIds);
+}
@@ -0,0 +1,17 @@
+package com.opentable.reservation.repository;
+
+import java.util.UUID;
+
+/**
+ * Lifetime reservation totals of one room, read by {@link ReservationRepository#summarizeByRoom()}.
+ */
+public interface RoomReservationTotals {
+
+    UUID getRoomId();
+
+    long getReservations();
+
+    long getCancellations();
+
+    long getLeadDays();
+}
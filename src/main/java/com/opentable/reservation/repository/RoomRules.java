@@ -0,0 +1,42 @@
+package com.opentable.reservation.repository;
+
+import com.opentable.reservation.model.Room;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Immutable projection of the room columns a booking is validated against, plus the name carried by
+ * reservation events. The minimum spend amount and currency are both null when the room has none.
+ */
+public record RoomRules(UUID roomId,
+                        UUID restaurantId,
+                        String roomName,
+                        boolean active,
+                        int minCapacity,
+                        int maxCapacity,
+                        BigDecimal minimumSpendAmount,
+                        String minimumSpendCurrency) {
+
+    public static RoomRules from(Room room) {
+        Room.MinimumSpend minimumSpend = room.getMinimumSpend();
+        return new RoomRules(
+                room.getId(),
+                room.getRestaurant().getId(),
+                room.getName(),
+                room.isActive(),
+                room.getMinCapacity(),
+                room.getMaxCapacity(),
+                minimumSpend != null ? minimumSpend.getAmount() : null,
+                minimumSpend != null ? minimumSpend.getCurrency() : null
+        );
+    }
+
+    public boolean canHost(int partySize) {
+        return partySize >= minCapacity && partySize <= maxCapacity;
+    }
+
+    public boolean hasMinimumSpend() {
+        return minimumSpendAmount != null && minimumSpendCurrency != null;
+    }
+}
@@ -0,0 +1,53 @@
+package com.opentable.reservation.service;
+
+import com.opentable.reservation.dto.AuditEntryResponse;
+import com.opentable.reservation.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in an audit listing: the (recorded at, id) of the last entry returned.
+ * <p>
+ * Clients receive it as an opaque URL-safe token and send it back unchanged to get the next page.
+ */
+record AuditCursor(OffsetDateTime recordedAt, long id) {
+
+    private static final char SEPARATOR = '/';
+
+    static AuditCursor of(AuditEntryResponse entry) {
+        return new AuditCursor(entry.recordedAt(), entry.id());
+    }
+
+    String encode() {
+        byte[] position = (recordedAt.toInstant().toString() + SEPARATOR + id).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position);
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}. Returns null for a missing token, meaning the
+     * first page; throws {@link BusinessException} for a token that was not issued by us.
+     */
+    static AuditCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = position.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BusinessException("Invalid cursor");
+            }
+            return new AuditCursor(
+                    Instant.parse(position.substring(0, separator)).atOffset(ZoneOffset.UTC),
+                    Long.parseLong(position.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.opentable.reservation.service;
+
+import com.opentable.reservation.config.AuditProperties;
+import com.opentable.reservation.model.AuditEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single writer for the audit log.
+ * <p>
+ * Producers only put entries on a bounded queue, so recording an audit entry costs no database
+ * round trip. One dedicated thread takes entries off the queue and writes them with group commit:
+ * once an entry arrives it waits up to {@link AuditProperties#commitInterval()} for more, then saves
+ * up to {@link AuditProperties#batchSize()} entries in one transaction as batched inserts. When the
+ * queue is full, producers block until the writer catches up rather than dropping entries. On
+ * shutdown the writer drains the queue before the application context closes the data source.
+ * <p>
+ * An entry recorded for an outbox event is accepted once it is queued, so the relay never waits for
+ * the group commit. The writer owns retries: a batch is tried {@link #MAX_WRITE_ATTEMPTS} times, and
+ * entries that still cannot be written are kept in the application log.
+ * <p>
+ * A reservation has at most one entry per action, enforced by a unique key on
+ * {@code (reservation_id, action)}. Inserts skip entries already recorded, so an event the relay
+ * delivers again leaves the trail unchanged.
+ */
+@Slf4j
+@Component
+public class AuditLogWriter implements SmartLifecycle {
+
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final long IDLE_POLL_MILLIS = 500;
+    private static final long STOP_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final String INSERT_ENTRY = """
+            insert into audit_log (id, action, reservation_id, restaurant_id, room_id, room_name, reservation_date,
+                                   time_slot, actor, details, occurred_at, recorded_at)
+            values (nextval('audit_log_seq'), ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, now())
+            on conflict (reservation_id, action) do nothing""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactionOperations;
+    private final int batchSize;
+    private final long commitIntervalNanos;
+    private final BlockingQueue<AuditEntry> queue;
+
+    private final Counter written;
+    private final Counter duplicates;
+    private final Counter failed;
+    private final Counter batches;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate, TransactionOperations transactionOperations,
+                          AuditProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionOperations = transactionOperations;
+        this.batchSize = properties.batchSize();
+        this.commitIntervalNanos = properties.commitInterval().toNanos();
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.written = meterRegistry.counter("audit.entries.written");
+        this.duplicates = meterRegistry.counter("audit.entries.duplicate");
+        this.failed = meterRegistry.counter("audit.entries.failed");
+        this.batches = meterRegistry.counter("audit.batches");
+        meterRegistry.gauge("audit.queue.size", queue, BlockingQueue::size);
+    }
+
+    /**
+     * Queues the entry for the writer, blocking while the queue is full.
+     */
+    public void append(AuditEntry entry) {
+        if (!running) {
+            // Writer not started or already stopped; write through so the entry is not stranded
+            write(List.of(entry));
+            return;
+        }
+        try {
+            queue.put(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while queueing audit entry for reservation {}; writing it directly", entry.getReservationId());
+            write(List.of(entry));
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        writerThread = new Thread(this::runWriter, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Audit log writer started with batch size: {}, commit interval: {} ms, queue capacity: {}",
+                batchSize, TimeUnit.NANOSECONDS.toMillis(commitIntervalNanos), queue.remainingCapacity());
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (writerThread == null) {
+            return;
+        }
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Audit log writer stopped with {} entries left in the queue", queue.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runWriter() {
+        List<AuditEntry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEntry first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collectUntilFullOrDue(batch, System.nanoTime() + commitIntervalNanos);
+            } catch (InterruptedException e) {
+                // Treat as a stop request; the loop still drains what is queued
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                writeOrLog(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void collectUntilFullOrDue(List<AuditEntry> batch, long deadline) throws InterruptedException {
+        while (running && batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            // Wait in short slices so a stop request does not sit out the whole commit interval
+            AuditEntry next = queue.poll(Math.min(remaining, STOP_CHECK_NANOS), TimeUnit.NANOSECONDS);
+            if (next != null) {
+                batch.add(next);
+            }
+        }
+        queue.drainTo(batch, batchSize - batch.size());
+    }
+
+    private void writeOrLog(List<AuditEntry> batch) {
+        try {
+            write(batch);
+        } catch (RuntimeException e) {
+            // Already logged entry by entry; keep the writer running for the next batch
+        }
+    }
+
+    /**
+     * Inserts the batch in one transaction, retrying a few times before giving up and throwing.
+     * Entries whose reservation already has an entry for the same action are skipped.
+     */
+    private void write(List<AuditEntry> batch) {
+        List<Object[]> rows = batch.stream().map(AuditLogWriter::row).toList();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                int[] counts = transactionOperations.execute(status -> jdbcTemplate.batchUpdate(INSERT_ENTRY, rows));
+                int inserted = counts == null ? 0 : Arrays.stream(counts).map(count -> Math.max(count, 0)).sum();
+                batches.increment();
+                written.increment(inserted);
+                duplicates.increment(batch.size() - inserted);
+                log.debug("Wrote {} audit entries, skipped {} already recorded", inserted, batch.size() - inserted);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_WRITE_ATTEMPTS) {
+                    failed.increment(batch.size());
+                    // Keep the trail in the application log
+                    batch.forEach(entry -> log.error("[AUDIT] Unwritten {} | Reservation: {} | Room: {} | Date: {} | Time: {} | Actor: {} | Details: {}",
+                            entry.getAction(), entry.getReservationId(), entry.getRoomId(), entry.getReservationDate(),
+                            entry.getTimeSlot(), entry.getActor(), entry.getDetails()));
+                    log.error("Failed to write {} audit entries after {} attempts", batch.size(), attempt, e);
+                    throw e;
+                }
+                log.warn("Audit write of {} entries failed on attempt {}; retrying", batch.size(), attempt, e);
+                backOff(attempt);
+            }
+        }
+    }
+
+    private static Object[] row(AuditEntry entry) {
+        return new Object[]{
+                entry.getAction().name(), entry.getReservationId(), entry.getRestaurantId(), entry.getRoomId(),
+                entry.getRoomName(), entry.getReservationDate(), entry.getTimeSlot().name(), entry.getActor(),
+                entry.getDetails(), entry.getOccurredAt()
+        };
+    }
+
+    private static void backOff(int attempt) {
+        try {
+            Thread.sleep(100L * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
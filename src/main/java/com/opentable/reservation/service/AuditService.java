@@ -0,0 +1,79 @@
+package com.opentable.reservation.service;
+
+import com.opentable.reservation.dto.AuditEntryPageResponse;
+import com.opentable.reservation.dto.AuditEntryResponse;
+import com.opentable.reservation.exception.BusinessException;
+import com.opentable.reservation.model.AuditEntry;
+import com.opentable.reservation.repository.AuditEntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Read side of the audit log. Each lookup is served by its own index on audit_log.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuditService {
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final AuditEntryRepository auditEntryRepository;
+
+    /**
+     * Lists audit entries for exactly one of reservation, room or restaurant, most recently recorded
+     * first. Returns one keyset page starting after the cursor.
+     * Throws {@link BusinessException} unless exactly one filter is given, or for an invalid cursor or page size.
+     */
+    public AuditEntryPageResponse findEntries(UUID reservationId, UUID roomId, UUID restaurantId, String cursor, int size) {
+        long filters = Stream.of(reservationId, roomId, restaurantId).filter(id -> id != null).count();
+        if (filters != 1) {
+            throw new BusinessException("Exactly one of reservationId, roomId or restaurantId is required");
+        }
+        AuditCursor after = AuditCursor.decode(cursor);
+        Limit limit = pageLimit(size);
+
+        List<AuditEntry> entries;
+        if (reservationId != null) {
+            entries = after == null
+                    ? auditEntryRepository.findReservationEntries(reservationId, limit)
+                    : auditEntryRepository.findReservationEntriesAfter(reservationId, after.recordedAt(), after.id(), limit);
+        } else if (roomId != null) {
+            entries = after == null
+                    ? auditEntryRepository.findRoomEntries(roomId, limit)
+                    : auditEntryRepository.findRoomEntriesAfter(roomId, after.recordedAt(), after.id(), limit);
+        } else {
+            entries = after == null
+                    ? auditEntryRepository.findRestaurantEntries(restaurantId, limit)
+                    : auditEntryRepository.findRestaurantEntriesAfter(restaurantId, after.recordedAt(), after.id(), limit);
+        }
+
+        AuditEntryPageResponse page = toPage(entries.stream().map(AuditEntryResponse::from).toList(), size);
+        log.info("Found {} audit entries (reservation={}, room={}, restaurant={}, hasNext={})",
+                page.content().size(), reservationId, roomId, restaurantId, page.hasNext());
+        return page;
+    }
+
+    /**
+     * Fetches one row more than the page size, so the next page's existence is known without a count query.
+     */
+    private static Limit pageLimit(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessException("Page size must be between 1 and %d".formatted(MAX_PAGE_SIZE));
+        }
+        return Limit.of(size + 1);
+    }
+
+    private static AuditEntryPageResponse toPage(List<AuditEntryResponse> entries, int size) {
+        boolean hasNext = entries.size() > size;
+        List<AuditEntryResponse> content = hasNext ? entries.subList(0, size) : entries;
+        String nextCursor = hasNext ? AuditCursor.of(content.get(size - 1)).encode() : null;
+        return new AuditEntryPageResponse(content, nextCursor, hasNext);
+    }
+}
@@ -0,0 +1,58 @@
+package com.opentable.reservation.service;
+
+import com.opentable.reservation.model.ReservationStatus;
+import com.opentable.reservation.model.TimeSlot;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Day-granular view of booked slots, answered from the resident {@link RoomSlotIndex}.
+ * <p>
+ * Each day is returned as a mask with bit {@code slot.ordinal()} set when that slot is held by an
+ * active reservation. Reading a day mask out of the room bitmap is cheaper than a cache lookup, so
+ * there is no per-day cache in front of it: a range costs one bitmap read and nothing can go stale
+ * beyond the bitmap itself. Committed writes update the bitmap; the partial unique index
+ * uk_room_date_slot_active remains the source of truth for double-booking.
+ */
+@Component
+public class AvailabilityIndex {
+
+    static final List<ReservationStatus> ACTIVE_STATUSES = List.of(ReservationStatus.PENDING, ReservationStatus.CONFIRMED);
+
+    private final RoomSlotIndex roomSlotIndex;
+
+    public AvailabilityIndex(RoomSlotIndex roomSlotIndex) {
+        this.roomSlotIndex = roomSlotIndex;
+    }
+
+    /**
+     * Returns whether the slot is held by an active reservation.
+     */
+    public boolean isBooked(UUID roomId, LocalDate date, TimeSlot timeSlot) {
+        return (dayMasks(roomId, date, date)[0] & (1 << timeSlot.ordinal())) != 0;
+    }
+
+    /**
+     * Returns one booked-slot mask per day between startDate and endDate (inclusive).
+     */
+    public int[] dayMasks(UUID roomId, LocalDate startDate, LocalDate endDate) {
+        return roomSlotIndex.dayMasks(roomId, startDate, endDate);
+    }
+
+    /**
+     * Records a committed booking so the next read reflects it.
+     */
+    public void markBooked(UUID roomId, LocalDate date, TimeSlot timeSlot) {
+        roomSlotIndex.markBooked(roomId, date, timeSlot);
+    }
+
+    /**
+     * Records a committed cancellation so the next read reflects it.
+     */
+    public void markReleased(UUID roomId, LocalDate date, TimeSlot timeSlot) {
+        roomSlotIndex.markReleased(roomId, date, timeSlot);
+    }
+}
@@ -0,0 +1,116 @@
+package com.opentable.reservation.service;
+
+import com.opentable.reservation.dto.AvailabilitySearchResponse;
+import com.opentable.reservation.dto.RoomSummaryResponse;
+import com.opentable.reservation.exception.BusinessException;
+import com.opentable.reservation.model.Room;
+import com.opentable.reservation.model.TimeSlot;
+import com.opentable.reservation.repository.BookedSlot;
+import com.opentable.reservation.repository.ReservationRepository;
+import com.opentable.reservation.repository.RoomRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Searches free slots across every eligible room of a restaurant or city with two set-based
+ * queries (rooms, then booked slots), instead of one availability call per room.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AvailabilitySearchService {
+
+    static final int MAX_SEARCH_DAYS = 92;
+
+    private final RoomRepository roomRepository;
+    private final ReservationRepository reservationRepository;
+
+    /**
+     * Finds free slots for active rooms of the restaurant that can host the party.
+     * When timeSlot is null all slots are considered.
+     */
+    @Transactional(readOnly = true)
+    public AvailabilitySearchResponse searchByRestaurant(UUID restaurantId, LocalDate startDate, LocalDate endDate,
+                                                         int partySize, TimeSlot timeSlot) {
+        validateRange(startDate, endDate);
+        return search(roomRepository.findBookableRooms(restaurantId, partySize), startDate, endDate, partySize, timeSlot);
+    }
+
+    /**
+     * Finds free slots for active rooms in the city that can host the party.
+     * When timeSlot is null all slots are considered.
+     */
+    @Transactional(readOnly = true)
+    public AvailabilitySearchResponse searchByCity(String city, LocalDate startDate, LocalDate endDate,
+                                                   int partySize, TimeSlot timeSlot) {
+        validateRange(startDate, endDate);
+        return search(roomRepository.findBookableRoomsInCity(city, partySize), startDate, endDate, partySize, timeSlot);
+    }
+
+    private AvailabilitySearchResponse search(List<Room> rooms, LocalDate startDate, LocalDate endDate,
+                                              int partySize, TimeSlot timeSlot) {
+        if (rooms.isEmpty()) {
+            return new AvailabilitySearchResponse(startDate, endDate, partySize, List.of());
+        }
+
+        int dayCount = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        Map<UUID, int[]> bookedMasks = new HashMap<>();
+        rooms.forEach(room -> bookedMasks.put(room.getId(), new int[dayCount]));
+
+        List<BookedSlot> bookedSlots = reservationRepository.findBookedSlotsForRooms(
+                bookedMasks.keySet(), startDate, endDate, AvailabilityIndex.ACTIVE_STATUSES);
+        for (BookedSlot bookedSlot : bookedSlots) {
+            int day = (int) ChronoUnit.DAYS.between(startDate, bookedSlot.reservationDate());
+            bookedMasks.get(bookedSlot.roomId())[day] |= 1 << bookedSlot.timeSlot().ordinal();
+        }
+
+        EnumSet<TimeSlot> wanted = timeSlot == null ? EnumSet.allOf(TimeSlot.class) : EnumSet.of(timeSlot);
+        List<AvailabilitySearchResponse.RoomAvailability> results = new ArrayList<>();
+        for (Room room : rooms) {
+            List<AvailabilitySearchResponse.FreeDay> freeDays = freeDays(bookedMasks.get(room.getId()), startDate, wanted);
+            if (!freeDays.isEmpty()) {
+                results.add(new AvailabilitySearchResponse.RoomAvailability(RoomSummaryResponse.from(room), freeDays));
+            }
+        }
+
+        log.debug("Availability search matched {} rooms, {} with free slots between {} and {}",
+                rooms.size(), results.size(), startDate, endDate);
+        return new AvailabilitySearchResponse(startDate, endDate, partySize, results);
+    }
+
+    private List<AvailabilitySearchResponse.FreeDay> freeDays(int[] masks, LocalDate startDate, EnumSet<TimeSlot> wanted) {
+        List<AvailabilitySearchResponse.FreeDay> freeDays = new ArrayList<>();
+        for (int day = 0; day < masks.length; day++) {
+            List<TimeSlot> free = new ArrayList<>(wanted.size());
+            for (TimeSlot slot : wanted) {
+                if ((masks[day] & (1 << slot.ordinal())) == 0) {
+                    free.add(slot);
+                }
+            }
+            if (!free.isEmpty()) {
+                freeDays.add(new AvailabilitySearchResponse.FreeDay(startDate.plusDays(day), free));
+            }
+        }
+        return freeDays;
+    }
+
+    private void validateRange(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new BusinessException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_SEARCH_DAYS) {
+            throw new BusinessException("Search range must not exceed %d days".formatted(MAX_SEARCH_DAYS));
+        }
+    }
+}
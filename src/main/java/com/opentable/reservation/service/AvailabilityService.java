@@ -1,56 +1,54 @@
 package com.opentable.reservation.service;
 
 import com.opentable.reservation.dto.AvailabilityResponse;
-import com.opentable.reservation.model.Reservation;
-import com.opentable.reservation.model.ReservationStatus;
+import com.opentable.reservation.exception.BusinessException;
 import com.opentable.reservation.model.TimeSlot;
-import com.opentable.reservation.repository.ReservationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.EnumSet;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * Service to check availability of time slots for room reservations.
+ * Answers are read from the day-granular {@link AvailabilityIndex}, which serves any window from
+ * the room's resident slot bitmap.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AvailabilityService {
 
-    private static final List<ReservationStatus> ACTIVE_STATUSES = List.of(ReservationStatus.PENDING, ReservationStatus.CONFIRMED);
+    // A year of days, so one request cannot build an arbitrarily large grid
+    static final int MAX_AVAILABILITY_DAYS = 366;
+    private static final TimeSlot[] TIME_SLOTS = TimeSlot.values();
 
-    private final ReservationRepository reservationRepository;
+    private final AvailabilityIndex availabilityIndex;
 
     /**
      * Gets the availability of time slots for a room between specified dates.
+     * Throws {@link BusinessException} when the range is inverted or longer than
+     * {@value #MAX_AVAILABILITY_DAYS} days.
      */
-    @Cacheable(value = "availability", key = "#roomId + '_' + #startDate + '_' + #endDate")
     @Transactional(readOnly = true)
     public AvailabilityResponse getAvailability(UUID roomId, LocalDate startDate, LocalDate endDate) {
+        validateRange(startDate, endDate);
         log.debug("Calculating availability for room {} between {} and {}", roomId, startDate, endDate);
 
-        List<Reservation> reservations = reservationRepository.findByRoomIdAndReservationDateBetween(roomId, startDate, endDate);
-        Map<LocalDate, List<Reservation>> byDate = reservations.stream()
-                .collect(Collectors.groupingBy(Reservation::getReservationDate));
+        int[] dayMasks = availabilityIndex.dayMasks(roomId, startDate, endDate);
 
-        List<AvailabilityResponse.DayAvailability> days = new ArrayList<>();
+        List<AvailabilityResponse.DayAvailability> days = new ArrayList<>(dayMasks.length);
         LocalDate currentDate = startDate;
 
-        while (!currentDate.isAfter(endDate)) {
-            List<AvailabilityResponse.SlotAvailability> slots = new ArrayList<>();
-            for (TimeSlot slot : EnumSet.allOf(TimeSlot.class)) {
-                boolean taken = byDate.getOrDefault(currentDate, List.of()).stream()
-                        .anyMatch(res -> res.getTimeSlot() == slot && ACTIVE_STATUSES.contains(res.getStatus()));
+        for (int dayMask : dayMasks) {
+            List<AvailabilityResponse.SlotAvailability> slots = new ArrayList<>(TIME_SLOTS.length);
+            for (TimeSlot slot : TIME_SLOTS) {
+                boolean taken = (dayMask & (1 << slot.ordinal())) != 0;
 
                 // Note: Reason is null when available. Alternative approaches:
                 // 1. Omit null fields (@JsonInclude(NON_NULL))
@@ -73,8 +71,17 @@ public class AvailabilityService {
      */
     @Transactional(readOnly = true)
     public boolean isSlotAvailable(UUID roomId, LocalDate date, TimeSlot timeSlot) {
-        boolean isSlotAvailable = !reservationRepository.existsByRoomIdAndReservationDateAndTimeSlotAndStatusIn(roomId, date, timeSlot, ACTIVE_STATUSES);
+        boolean isSlotAvailable = !availabilityIndex.isBooked(roomId, date, timeSlot);
         log.trace("Time Slot check room {} date {} timeSlot {} -> {}", roomId, date, timeSlot, isSlotAvailable);
         return isSlotAvailable;
     }
-}
\ No newline at end of file
+
+    private static void validateRange(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new BusinessException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_AVAILABILITY_DAYS) {
+            throw new BusinessException("Availability range must not exceed %d days".formatted(MAX_AVAILABILITY_DAYS));
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.opentable.reservation.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.opentable.reservation.dto.OccupancyStatsResponse;
+import com.opentable.reservation.dto.OccupancyStatsResponse.RoomOccupancy;
+import com.opentable.reservation.event.ReservationCancelledEvent;
+import com.opentable.reservation.event.ReservationCreatedEvent;
+import com.opentable.reservation.model.Restaurant;
+import com.opentable.reservation.model.Room;
+import com.opentable.reservation.model.TimeSlot;
+import com.opentable.reservation.repository.BookedSlot;
+import com.opentable.reservation.repository.ReservationRepository;
+import com.opentable.reservation.repository.RoomReservationTotals;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Incrementally maintained occupancy and demand statistics per room.
+ * <p>
+ * Each room keeps a ring of {@value #HORIZON_DAYS} days in an {@link AtomicLongArray}; an element
+ * packs the epoch day it describes with a bit per booked {@link TimeSlot}, so stale days are
+ * recognised without clearing the ring. Lifetime reservation, cancellation and lead-time totals are
+ * {@link LongAdder}s. Everything is seeded at startup from the reservations and archive tables and
+ * then updated from reservation events, so a stats request only reads in-memory counters: its cost
+ * depends on the number of rooms and the 90-day window, not on the size of the table.
+ * <p>
+ * The counters live on each instance, but the outbox relay hands every event to only one of them.
+ * The booking horizon is therefore re-read every {@code app.occupancy.reseed-interval} with one
+ * range query over the next {@value #HORIZON_DAYS} days, which brings in bookings relayed by other
+ * instances and the day entering the horizon; between reseeds instances can disagree by up to one
+ * interval of bookings. Lifetime totals are only aggregated over the whole history once, at startup,
+ * and then counted from the events this instance relays, so with several instances each reports
+ * its own share of the events since it started on top of its startup totals.
+ * <p>
+ * Events the relay delivers again are counted once: the reservation ids counted recently are
+ * remembered per event type. An event relayed after the startup aggregate already included its
+ * reservation is still counted twice, which can only affect reservations made while the instance
+ * was starting.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OccupancyStatsService implements SmartInitializingSingleton {
+
+    static final int HORIZON_DAYS = 128;
+    private static final int[] WINDOWS = {7, 30, 90};
+    private static final int MASK_BITS = 8;
+    private static final long SLOT_MASK = (1L << MASK_BITS) - 1;
+    private static final int SLOTS_PER_DAY = TimeSlot.values().length;
+    private static final long MAX_SEEN_RESERVATIONS = 100_000;
+    private static final Duration SEEN_RETENTION = Duration.ofHours(1);
+
+    private final ReservationRepository reservationRepository;
+    private final RoomService roomService;
+    private final ConcurrentMap<UUID, RoomTotals> totals = new ConcurrentHashMap<>();
+    private final AtomicReference<ConcurrentMap<UUID, RoomHorizon>> horizons = new AtomicReference<>(new ConcurrentHashMap<>());
+    private final Cache<UUID, Boolean> createdSeen = seenCache();
+    private final Cache<UUID, Boolean> cancelledSeen = seenCache();
+
+    /**
+     * Seeds the lifetime totals and the horizon before the outbox relay starts delivering events.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<RoomReservationTotals> roomTotals = reservationRepository.summarizeByRoom();
+        for (RoomReservationTotals seed : roomTotals) {
+            RoomTotals room = totalsFor(seed.getRoomId());
+            room.reservations.add(seed.getReservations());
+            room.cancellations.add(seed.getCancellations());
+            room.leadDays.add(seed.getLeadDays());
+        }
+        log.info("Occupancy totals seeded for {} rooms", roomTotals.size());
+        reseedHorizon();
+    }
+
+    /**
+     * Rebuilds the booked slots of the next {@value #HORIZON_DAYS} days from the database and swaps
+     * them in as a whole, so readers never see a half-built set. An event applied while the rebuild
+     * runs may be missed by it; the next reseed picks it up.
+     */
+    @Scheduled(fixedDelayString = "${app.occupancy.reseed-interval}", initialDelayString = "${app.occupancy.reseed-interval}")
+    public void reseedHorizon() {
+        LocalDate today = LocalDate.now();
+        ConcurrentMap<UUID, RoomHorizon> seeded = new ConcurrentHashMap<>();
+        List<BookedSlot> bookedSlots = reservationRepository.findBookedSlotsBetween(today, today.plusDays(HORIZON_DAYS - 1), AvailabilityIndex.ACTIVE_STATUSES);
+        for (BookedSlot bookedSlot : bookedSlots) {
+            horizonFor(seeded, bookedSlot.roomId()).update(today, bookedSlot.reservationDate(), bookedSlot.timeSlot(), true);
+        }
+        horizons.set(seeded);
+        log.info("Occupancy horizon seeded with {} booked slots in the next {} days", bookedSlots.size(), HORIZON_DAYS);
+    }
+
+    @EventListener
+    public void onReservationCreated(ReservationCreatedEvent event) {
+        horizonFor(horizons.get(), event.getRoomId()).update(LocalDate.now(), event.getReservationDate(), event.getTimeSlot(), true);
+        if (!firstDelivery(createdSeen, event.getReservationId())) {
+            return;
+        }
+        RoomTotals room = totalsFor(event.getRoomId());
+        room.reservations.increment();
+        if (event.getCreatedAt() != null) {
+            room.leadDays.add(event.getReservationDate().toEpochDay() - event.getCreatedAt().toLocalDate().toEpochDay());
+        }
+    }
+
+    @EventListener
+    public void onReservationCancelled(ReservationCancelledEvent event) {
+        horizonFor(horizons.get(), event.getRoomId()).update(LocalDate.now(), event.getReservationDate(), event.getTimeSlot(), false);
+        if (firstDelivery(cancelledSeen, event.getReservationId())) {
+            totalsFor(event.getRoomId()).cancellations.increment();
+        }
+    }
+
+    /**
+     * Returns utilisation over the next 7, 30 and 90 days, cancellation rate and average lead time
+     * for each room of the restaurant.
+     */
+    public OccupancyStatsResponse getStats(Restaurant restaurant) {
+        LocalDate today = LocalDate.now();
+        List<RoomOccupancy> rooms = roomService.findByRestaurant(restaurant).stream()
+                .map(room -> occupancy(room, today))
+                .toList();
+        return new OccupancyStatsResponse(restaurant.getId(), today, rooms);
+    }
+
+    private RoomOccupancy occupancy(Room room, LocalDate today) {
+        RoomHorizon horizon = horizons.get().get(room.getId());
+        RoomTotals roomTotals = totals.get(room.getId());
+        if (horizon == null && roomTotals == null) {
+            return new RoomOccupancy(room.getId(), room.getName(), 0, 0, 0, 0, 0, 0, 0);
+        }
+
+        // One pass over the widest window, reading off the narrower ones on the way
+        double[] utilisation = new double[WINDOWS.length];
+        long booked = 0;
+        int day = 0;
+        long firstDay = today.toEpochDay();
+        for (int window = 0; window < WINDOWS.length; window++) {
+            for (; horizon != null && day < WINDOWS[window]; day++) {
+                booked += horizon.bookedSlots(firstDay + day);
+            }
+            utilisation[window] = (double) booked / ((long) WINDOWS[window] * SLOTS_PER_DAY);
+        }
+
+        long reservations = roomTotals == null ? 0 : roomTotals.reservations.sum();
+        long cancellations = roomTotals == null ? 0 : roomTotals.cancellations.sum();
+        long leadDays = roomTotals == null ? 0 : roomTotals.leadDays.sum();
+        return new RoomOccupancy(
+                room.getId(),
+                room.getName(),
+                utilisation[0],
+                utilisation[1],
+                utilisation[2],
+                reservations,
+                cancellations,
+                reservations == 0 ? 0 : (double) cancellations / reservations,
+                reservations == 0 ? 0 : (double) leadDays / reservations
+        );
+    }
+
+    private RoomTotals totalsFor(UUID roomId) {
+        return totals.computeIfAbsent(roomId, id -> new RoomTotals());
+    }
+
+    private static RoomHorizon horizonFor(ConcurrentMap<UUID, RoomHorizon> horizons, UUID roomId) {
+        return horizons.computeIfAbsent(roomId, id -> new RoomHorizon());
+    }
+
+    private static boolean firstDelivery(Cache<UUID, Boolean> seen, UUID reservationId) {
+        return seen.asMap().putIfAbsent(reservationId, Boolean.TRUE) == null;
+    }
+
+    private static Cache<UUID, Boolean> seenCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(MAX_SEEN_RESERVATIONS)
+                .expireAfterWrite(SEEN_RETENTION)
+                .build();
+    }
+
+    private static final class RoomTotals {
+
+        private final LongAdder reservations = new LongAdder();
+        private final LongAdder cancellations = new LongAdder();
+        private final LongAdder leadDays = new LongAdder();
+    }
+
+    private static final class RoomHorizon {
+
+        // Element layout: epoch day << MASK_BITS | booked-slot bits
+        private final AtomicLongArray days = new AtomicLongArray(HORIZON_DAYS);
+
+        void update(LocalDate today, LocalDate date, TimeSlot timeSlot, boolean booked) {
+            long epochDay = date.toEpochDay();
+            if (epochDay < today.toEpochDay() || epochDay >= today.toEpochDay() + HORIZON_DAYS) {
+                // Outside the ring; tracking it would overwrite a day inside the horizon
+                return;
+            }
+            int index = Math.floorMod(epochDay, HORIZON_DAYS);
+            long bit = 1L << timeSlot.ordinal();
+            while (true) {
+                long current = days.get(index);
+                long currentDay = current >>> MASK_BITS;
+                long next;
+                if (currentDay == epochDay) {
+                    next = booked ? current | bit : current & ~bit;
+                } else if (currentDay < epochDay && booked) {
+                    // The element still describes a day that has passed; start it over
+                    next = epochDay << MASK_BITS | bit;
+                } else {
+                    return;
+                }
+                if (next == current || days.compareAndSet(index, current, next)) {
+                    return;
+                }
+            }
+        }
+
+        int bookedSlots(long epochDay) {
+            long value = days.get(Math.floorMod(epochDay, HORIZON_DAYS));
+            return value >>> MASK_BITS == epochDay ? Long.bitCount(value & SLOT_MASK) : 0;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.opentable.reservation.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the handling of one event relayed from the outbox, so that {@link OutboxRelay} marks the
+ * event published only once every listener has accepted it.
+ * <p>
+ * The relay opens a delivery on its own thread while it publishes the event. Tasks submitted to an
+ * event executor in that window are decorated with {@link #propagate(Runnable)}: the delivery stays
+ * open until they finish, and an exception they throw fails it. A listener that hands the event to a
+ * batching sink is finished once the sink has queued it; the sink owns retries from then on, so the
+ * relay never waits on a sink's I/O. The delivery completes when every listener task is done and
+ * fails as soon as one of them fails.
+ */
+public final class OutboxDelivery {
+
+    private static final ThreadLocal<OutboxDelivery> CURRENT = new ThreadLocal<>();
+
+    // The relay's own hold, released when it has finished publishing
+    private final AtomicInteger outstanding = new AtomicInteger(1);
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    private OutboxDelivery() {
+    }
+
+    /**
+     * Opens a delivery and makes it current on the calling thread.
+     */
+    static OutboxDelivery open() {
+        OutboxDelivery delivery = new OutboxDelivery();
+        CURRENT.set(delivery);
+        return delivery;
+    }
+
+    /**
+     * Stops attributing work on the calling thread to this delivery and releases the relay's hold.
+     */
+    void close() {
+        CURRENT.remove();
+        release();
+    }
+
+    void fail(Throwable cause) {
+        completion.completeExceptionally(cause);
+    }
+
+    CompletableFuture<Void> completion() {
+        return completion;
+    }
+
+    /**
+     * Keeps the delivery current on this thread open until the returned acknowledgement is settled.
+     * Returns an acknowledgement that does nothing when no delivery is current.
+     */
+    static Acknowledgement defer() {
+        OutboxDelivery delivery = CURRENT.get();
+        if (delivery == null) {
+            return Acknowledgement.NONE;
+        }
+        delivery.outstanding.incrementAndGet();
+        return new Acknowledgement(delivery);
+    }
+
+    /**
+     * Task decorator that attributes the task to the delivery current on the submitting thread.
+     * Returns the task unchanged when none is current.
+     */
+    public static Runnable propagate(Runnable task) {
+        OutboxDelivery delivery = CURRENT.get();
+        if (delivery == null) {
+            return task;
+        }
+        Acknowledgement acknowledgement = defer();
+        return () -> {
+            OutboxDelivery previous = CURRENT.get();
+            CURRENT.set(delivery);
+            try {
+                task.run();
+                acknowledgement.done();
+            } catch (RuntimeException | Error e) {
+                acknowledgement.failed(e);
+                throw e;
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    /**
+     * Fails the delivery current on this thread, if any. For exceptions that an executor catches
+     * before they reach the decorated task, such as those from void @Async methods.
+     */
+    public static void failCurrent(Throwable cause) {
+        OutboxDelivery delivery = CURRENT.get();
+        if (delivery != null) {
+            delivery.fail(cause);
+        }
+    }
+
+    private void release() {
+        if (outstanding.decrementAndGet() == 0) {
+            completion.complete(null);
+        }
+    }
+
+    /**
+     * One party's share of a delivery. Only the first call to {@link #done()} or
+     * {@link #failed(Throwable)} has an effect.
+     */
+    static final class Acknowledgement {
+
+        static final Acknowledgement NONE = new Acknowledgement(null);
+
+        private final OutboxDelivery delivery;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        private Acknowledgement(OutboxDelivery delivery) {
+            this.delivery = delivery;
+        }
+
+        void done() {
+            if (delivery != null && settled.compareAndSet(false, true)) {
+                delivery.release();
+            }
+        }
+
+        void failed(Throwable cause) {
+            if (delivery != null && settled.compareAndSet(false, true)) {
+                delivery.fail(cause);
+            }
+        }
+    }
+}
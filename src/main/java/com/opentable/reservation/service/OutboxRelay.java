@@ -0,0 +1,140 @@
+package com.opentable.reservation.service;
+
+import com.opentable.reservation.config.OutboxConfig;
+import com.opentable.reservation.config.OutboxProperties;
+import com.opentable.reservation.model.OutboxEvent;
+import com.opentable.reservation.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Polls the reservation outbox and hands committed events to the application's event listeners.
+ * <p>
+ * Each batch is locked, delivered and marked as published in one transaction. An event is marked
+ * published once its listeners have accepted it, including tasks they run on async executors (see
+ * {@link OutboxDelivery}). Listeners that feed a batching sink, such as the notification dispatcher
+ * and the audit log writer, are done as soon as the sink has queued the event, and the sink retries
+ * its own writes; the row lock is therefore never held across a send or a commit elsewhere. The
+ * relay waits up to {@link OutboxProperties#deliveryTimeout()} for the whole batch. Delivery is
+ * at-least-once: if the relay stops before the batch commits, the events are delivered again, and an
+ * event whose delivery fails or times out is redelivered to every listener on later polls until
+ * {@link OutboxProperties#maxAttempts()} is reached, after which it stays in the table with its
+ * last error.
+ * <p>
+ * Listeners must therefore be idempotent per reservation and event type. The audit log keeps one
+ * row per reservation and action, analytics and occupancy statistics skip reservations they have
+ * already counted. Diner notifications remain the exception: because the dispatcher accepts a
+ * message before sending it, an event is only redelivered to it when another listener task failed.
+ * The relay runs on its own scheduler thread, so other scheduled jobs cannot delay it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ReservationOutbox reservationOutbox;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionOperations transactionOperations;
+    private final OutboxProperties properties;
+
+    /**
+     * Drains the outbox, one batch per transaction, until a batch comes back short or has failures.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval}", scheduler = OutboxConfig.RELAY_SCHEDULER)
+    public void relay() {
+        int delivered;
+        do {
+            delivered = Objects.requireNonNull(transactionOperations.execute(status -> deliverBatch()));
+        } while (delivered == properties.batchSize());
+    }
+
+    /**
+     * Deletes delivered events older than the configured retention.
+     */
+    @Scheduled(fixedDelayString = "PT1H", initialDelayString = "PT1M")
+    public void purgeDelivered() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(properties.retention());
+        Integer deleted = transactionOperations.execute(status -> outboxEventRepository.deletePublishedBefore(cutoff));
+        log.info("Purged {} delivered outbox events older than {}", deleted, cutoff);
+    }
+
+    int deliverBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.lockPendingBatch(properties.maxAttempts(), properties.batchSize());
+        Map<OutboxEvent, CompletableFuture<Void>> deliveries = new LinkedHashMap<>();
+        for (OutboxEvent outboxEvent : batch) {
+            deliveries.put(outboxEvent, dispatch(outboxEvent));
+        }
+        awaitAll(deliveries.values());
+
+        OffsetDateTime publishedAt = OffsetDateTime.now();
+        int delivered = 0;
+        for (Map.Entry<OutboxEvent, CompletableFuture<Void>> entry : deliveries.entrySet()) {
+            OutboxEvent outboxEvent = entry.getKey();
+            CompletableFuture<Void> delivery = entry.getValue();
+            if (delivery.isDone() && !delivery.isCompletedExceptionally()) {
+                outboxEvent.setPublishedAt(publishedAt);
+                delivered++;
+                continue;
+            }
+            Throwable failure = delivery.isDone()
+                    ? delivery.handle((ignored, e) -> e).join()
+                    : new TimeoutException("Listeners did not finish within " + properties.deliveryTimeout());
+            outboxEvent.setAttempts(outboxEvent.getAttempts() + 1);
+            outboxEvent.setLastError(truncate(failure.toString()));
+            log.warn("Delivery of outbox event {} ({}) failed on attempt {}", outboxEvent.getId(), outboxEvent.getEventType(), outboxEvent.getAttempts(), failure);
+        }
+
+        if (!batch.isEmpty()) {
+            log.debug("Relayed {} of {} outbox events", delivered, batch.size());
+        }
+        return delivered;
+    }
+
+    /**
+     * Publishes the event to the listeners and returns the delivery that completes once they are done.
+     */
+    private CompletableFuture<Void> dispatch(OutboxEvent outboxEvent) {
+        OutboxDelivery delivery = OutboxDelivery.open();
+        try {
+            eventPublisher.publishEvent(reservationOutbox.read(outboxEvent));
+        } catch (RuntimeException e) {
+            delivery.fail(e);
+        } finally {
+            delivery.close();
+        }
+        return delivery.completion();
+    }
+
+    private void awaitAll(Collection<CompletableFuture<Void>> deliveries) {
+        try {
+            CompletableFuture.allOf(deliveries.toArray(CompletableFuture[]::new))
+                    .get(properties.deliveryTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            // Outcomes are read per event by the caller
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,66 @@
+package com.opentable.reservation.service;
+
+import com.opentable.reservation.config.ArchiveProperties;
+import com.opentable.reservation.repository.ArchivedReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Moves confirmed and cancelled reservations older than {@code app.archive.horizon} from the
+ * reservations table to reservations_archive, keeping the hot table and its indexes down to the
+ * rows that bookings, cancellations and availability actually read.
+ * <p>
+ * Each batch is one short transaction that moves at most {@code app.archive.batch-size} rows, so
+ * locks are held briefly and concurrent bookings are never waited on.
+ */
+@Slf4j
+@Component
+public class ReservationArchiver {
+
+    private final ArchivedReservationRepository archivedReservationRepository;
+    private final TransactionOperations transactionOperations;
+    private final ArchiveProperties properties;
+    private final Counter archived;
+
+    public ReservationArchiver(ArchivedReservationRepository archivedReservationRepository,
+                               TransactionOperations transactionOperations,
+                               ArchiveProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.archivedReservationRepository = archivedReservationRepository;
+        this.transactionOperations = transactionOperations;
+        this.properties = properties;
+        this.archived = Counter.builder("reservations.archived")
+                .description("Reservations moved to the archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.archive.interval}")
+    public void archive() {
+        int total = archiveBefore(LocalDate.now().minus(properties.horizon()));
+        if (total > 0) {
+            log.info("Archived {} reservations older than {}", total, properties.horizon());
+        }
+    }
+
+    /**
+     * Archives eligible reservations dated before the cutoff, batch by batch, until a batch comes back short.
+     */
+    int archiveBefore(LocalDate cutoff) {
+        int total = 0;
+        int moved;
+        do {
+            moved = Objects.requireNonNullElse(transactionOperations.execute(status ->
+                    archivedReservationRepository.archiveBatch(cutoff, properties.batchSize())), 0);
+            archived.increment(moved);
+            total += moved;
+        } while (moved == properties.batchSize());
+        return total;
+    }
+}
@@ -0,0 +1,84 @@
+package com.opentable.reservation.service;
+
+import com.opentable.reservation.dto.ReservationResponse;
+import com.opentable.reservation.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Position in a reservation listing: the (reservation date, id) of the last row returned.
+ * <p>
+ * Clients receive it as an opaque URL-safe token and send it back unchanged to get the next page.
+ */
+record ReservationCursor(LocalDate reservationDate, UUID id) {
+
+    private static final char SEPARATOR = '/';
+
+    /**
+     * Listing order: reservation date, then id, both descending. Ids compare as unsigned bytes, as
+     * PostgreSQL compares uuid values, so merged pages line up with the database's keyset order.
+     */
+    static final Comparator<ReservationResponse> NEWEST_FIRST = Comparator
+            .comparing(ReservationResponse::reservationDate)
+            .thenComparing(ReservationResponse::id, ReservationCursor::compareUuids)
+            .reversed();
+
+    static ReservationCursor of(ReservationResponse reservation) {
+        return new ReservationCursor(reservation.reservationDate(), reservation.id());
+    }
+
+    /**
+     * Merges two listings that are each in {@link #NEWEST_FIRST} order, dropping repeated ids and
+     * keeping at most {@code limit} rows.
+     */
+    static List<ReservationResponse> merge(List<ReservationResponse> first, List<ReservationResponse> second, int limit) {
+        Map<UUID, ReservationResponse> merged = new HashMap<>();
+        first.forEach(reservation -> merged.putIfAbsent(reservation.id(), reservation));
+        second.forEach(reservation -> merged.putIfAbsent(reservation.id(), reservation));
+        return merged.values().stream()
+                .sorted(NEWEST_FIRST)
+                .limit(limit)
+                .toList();
+    }
+
+    private static int compareUuids(UUID left, UUID right) {
+        int high = Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+    }
+
+    String encode() {
+        byte[] position = (reservationDate.toString() + SEPARATOR + id).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position);
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}. Returns null for a missing token, meaning the
+     * first page; throws {@link BusinessException} for a token that was not issued by us.
+     */
+    static ReservationCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = position.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BusinessException("Invalid cursor");
+            }
+            return new ReservationCursor(
+                    LocalDate.parse(position.substring(0, separator)),
+                    UUID.fromString(position.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException("Invalid cursor");
+        }
+    }
+}
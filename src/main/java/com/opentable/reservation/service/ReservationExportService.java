@@ -0,0 +1,203 @@
+package com.opentable.reservation.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.opentable.reservation.config.ExportProperties;
+import com.opentable.reservation.exception.ExportCapacityExceededException;
+import com.opentable.reservation.repository.ArchivedReservationRepository;
+import com.opentable.reservation.repository.ReservationExportRow;
+import com.opentable.reservation.repository.ReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Writes a restaurant's complete booking history, live reservations followed by archived ones, to
+ * an output stream as NDJSON or CSV.
+ * <p>
+ * Rows come from forward-only database cursors and are written as they arrive, so memory use does
+ * not depend on the number of reservations. Each export keeps a pooled connection for as long as the
+ * client takes to read it, so at most {@link ExportProperties#maxConcurrent()} run at once; callers
+ * take a {@link Permit} before streaming starts.
+ * <p>
+ * CSV free-text fields (diner name, email and special requests) that a spreadsheet would read as a
+ * formula are prefixed with an apostrophe. Phone numbers are written as stored, so a leading "+"
+ * survives.
+ */
+@Slf4j
+@Service
+public class ReservationExportService {
+
+    private static final String[] CSV_HEADER = {
+            "id", "roomId", "reservationDate", "timeSlot", "partySize", "status",
+            "dinerName", "dinerEmail", "dinerPhone", "specialRequests", "createdAt", "cancelledAt"
+    };
+
+    private final ReservationRepository reservationRepository;
+    private final ArchivedReservationRepository archivedReservationRepository;
+    private final ObjectMapper objectMapper;
+    private final int maxConcurrent;
+    private final Semaphore permits;
+
+    public ReservationExportService(ReservationRepository reservationRepository,
+                                    ArchivedReservationRepository archivedReservationRepository,
+                                    ObjectMapper objectMapper,
+                                    ExportProperties properties) {
+        this.reservationRepository = reservationRepository;
+        this.archivedReservationRepository = archivedReservationRepository;
+        this.objectMapper = objectMapper;
+        this.maxConcurrent = properties.maxConcurrent();
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Takes one of the export slots, to be closed when the export has finished. Throws
+     * {@link ExportCapacityExceededException} when every slot is in use.
+     */
+    public Permit acquirePermit() {
+        if (!permits.tryAcquire()) {
+            log.warn("Rejected export: all {} export slots are in use", maxConcurrent);
+            throw new ExportCapacityExceededException(
+                    "Too many exports in progress (limit %d). Please retry shortly.".formatted(maxConcurrent));
+        }
+        return new Permit();
+    }
+
+    /**
+     * Writes every reservation of the restaurant and returns how many were written. The stream is
+     * flushed but not closed.
+     */
+    @Transactional(readOnly = true)
+    public long export(UUID restaurantId, Format format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        RowWriter rowWriter = format == Format.CSV ? csvWriter(writer) : ndjsonWriter(writer);
+
+        long written;
+        try (Stream<ReservationExportRow> live = reservationRepository.streamRestaurantReservations(restaurantId)) {
+            written = writeAll(live, rowWriter);
+        }
+        try (Stream<ReservationExportRow> archived = archivedReservationRepository.streamRestaurantReservations(restaurantId)) {
+            written += writeAll(archived, rowWriter);
+        }
+        writer.flush();
+
+        log.info("Exported {} reservations of restaurant {} as {}", written, restaurantId, format);
+        return written;
+    }
+
+    private static long writeAll(Stream<ReservationExportRow> rows, RowWriter rowWriter) throws IOException {
+        long written = 0;
+        for (Iterator<ReservationExportRow> iterator = rows.iterator(); iterator.hasNext(); written++) {
+            rowWriter.write(iterator.next());
+        }
+        return written;
+    }
+
+    private RowWriter ndjsonWriter(Writer writer) {
+        ObjectWriter json = objectMapper.writerFor(ReservationExportRow.class);
+        return row -> {
+            writer.write(json.writeValueAsString(row));
+            writer.write('\n');
+        };
+    }
+
+    private static RowWriter csvWriter(Writer writer) throws IOException {
+        writer.write(String.join(",", CSV_HEADER));
+        writer.write("\r\n");
+        return row -> {
+            Object[] values = {
+                    row.id(), row.roomId(), row.reservationDate(), row.timeSlot(), row.partySize(), row.status(),
+                    freeText(row.dinerName()), freeText(row.dinerEmail()), row.dinerPhone(), freeText(row.specialRequests()),
+                    row.createdAt(), row.cancelledAt()
+            };
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(csvField(values[i]));
+            }
+            writer.write("\r\n");
+        };
+    }
+
+    /**
+     * Prefixes user-entered text that starts like a formula with an apostrophe, so a spreadsheet
+     * shows it as text.
+     */
+    static String freeText(String text) {
+        if (text != null && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            return "'" + text;
+        }
+        return text;
+    }
+
+    /**
+     * Quotes a CSV field per RFC 4180 when it contains a separator, quote or line break.
+     */
+    static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * One of the export slots; closing it frees the slot. Closing more than once has no effect.
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit() {
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ReservationExportRow row) throws IOException;
+    }
+}
@@ -0,0 +1,70 @@
+package com.opentable.reservation.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opentable.reservation.event.ReservationCancelledEvent;
+import com.opentable.reservation.event.ReservationCreatedEvent;
+import com.opentable.reservation.model.OutboxEvent;
+import com.opentable.reservation.repository.OutboxEventRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes reservation events to the outbox table and reads them back for delivery.
+ * <p>
+ * Appending requires an active transaction, so an event is stored if and only if the
+ * reservation change that produced it commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReservationOutbox {
+
+    private static final Map<String, Class<?>> EVENT_TYPES = Map.of(
+            ReservationCreatedEvent.class.getSimpleName(), ReservationCreatedEvent.class,
+            ReservationCancelledEvent.class.getSimpleName(), ReservationCancelledEvent.class
+    );
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void append(ReservationCreatedEvent event) {
+        append(event.getReservationId(), event);
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void append(ReservationCancelledEvent event) {
+        append(event.getReservationId(), event);
+    }
+
+    /**
+     * Rebuilds the event stored in the outbox row.
+     */
+    public Object read(OutboxEvent outboxEvent) {
+        Class<?> type = EVENT_TYPES.get(outboxEvent.getEventType());
+        if (type == null) {
+            throw new IllegalStateException("Unknown outbox event type %s".formatted(outboxEvent.getEventType()));
+        }
+        try {
+            return objectMapper.readValue(outboxEvent.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable payload for outbox event %d".formatted(outboxEvent.getId()), e);
+        }
+    }
+
+    private void append(UUID reservationId, Object event) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setEventType(event.getClass().getSimpleName());
+        outboxEvent.setAggregateId(reservationId);
+        try {
+            outboxEvent.setPayload(objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize %s".formatted(event), e);
+        }
+        outboxEventRepository.save(outboxEvent);
+    }
+}
@@ -0,0 +1,167 @@
+package com.opentable.reservation.service;
+
+import com.opentable.reservation.config.PartitionProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Keeps the monthly partitions of the reservations table in step with the calendar.
+ * <p>
+ * At startup and on {@code app.partitions.maintenance-cron} it creates a partition for the current
+ * month and each of the next {@code months-ahead} months, and retires partitions that have fallen
+ * behind {@code retention-months}. Each change runs in its own short transaction under a transaction-scoped advisory lock, so
+ * instances running the job at the same time do not collide.
+ * <p>
+ * A reservation for a month without a partition is stored in {@code reservations_default}; when the
+ * month's partition is created, those rows are moved into it before it is attached.
+ * <p>
+ * This class only manages storage and never deletes reservation history. Retention of history is
+ * owned by {@link ReservationArchiver} and the {@code reservations_archive} table: a partition is
+ * retired by moving every row still in it, whatever its status, into the archive, then detaching
+ * and dropping it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReservationPartitionManager {
+
+    static final String DEFAULT_PARTITION = "reservations_default";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'reservations_p'uuuu_MM");
+    private static final long LOCK_KEY = 0x7265_7376_7061_7274L;
+    private static final String ARCHIVE_COLUMNS = """
+            id, restaurant_id, room_id, reservation_date, time_slot, party_size, diner_name, diner_email, \
+            diner_phone, status, special_requests, cancellation_reason, cancelled_by, confirmed_at, \
+            cancelled_at, created_at, updated_at, version""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactionOperations;
+    private final PartitionProperties properties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.partitions.maintenance-cron}")
+    public void maintain() {
+        maintain(YearMonth.now());
+    }
+
+    void maintain(YearMonth currentMonth) {
+        Set<YearMonth> partitions = partitions();
+        int created = 0;
+        for (int i = 0; i <= properties.monthsAhead(); i++) {
+            YearMonth month = currentMonth.plusMonths(i);
+            if (!partitions.contains(month) && createPartition(month)) {
+                created++;
+            }
+        }
+
+        YearMonth oldestRetained = currentMonth.minusMonths(properties.retentionMonths());
+        int detached = 0;
+        for (YearMonth month : partitions) {
+            if (month.isBefore(oldestRetained) && detachPartition(month)) {
+                detached++;
+            }
+        }
+
+        if (created > 0 || detached > 0) {
+            log.info("Reservation partitions maintained: {} created, {} retired", created, detached);
+        }
+    }
+
+    /**
+     * Creates and attaches the partition for the month, first moving any of its rows out of the
+     * default partition. Returns false if another instance holds the lock or created it first.
+     */
+    public boolean createPartition(YearMonth month) {
+        String partition = partitionName(month);
+        String from = month.atDay(1).toString();
+        String to = month.plusMonths(1).atDay(1).toString();
+        return inLockedTransaction(() -> {
+            if (partitions().contains(month)) {
+                return false;
+            }
+            jdbcTemplate.execute("create table %s (like reservations including defaults including constraints)".formatted(partition));
+            int moved = jdbcTemplate.update("""
+                    with moved as (
+                        delete from %s where reservation_date >= ?::date and reservation_date < ?::date returning *
+                    )
+                    insert into %s select * from moved
+                    """.formatted(DEFAULT_PARTITION, partition), from, to);
+            jdbcTemplate.execute("alter table reservations attach partition %s for values from ('%s') to ('%s')".formatted(partition, from, to));
+            log.info("Created reservation partition {} ({} rows moved from {})", partition, moved, DEFAULT_PARTITION);
+            return true;
+        });
+    }
+
+    /**
+     * Moves the rows left in the month's partition into {@code reservations_archive}, then detaches
+     * and drops the partition, all in one transaction. The archiver only takes finished reservations,
+     * so pending ones are among the rows moved here. Returns false if another instance holds the
+     * lock or retired the partition first.
+     */
+    public boolean detachPartition(YearMonth month) {
+        String partition = partitionName(month);
+        return inLockedTransaction(() -> {
+            if (!partitions().contains(month)) {
+                return false;
+            }
+            int archived = jdbcTemplate.update("""
+                    with moved as (
+                        delete from %s returning *
+                    )
+                    insert into reservations_archive (%s)
+                    select %s from moved
+                    """.formatted(partition, ARCHIVE_COLUMNS, ARCHIVE_COLUMNS));
+            jdbcTemplate.execute("alter table reservations detach partition %s".formatted(partition));
+            jdbcTemplate.execute("drop table %s".formatted(partition));
+            log.info("Retired reservation partition {} ({} rows archived)", partition, archived);
+            return true;
+        });
+    }
+
+    /**
+     * Months that currently have an attached partition.
+     */
+    Set<YearMonth> partitions() {
+        List<String> names = jdbcTemplate.queryForList("""
+                select child.relname
+                from pg_inherits
+                join pg_class parent on parent.oid = pg_inherits.inhparent
+                join pg_class child on child.oid = pg_inherits.inhrelid
+                where parent.relname = 'reservations'
+                """, String.class);
+        Set<YearMonth> months = new TreeSet<>();
+        for (String name : names) {
+            try {
+                months.add(YearMonth.parse(name, PARTITION_NAME));
+            } catch (DateTimeParseException e) {
+                // The default partition, or one not managed here
+            }
+        }
+        return months;
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_NAME.format(month);
+    }
+
+    private boolean inLockedTransaction(BooleanSupplier change) {
+        Boolean changed = transactionOperations.execute(status ->
+                Boolean.TRUE.equals(jdbcTemplate.queryForObject("select pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY))
+                        && change.getAsBoolean());
+        return Objects.requireNonNullElse(changed, false);
+    }
+}
@@ -1,6 +1,9 @@
 package com.opentable.reservation.service;
 
+import com.opentable.reservation.dto.BatchReservationResponse;
+import com.opentable.reservation.dto.BatchReservationResponse.Outcome;
 import com.opentable.reservation.dto.CreateReservationRequest;
+import com.opentable.reservation.dto.ReservationPageResponse;
 import com.opentable.reservation.dto.ReservationResponse;
 import com.opentable.reservation.event.ReservationCancelledEvent;
 import com.opentable.reservation.event.ReservationCreatedEvent;
@@ -9,24 +12,31 @@ import com.opentable.reservation.exception.RoomAlreadyBookedException;
 import com.opentable.reservation.exception.NotFoundException;
 import com.opentable.reservation.model.Reservation;
 import com.opentable.reservation.model.ReservationStatus;
-import com.opentable.reservation.model.Room;
+import com.opentable.reservation.repository.ArchivedReservationRepository;
 import com.opentable.reservation.repository.ReservationRepository;
+import com.opentable.reservation.repository.RestaurantRepository;
 import com.opentable.reservation.repository.RoomRepository;
+import com.opentable.reservation.repository.RoomRules;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import java.util.stream.Collectors;
 
 /**
  * Service responsible for creating, listing, and cancelling reservations while enforcing
@@ -37,45 +47,50 @@ import org.springframework.data.domain.Pageable;
 @RequiredArgsConstructor
 public class ReservationService {
 
+    static final int MAX_PAGE_SIZE = 100;
+
     private final RoomRepository roomRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final RoomRulesCatalog roomRulesCatalog;
     private final ReservationRepository reservationRepository;
-    private final ApplicationEventPublisher eventPublisher;
+    private final ArchivedReservationRepository archivedReservationRepository;
+    private final ReservationOutbox reservationOutbox;
+    private final AvailabilityIndex availabilityIndex;
+    private final SlotClaimTable slotClaimTable;
+    private final TransactionOperations transactionOperations;
 
     /**
      * Applies all business rules and creates a reservation. Throws {@link BusinessException}
      * if any validation fails and {@link RoomAlreadyBookedException} if the slot is already reserved.
+     * <p>
+     * The room's rules come from {@link RoomRulesCatalog}, so a booking that breaks a rule is rejected
+     * without touching the database or the slot. A valid booking then claims the slot in
+     * {@link SlotClaimTable} before the transaction opens, so requests racing for the same slot on this
+     * instance fail fast instead of each paying for a transaction and rollback, and the only statements
+     * are the active-slot check and the inserts.
      */
-    @CacheEvict(value = "availability", allEntries = true)
-    @Transactional
     public ReservationResponse createReservation(@Valid CreateReservationRequest reservationRequest) {
         log.info("Creating reservation for room {} on {} ({})", reservationRequest.roomId(), reservationRequest.reservationDate(), reservationRequest.timeSlot());
 
-        Room room = roomRepository.findById(reservationRequest.roomId())
+        RoomRules room = roomRulesCatalog.find(reservationRequest.roomId())
                 .orElseThrow(() -> new NotFoundException("Room %s not found".formatted(reservationRequest.roomId())));
 
-        if (!room.isActive()) {
-            log.warn("Attempt to book inactive room {}", room.getId());
-            throw new BusinessException("Room is not accepting reservations");
-        }
-        if (!room.canHost(reservationRequest.partySize())) {
-            log.warn("Party size {} outside capacity for room {}", reservationRequest.partySize(), room.getId());
-            throw new BusinessException("Party size outside room capacity");
-        }
-        Room.MinimumSpend minimumSpend = room.getMinimumSpend();
+        // Rejected before the slot is claimed, so an invalid request never blocks a valid one for the same slot
+        validateBookingRules(room, reservationRequest);
 
-        if (reservationRequest.estimatedSpend() != null && minimumSpend != null) {
-            BigDecimal minimumSpendAmount = minimumSpend.getAmount();
-            BigDecimal estimateAmount = reservationRequest.estimatedSpend().amount();
-            if (!minimumSpend.getCurrency().equalsIgnoreCase(reservationRequest.estimatedSpend().currency())) {
-                log.warn("Currency mismatch for room {} expected {} but got {}", room.getId(), room.getMinimumSpend().getCurrency(), reservationRequest.estimatedSpend().currency());
-                throw new BusinessException("Estimated spend must be provided in %s".formatted(room.getMinimumSpend().getCurrency()));
-            }
-            if (estimateAmount.compareTo(minimumSpendAmount) < 0) {
-                log.warn("Estimated spend {} below minimum {} for room {}", estimateAmount, minimumSpend, room.getId());
-                throw new BusinessException("Estimated spend must satisfy minimum");
-            }
+        SlotClaimTable.Claim claim = slotClaimTable.tryClaim(reservationRequest.roomId(), reservationRequest.reservationDate(), reservationRequest.timeSlot())
+                .orElseThrow(() -> {
+                    log.warn("Slot booking already in flight: room={}, date={}, slot={}", reservationRequest.roomId(), reservationRequest.reservationDate(), reservationRequest.timeSlot());
+                    return new RoomAlreadyBookedException(reservationRequest.reservationDate(), reservationRequest.timeSlot());
+                });
+
+        // Released after commit or rollback, once the database has the final say
+        try (claim) {
+            return transactionOperations.execute(status -> insertReservation(room, reservationRequest));
         }
+    }
 
+    private ReservationResponse insertReservation(RoomRules room, CreateReservationRequest reservationRequest) {
         // Check for existing active reservations for this slot
         // This application-level check works with the database constraints to prevent double-booking
         boolean hasActiveReservation = reservationRepository.existsByRoomIdAndReservationDateAndTimeSlotAndStatusIn(
@@ -86,13 +101,146 @@ public class ReservationService {
         );
 
         if (hasActiveReservation) {
-            log.warn("Slot already booked: room={}, date={}, slot={}", room.getId(), reservationRequest.reservationDate(), reservationRequest.timeSlot());
+            log.warn("Slot already booked: room={}, date={}, slot={}", room.roomId(), reservationRequest.reservationDate(), reservationRequest.timeSlot());
             throw new RoomAlreadyBookedException(reservationRequest.reservationDate(), reservationRequest.timeSlot());
         }
 
+        Reservation savedReservation = reservationRepository.save(newReservation(room, reservationRequest));
+        afterCommit(() -> availabilityIndex.markBooked(room.roomId(), savedReservation.getReservationDate(), savedReservation.getTimeSlot()));
+
+        // Record the event in the outbox; OutboxRelay delivers it to listeners once this transaction commits
+        publishReservationCreatedEvent(savedReservation, room.roomName());
+
+        log.info("Successfully created reservation {} for room {} on {}", savedReservation.getId(), room.roomId(), savedReservation.getReservationDate());
+        return ReservationResponse.from(savedReservation);
+    }
+
+    /**
+     * Creates several reservations in one transaction and reports the outcome of each item.
+     * <p>
+     * Room rules come from {@link RoomRulesCatalog} and taken slots from one set query, so the cost no
+     * longer grows with a lookup and an exists check per item. Accepted rows are saved and flushed together, which
+     * lets Hibernate send them as JDBC batches (hibernate.jdbc.batch_size). Items that fail a business
+     * rule or hit a taken slot, including a slot requested twice in the same batch, are reported as
+     * REJECTED or CONFLICT without affecting the rest. A conflict only detected by the unique index at
+     * flush rolls back the whole batch.
+     */
+    public BatchReservationResponse createReservations(List<CreateReservationRequest> reservationRequests) {
+        log.info("Creating batch of {} reservations", reservationRequests.size());
+
+        List<SlotClaimTable.Claim> claims = new ArrayList<>();
+        try {
+            return transactionOperations.execute(status -> insertReservations(reservationRequests, claims));
+        } finally {
+            claims.forEach(SlotClaimTable.Claim::close);
+        }
+    }
+
+    private BatchReservationResponse insertReservations(List<CreateReservationRequest> reservationRequests, List<SlotClaimTable.Claim> claims) {
+        Set<UUID> roomIds = reservationRequests.stream().map(CreateReservationRequest::roomId).collect(Collectors.toSet());
+        Map<UUID, RoomRules> rooms = roomRulesCatalog.findAll(roomIds);
+        Set<SlotClaimTable.SlotKey> bookedSlots = findBookedSlots(rooms.keySet(), reservationRequests);
+
+        BatchReservationResponse.Item[] results = new BatchReservationResponse.Item[reservationRequests.size()];
+        List<Reservation> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+
+        for (int i = 0; i < reservationRequests.size(); i++) {
+            CreateReservationRequest reservationRequest = reservationRequests.get(i);
+            RoomRules room = rooms.get(reservationRequest.roomId());
+            if (room == null) {
+                results[i] = BatchReservationResponse.Item.failed(i, Outcome.REJECTED, "Room %s not found".formatted(reservationRequest.roomId()));
+                continue;
+            }
+            try {
+                validateBookingRules(room, reservationRequest);
+            } catch (BusinessException exception) {
+                results[i] = BatchReservationResponse.Item.failed(i, Outcome.REJECTED, exception.getMessage());
+                continue;
+            }
+
+            SlotClaimTable.SlotKey slot = new SlotClaimTable.SlotKey(room.roomId(), reservationRequest.reservationDate(), reservationRequest.timeSlot());
+            Optional<SlotClaimTable.Claim> claim = bookedSlots.contains(slot)
+                    ? Optional.empty()
+                    : slotClaimTable.tryClaim(slot.roomId(), slot.date(), slot.timeSlot());
+            if (claim.isEmpty()) {
+                log.warn("Slot already booked: room={}, date={}, slot={}", room.roomId(), reservationRequest.reservationDate(), reservationRequest.timeSlot());
+                results[i] = BatchReservationResponse.Item.failed(i, Outcome.CONFLICT,
+                        new RoomAlreadyBookedException(reservationRequest.reservationDate(), reservationRequest.timeSlot()).getMessage());
+                continue;
+            }
+            claims.add(claim.get());
+            accepted.add(newReservation(room, reservationRequest));
+            acceptedIndexes.add(i);
+        }
+
+        List<Reservation> savedReservations = reservationRepository.saveAll(accepted);
+        reservationRepository.flush();
+
+        for (int i = 0; i < savedReservations.size(); i++) {
+            Reservation savedReservation = savedReservations.get(i);
+            RoomRules room = rooms.get(reservationRequests.get(acceptedIndexes.get(i)).roomId());
+            afterCommit(() -> availabilityIndex.markBooked(room.roomId(), savedReservation.getReservationDate(), savedReservation.getTimeSlot()));
+            publishReservationCreatedEvent(savedReservation, room.roomName());
+            results[acceptedIndexes.get(i)] = BatchReservationResponse.Item.created(acceptedIndexes.get(i), ReservationResponse.from(savedReservation));
+        }
+
+        BatchReservationResponse response = BatchReservationResponse.of(Arrays.asList(results));
+        log.info("Batch created {} of {} reservations", response.created(), reservationRequests.size());
+        return response;
+    }
+
+    /**
+     * Returns the active slots among those requested, using one query over the known rooms and the requested date range.
+     */
+    private Set<SlotClaimTable.SlotKey> findBookedSlots(Set<UUID> roomIds, List<CreateReservationRequest> reservationRequests) {
+        if (roomIds.isEmpty()) {
+            return Set.of();
+        }
+        LocalDate start = reservationRequests.stream().map(CreateReservationRequest::reservationDate).min(LocalDate::compareTo).orElseThrow();
+        LocalDate end = reservationRequests.stream().map(CreateReservationRequest::reservationDate).max(LocalDate::compareTo).orElseThrow();
+
+        return reservationRepository.findBookedSlotsForRooms(roomIds, start, end, AvailabilityIndex.ACTIVE_STATUSES).stream()
+                .map(bookedSlot -> new SlotClaimTable.SlotKey(bookedSlot.roomId(), bookedSlot.reservationDate(), bookedSlot.timeSlot()))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Checks that the room is active, can host the party, and that the estimated spend meets its minimum.
+     * Throws {@link BusinessException} on the first rule that fails.
+     */
+    private void validateBookingRules(RoomRules room, CreateReservationRequest reservationRequest) {
+        if (!room.active()) {
+            log.warn("Attempt to book inactive room {}", room.roomId());
+            throw new BusinessException("Room is not accepting reservations");
+        }
+        if (!room.canHost(reservationRequest.partySize())) {
+            log.warn("Party size {} outside capacity for room {}", reservationRequest.partySize(), room.roomId());
+            throw new BusinessException("Party size outside room capacity");
+        }
+
+        if (reservationRequest.estimatedSpend() != null && room.hasMinimumSpend()) {
+            BigDecimal minimumSpendAmount = room.minimumSpendAmount();
+            BigDecimal estimateAmount = reservationRequest.estimatedSpend().amount();
+            if (!room.minimumSpendCurrency().equalsIgnoreCase(reservationRequest.estimatedSpend().currency())) {
+                log.warn("Currency mismatch for room {} expected {} but got {}", room.roomId(), room.minimumSpendCurrency(), reservationRequest.estimatedSpend().currency());
+                throw new BusinessException("Estimated spend must be provided in %s".formatted(room.minimumSpendCurrency()));
+            }
+            if (estimateAmount.compareTo(minimumSpendAmount) < 0) {
+                log.warn("Estimated spend {} below minimum {} {} for room {}", estimateAmount, minimumSpendAmount, room.minimumSpendCurrency(), room.roomId());
+                throw new BusinessException("Estimated spend must satisfy minimum");
+            }
+        }
+    }
+
+    /**
+     * Builds the reservation against uninitialised references to its room and restaurant: only their
+     * ids are needed to insert it, so neither is read.
+     */
+    private Reservation newReservation(RoomRules room, CreateReservationRequest reservationRequest) {
         Reservation reservation = new Reservation();
-        reservation.setRoom(room);
-        reservation.setRestaurant(room.getRestaurant());
+        reservation.setRoom(roomRepository.getReferenceById(room.roomId()));
+        reservation.setRestaurant(restaurantRepository.getReferenceById(room.restaurantId()));
         reservation.setReservationDate(reservationRequest.reservationDate());
         reservation.setTimeSlot(reservationRequest.timeSlot());
         reservation.setPartySize(reservationRequest.partySize());
@@ -101,21 +249,18 @@ public class ReservationService {
         reservation.setDinerPhone(reservationRequest.diner().phone());
         reservation.setSpecialRequests(reservationRequest.specialRequests());
         reservation.setStatus(ReservationStatus.CONFIRMED);
-        Reservation savedReservation = reservationRepository.save(reservation);
-
-        // Publish event for asynchronous processing (notifications, analytics, etc.)
-        publishReservationCreatedEvent(savedReservation);
-
-        log.info("Successfully created reservation {} for room {} on {}", savedReservation.getId(), room.getId(), savedReservation.getReservationDate());
-        return ReservationResponse.from(savedReservation);
+        return reservation;
     }
 
     /**
-     * Retrieves reservation details by ID.
-     * Throws {@link NotFoundException} if the reservation does not exist.
+     * Retrieves reservation details by ID, from the archive once {@link ReservationArchiver} has moved it there.
+     * Throws {@link NotFoundException} if the reservation does not exist in either table.
      */
     public ReservationResponse getReservationDetails(UUID reservationId) {
-        ReservationResponse reservationResponse = ReservationResponse.from(getEntity(reservationId));
+        // The archiver moves a row in one statement, so a miss here means it is already in the archive
+        ReservationResponse reservationResponse = reservationRepository.findResponseById(reservationId)
+                .or(() -> archivedReservationRepository.findResponseById(reservationId))
+                .orElseThrow(() -> new NotFoundException("Reservation %s not found".formatted(reservationId)));
 
         log.info("Fetched reservation details for ID {}", reservationId);
         return reservationResponse;
@@ -134,10 +279,11 @@ public class ReservationService {
      * Cancels an existing reservation if it's not already cancelled or in the past.
      * Throws {@link BusinessException} if cancellation is not allowed.
      */
-    @CacheEvict(value = "availability", allEntries = true)
     @Transactional
     public ReservationResponse cancelReservation(UUID reservationId, String cancelledBy, String reason) {
-        Reservation reservation = getEntity(reservationId);
+        // The room is fetched with the reservation because the cancellation event carries its name
+        Reservation reservation = reservationRepository.findWithRoomById(reservationId)
+                .orElseThrow(() -> new NotFoundException("Reservation %s not found".formatted(reservationId)));
         if (reservation.getStatus() == ReservationStatus.CANCELLED) {
             log.warn("Reservation {} already cancelled", reservationId);
             throw new BusinessException("Reservation already cancelled");
@@ -151,50 +297,106 @@ public class ReservationService {
         reservation.setCancellationReason(reason);
         reservation.setCancelledAt(java.time.OffsetDateTime.now());
         Reservation cancelledReservation = reservationRepository.save(reservation);
+        UUID roomId = cancelledReservation.getRoom().getId();
+        afterCommit(() -> availabilityIndex.markReleased(roomId, cancelledReservation.getReservationDate(), cancelledReservation.getTimeSlot()));
 
-        // Publish cancellation event for asynchronous processing
+        // Record the cancellation event in the outbox for delivery after commit
         publishReservationCancelledEvent(cancelledReservation);
 
         return ReservationResponse.from(cancelledReservation);
     }
 
     /**
-     * Lists all reservations for a diner, optionally filtering to only upcoming reservations.
-     * Returns paginated results sorted by reservation date (descending).
+     * Lists reservations for a diner, optionally filtering to only upcoming reservations.
+     * Returns one keyset page sorted by reservation date (descending), starting after the cursor.
+     * The full history also includes archived reservations, merged into the same order.
      */
-    public Page<ReservationResponse> listReservationsByDiner(String dinerEmail, boolean upcomingOnly, Pageable pageable) {
-        Page<Reservation> reservations = upcomingOnly
-                ? reservationRepository.findUpcomingReservations(dinerEmail, LocalDate.now(), pageable)
-                : reservationRepository.findByDinerEmailIgnoreCase(dinerEmail, pageable);
+    public ReservationPageResponse listReservationsByDiner(String dinerEmail, boolean upcomingOnly, String cursor, int size) {
+        ReservationCursor after = ReservationCursor.decode(cursor);
+        Limit limit = pageLimit(size);
+        List<ReservationResponse> reservations;
+        if (upcomingOnly) {
+            reservations = after == null
+                    ? reservationRepository.findUpcomingDinerReservations(dinerEmail, LocalDate.now(), limit)
+                    : reservationRepository.findUpcomingDinerReservationsAfter(dinerEmail, LocalDate.now(), after.reservationDate(), after.id(), limit);
+        } else {
+            // Hot rows first: a reservation archived between the two reads then shows up twice
+            // (and is dropped by the merge) rather than not at all
+            List<ReservationResponse> hot = after == null
+                    ? reservationRepository.findDinerReservations(dinerEmail, limit)
+                    : reservationRepository.findDinerReservationsAfter(dinerEmail, after.reservationDate(), after.id(), limit);
+            List<ReservationResponse> archived = after == null
+                    ? archivedReservationRepository.findDinerReservations(dinerEmail, limit)
+                    : archivedReservationRepository.findDinerReservationsAfter(dinerEmail, after.reservationDate(), after.id(), limit);
+            reservations = ReservationCursor.merge(hot, archived, limit.max());
+        }
 
-        Page<ReservationResponse> reservationsByDiner = reservations.map(ReservationResponse::from);
+        ReservationPageResponse reservationsByDiner = toPage(reservations, size);
 
-        log.info("Found {} reservations for diner {} (upcomingOnly={}, page={}/{})",
-                reservationsByDiner.getContent().size(), dinerEmail, upcomingOnly,
-                reservationsByDiner.getNumber(), reservationsByDiner.getTotalPages());
+        log.info("Found {} reservations for diner {} (upcomingOnly={}, hasNext={})",
+                reservationsByDiner.content().size(), dinerEmail, upcomingOnly, reservationsByDiner.hasNext());
 
         return reservationsByDiner;
     }
 
     /**
-     * Lists all reservations for a restaurant. Intended for staff use.
-     * Returns paginated results sorted by reservation date (descending).
+     * Lists reservations for a restaurant. Intended for staff use.
+     * Returns one keyset page sorted by reservation date (descending), starting after the cursor.
      */
-    public Page<ReservationResponse> listReservationsByRestaurant(UUID restaurantId, Pageable pageable) {
-        Page<Reservation> reservations = reservationRepository.findByRestaurantId(restaurantId, pageable);
-        return reservations.map(ReservationResponse::from);
+    public ReservationPageResponse listReservationsByRestaurant(UUID restaurantId, String cursor, int size) {
+        ReservationCursor after = ReservationCursor.decode(cursor);
+        Limit limit = pageLimit(size);
+        List<ReservationResponse> reservations = after == null
+                ? reservationRepository.findRestaurantReservations(restaurantId, limit)
+                : reservationRepository.findRestaurantReservationsAfter(restaurantId, after.reservationDate(), after.id(), limit);
+        return toPage(reservations, size);
     }
 
     /**
-     * Publishes a ReservationCreatedEvent for asynchronous processing.
+     * Fetches one row more than the page size, so the next page's existence is known without a count query.
+     */
+    private static Limit pageLimit(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessException("Page size must be between 1 and %d".formatted(MAX_PAGE_SIZE));
+        }
+        return Limit.of(size + 1);
+    }
+
+    private static ReservationPageResponse toPage(List<ReservationResponse> reservations, int size) {
+        boolean hasNext = reservations.size() > size;
+        List<ReservationResponse> content = hasNext ? reservations.subList(0, size) : reservations;
+        String nextCursor = hasNext ? ReservationCursor.of(content.get(size - 1)).encode() : null;
+        return new ReservationPageResponse(content, nextCursor, hasNext);
+    }
+
+    /**
+     * Runs the action once the surrounding transaction commits, so rolled-back writes never reach
+     * in-memory state. Runs immediately when no transaction is active.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Publishes a ReservationCreatedEvent through the outbox, in the current transaction.
      * Listeners can use this event to send confirmation emails, update caches, or track analytics.
+     * The room name is passed in because the reservation's room is an uninitialised reference.
      */
-    private void publishReservationCreatedEvent(Reservation reservation) {
+    private void publishReservationCreatedEvent(Reservation reservation, String roomName) {
         ReservationCreatedEvent event = new ReservationCreatedEvent(
                 reservation.getId(),
                 reservation.getRestaurant().getId(),
                 reservation.getRoom().getId(),
-                reservation.getRoom().getName(),
+                roomName,
                 reservation.getReservationDate(),
                 reservation.getTimeSlot(),
                 reservation.getPartySize(),
@@ -205,12 +407,12 @@ public class ReservationService {
                 reservation.getCreatedAt()
         );
 
-        log.debug("Publishing ReservationCreatedEvent for reservation {}", reservation.getId());
-        eventPublisher.publishEvent(event);
+        log.debug("Recording ReservationCreatedEvent for reservation {}", reservation.getId());
+        reservationOutbox.append(event);
     }
 
     /**
-     * Publishes a ReservationCancelledEvent for asynchronous processing.
+     * Publishes a ReservationCancelledEvent through the outbox, in the current transaction.
      * Listeners can use this event to send cancellation notifications or update availability caches.
      */
     private void publishReservationCancelledEvent(Reservation reservation) {
@@ -228,7 +430,7 @@ public class ReservationService {
                 reservation.getCancelledAt()
         );
 
-        log.debug("Publishing ReservationCancelledEvent for reservation {}", reservation.getId());
-        eventPublisher.publishEvent(event);
+        log.debug("Recording ReservationCancelledEvent for reservation {}", reservation.getId());
+        reservationOutbox.append(event);
     }
 }
\ No newline at end of file
@@ -0,0 +1,135 @@
+package com.opentable.reservation.service;
+
+import com.opentable.reservation.repository.RoomRepository;
+import com.opentable.reservation.repository.RoomRules;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory catalog of {@link RoomRules}, so that booking validation reads no rows.
+ * <p>
+ * The catalog is an immutable, versioned {@link Snapshot} that is replaced as a whole
+ * (copy-on-write): readers never lock and always see a consistent set of rooms. It is reloaded
+ * from the rooms table every {@code app.room-rules.refresh-interval}. Rooms saved or deleted through
+ * JPA on this instance are applied as soon as their transaction commits. A room missing from the
+ * catalog is read on first use.
+ * <p>
+ * Loads only replace the snapshot they started from. A load that races with a change is therefore
+ * discarded rather than overwriting the change with what it read before the commit. The foreign keys
+ * on reservations still reject a room deleted outside JPA until the next refresh drops it.
+ */
+@Slf4j
+@Component
+public class RoomRulesCatalog {
+
+    private final RoomRepository roomRepository;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(0, Map.of()));
+
+    public RoomRulesCatalog(RoomRepository roomRepository) {
+        this.roomRepository = roomRepository;
+    }
+
+    /**
+     * Returns the rules of the room, or empty if the room does not exist.
+     */
+    public Optional<RoomRules> find(UUID roomId) {
+        return Optional.ofNullable(findAll(List.of(roomId)).get(roomId));
+    }
+
+    /**
+     * Returns the rules of the rooms that exist among those requested, keyed by room id. Rooms
+     * missing from the catalog are read with one query.
+     */
+    public Map<UUID, RoomRules> findAll(Collection<UUID> roomIds) {
+        Snapshot current = snapshot.get();
+        Map<UUID, RoomRules> found = new HashMap<>();
+        Set<UUID> missing = new HashSet<>();
+        for (UUID roomId : roomIds) {
+            RoomRules rules = current.rooms().get(roomId);
+            if (rules != null) {
+                found.put(roomId, rules);
+            } else {
+                missing.add(roomId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        List<RoomRules> loaded = roomRepository.findRoomRules(missing);
+        loaded.forEach(rules -> found.put(rules.roomId(), rules));
+        if (!loaded.isEmpty() && snapshot.compareAndSet(current, current.with(loaded))) {
+            log.debug("Added {} rooms to the room rules catalog (version {})", loaded.size(), current.version() + 1);
+        }
+        return found;
+    }
+
+    /**
+     * Reloads every room. Runs at startup and then on a fixed delay, so changes made by other
+     * instances or outside JPA are picked up within one interval.
+     */
+    @Scheduled(fixedDelayString = "${app.room-rules.refresh-interval}")
+    public void refresh() {
+        Snapshot current = snapshot.get();
+        Map<UUID, RoomRules> rooms = roomRepository.findAllRoomRules().stream()
+                .collect(Collectors.toUnmodifiableMap(RoomRules::roomId, Function.identity()));
+        Snapshot refreshed = new Snapshot(current.version() + 1, rooms);
+        if (snapshot.compareAndSet(current, refreshed)) {
+            log.info("Room rules catalog refreshed to version {} with {} rooms", refreshed.version(), rooms.size());
+        } else {
+            log.debug("Room rules catalog changed during refresh; keeping version {}", snapshot.get().version());
+        }
+    }
+
+    /**
+     * Replaces the rules of a room with those it was committed with.
+     */
+    public void put(RoomRules rules) {
+        Snapshot updated = snapshot.updateAndGet(current -> current.with(List.of(rules)));
+        log.debug("Room {} updated in the room rules catalog (version {})", rules.roomId(), updated.version());
+    }
+
+    /**
+     * Removes a deleted room.
+     */
+    public void evict(UUID roomId) {
+        Snapshot updated = snapshot.updateAndGet(current -> current.without(roomId));
+        log.debug("Room {} removed from the room rules catalog (version {})", roomId, updated.version());
+    }
+
+    /**
+     * Returns the version of the current snapshot, incremented on every change.
+     */
+    public long version() {
+        return snapshot.get().version();
+    }
+
+    record Snapshot(long version, Map<UUID, RoomRules> rooms) {
+
+        Snapshot with(List<RoomRules> changed) {
+            Map<UUID, RoomRules> copy = new HashMap<>(rooms);
+            changed.forEach(rules -> copy.put(rules.roomId(), rules));
+            return new Snapshot(version + 1, Map.copyOf(copy));
+        }
+
+        Snapshot without(UUID roomId) {
+            // A new version even when the room is absent, so that a load already reading it is discarded
+            Map<UUID, RoomRules> copy = new HashMap<>(rooms);
+            copy.remove(roomId);
+            return new Snapshot(version + 1, Map.copyOf(copy));
+        }
+    }
+}
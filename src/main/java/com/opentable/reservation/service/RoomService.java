@@ -23,7 +23,7 @@ public class RoomService {
     /**
      * Finds all rooms for a given restaurant.
      */
-    @Cacheable(value = "rooms", key = "#restaurant.id")
+    @Cacheable(value = "restaurantRooms", key = "#restaurant.id")
     public List<Room> findByRestaurant(Restaurant restaurant) {
         return roomRepository.findByRestaurant(restaurant);
     }
@@ -31,8 +31,10 @@ public class RoomService {
     /**
      * Retrieves a specific room by its ID and associated restaurant ID.
      * Throws NotFoundException if the room does not exist.
+     * <p>
+     * Cached under both ids, so a room cached for its own restaurant is never returned for another one.
      */
-    @Cacheable(value = "rooms", key = "#roomId")
+    @Cacheable(value = "rooms", key = "{#restaurantId, #roomId}")
     public Room get(UUID restaurantId, UUID roomId) {
         return roomRepository.findByIdAndRestaurantId(roomId, restaurantId)
                 .orElseThrow(() -> new NotFoundException("Room %s not found".formatted(roomId)));
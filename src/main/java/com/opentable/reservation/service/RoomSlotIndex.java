@@ -0,0 +1,195 @@
+package com.opentable.reservation.service;
+
+import com.opentable.reservation.model.TimeSlot;
+import com.opentable.reservation.repository.BookedSlot;
+import com.opentable.reservation.repository.ReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resident index of booked slots, one compact bitmap per room with one bit per {@link TimeSlot} per day.
+ * <p>
+ * A room is read from the database the first time it is queried and is then kept current by
+ * {@link AvailabilityIndex} after each committed create or cancel on this instance. Only the
+ * bookable window is kept resident: from yesterday to {@link AvailabilityService#MAX_AVAILABILITY_DAYS}
+ * days ahead, as of the read, so a room costs a fixed couple of hundred bytes however long its history.
+ * Ranges reaching outside the window are read from the database and not kept. Every
+ * {@code app.availability.refresh-interval} all rooms are dropped and read again on next use, which
+ * picks up writes made by other instances and moves the window on. The partial unique index
+ * uk_room_date_slot_active remains the source of truth for double-booking.
+ * <p>
+ * A room is read outside the map, so a slow query never blocks rooms that share its bin. A write
+ * committed while the read is in flight may be missing from it; such a read still answers its own
+ * request but is not kept, and the room is read again on next use.
+ */
+@Slf4j
+@Component
+public class RoomSlotIndex {
+
+    private final ReservationRepository reservationRepository;
+    private final ConcurrentMap<UUID, RoomSlotBitmap> bitmaps = new ConcurrentHashMap<>();
+
+    // Bumped before every write is applied, so a read racing with the write can tell it may have missed it.
+    // Dropped together with the rooms on refresh; a read compares the counter's identity as well as its value
+    private final ConcurrentMap<UUID, AtomicLong> roomGenerations = new ConcurrentHashMap<>();
+
+    public RoomSlotIndex(ReservationRepository reservationRepository) {
+        this.reservationRepository = reservationRepository;
+    }
+
+    /**
+     * Returns one booked-slot mask per day between startDate and endDate (inclusive), where bit
+     * {@code slot.ordinal()} is set when that slot is taken.
+     */
+    public int[] dayMasks(UUID roomId, LocalDate startDate, LocalDate endDate) {
+        RoomSlotBitmap bitmap = bitmapFor(roomId);
+        if (bitmap.holds(startDate.toEpochDay(), endDate.toEpochDay())) {
+            return bitmap.dayMasks(startDate.toEpochDay(), endDate.toEpochDay());
+        }
+        return read(roomId, startDate, endDate).dayMasks(startDate.toEpochDay(), endDate.toEpochDay());
+    }
+
+    /**
+     * Records a committed booking. Rooms that have not been read yet are skipped, since their
+     * first read includes the committed row.
+     */
+    public void markBooked(UUID roomId, LocalDate date, TimeSlot timeSlot) {
+        generation(roomId).incrementAndGet();
+        bitmaps.computeIfPresent(roomId, (id, bitmap) -> {
+            bitmap.set(date.toEpochDay(), timeSlot.ordinal());
+            return bitmap;
+        });
+    }
+
+    /**
+     * Records a committed cancellation.
+     */
+    public void markReleased(UUID roomId, LocalDate date, TimeSlot timeSlot) {
+        generation(roomId).incrementAndGet();
+        bitmaps.computeIfPresent(roomId, (id, bitmap) -> {
+            bitmap.clear(date.toEpochDay(), timeSlot.ordinal());
+            return bitmap;
+        });
+    }
+
+    /**
+     * Drops every room so that each is read again on next use.
+     */
+    @Scheduled(fixedDelayString = "${app.availability.refresh-interval}", initialDelayString = "${app.availability.refresh-interval}")
+    public void refresh() {
+        int rooms = bitmaps.size();
+        bitmaps.clear();
+        roomGenerations.clear();
+        log.debug("Dropped {} rooms from the resident availability index", rooms);
+    }
+
+    private RoomSlotBitmap bitmapFor(UUID roomId) {
+        RoomSlotBitmap bitmap = bitmaps.get(roomId);
+        if (bitmap != null) {
+            return bitmap;
+        }
+
+        AtomicLong generation = generation(roomId);
+        long seen = generation.get();
+        LocalDate today = LocalDate.now();
+        RoomSlotBitmap loaded = read(roomId, today.minusDays(1), today.plusDays(AvailabilityService.MAX_AVAILABILITY_DAYS));
+        RoomSlotBitmap existing = bitmaps.putIfAbsent(roomId, loaded);
+        if (existing != null) {
+            return existing;
+        }
+        if (generation.get() != seen || roomGenerations.get(roomId) != generation) {
+            // A write landed while we were reading and skipped the room, since it was not in the map
+            // yet, or a refresh dropped the counter we were watching
+            bitmaps.remove(roomId, loaded);
+        }
+        return loaded;
+    }
+
+    private AtomicLong generation(UUID roomId) {
+        return roomGenerations.computeIfAbsent(roomId, id -> new AtomicLong());
+    }
+
+    private RoomSlotBitmap read(UUID roomId, LocalDate startDate, LocalDate endDate) {
+        List<BookedSlot> bookedSlots = reservationRepository.findActiveSlots(roomId, startDate, endDate, AvailabilityIndex.ACTIVE_STATUSES);
+        RoomSlotBitmap bitmap = new RoomSlotBitmap(startDate.toEpochDay(), endDate.toEpochDay());
+        for (BookedSlot bookedSlot : bookedSlots) {
+            bitmap.set(bookedSlot.reservationDate().toEpochDay(), bookedSlot.timeSlot().ordinal());
+        }
+        log.debug("Read availability for room {} from {} to {} with {} booked slots", roomId, startDate, endDate, bookedSlots.size());
+        return bitmap;
+    }
+
+    /**
+     * Bitmap over a fixed window of days, packing {@link #SLOTS_PER_DAY} bits per day into longs,
+     * addressed by epoch day. Writes outside the window are ignored.
+     */
+    static final class RoomSlotBitmap {
+
+        static final int SLOTS_PER_DAY = TimeSlot.values().length;
+        static final int DAYS_PER_WORD = Long.SIZE / SLOTS_PER_DAY;
+        private static final long DAY_MASK = (1L << SLOTS_PER_DAY) - 1;
+
+        private final long firstDay;
+        private final long lastDay;
+        private final long baseDay;
+        private final long[] words;
+
+        RoomSlotBitmap(long firstDay, long lastDay) {
+            this.firstDay = firstDay;
+            this.lastDay = lastDay;
+            this.baseDay = Math.floorDiv(firstDay, DAYS_PER_WORD) * DAYS_PER_WORD;
+            this.words = new long[Math.toIntExact(Math.max(0, lastDay - baseDay) / DAYS_PER_WORD + 1)];
+        }
+
+        /**
+         * Returns whether every day from startDay to endDay (inclusive) lies in the window.
+         */
+        boolean holds(long startDay, long endDay) {
+            return startDay >= firstDay && endDay <= lastDay;
+        }
+
+        synchronized void set(long epochDay, int slot) {
+            if (holds(epochDay, epochDay)) {
+                words[wordIndex(epochDay)] |= 1L << bitIndex(epochDay, slot);
+            }
+        }
+
+        synchronized void clear(long epochDay, int slot) {
+            if (holds(epochDay, epochDay)) {
+                words[wordIndex(epochDay)] &= ~(1L << bitIndex(epochDay, slot));
+            }
+        }
+
+        /**
+         * Returns one mask per day between startDay and endDay (inclusive); days outside the window read as free.
+         */
+        synchronized int[] dayMasks(long startDay, long endDay) {
+            int[] masks = new int[Math.toIntExact(Math.max(0, endDay - startDay + 1))];
+            for (int i = 0; i < masks.length; i++) {
+                long day = startDay + i;
+                masks[i] = holds(day, day) ? read(day) : 0;
+            }
+            return masks;
+        }
+
+        private int read(long epochDay) {
+            return (int) ((words[wordIndex(epochDay)] >>> bitIndex(epochDay, 0)) & DAY_MASK);
+        }
+
+        private int wordIndex(long epochDay) {
+            return (int) ((epochDay - baseDay) / DAYS_PER_WORD);
+        }
+
+        private int bitIndex(long epochDay, int slot) {
+            return (int) ((epochDay - baseDay) % DAYS_PER_WORD) * SLOTS_PER_DAY + slot;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.opentable.reservation.service;
+
+import com.opentable.reservation.model.TimeSlot;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-process table of (room, date, slot) bookings that are currently in flight.
+ * <p>
+ * A claim is taken with a single compare-and-set style {@code putIfAbsent} before a booking opens
+ * its transaction, so concurrent duplicates on this instance are rejected without a database round
+ * trip. It does not replace the partial unique index uk_room_date_slot_active, which still decides
+ * conflicts across instances and against committed rows.
+ */
+@Component
+public class SlotClaimTable {
+
+    private final ConcurrentMap<SlotKey, Claim> claims = new ConcurrentHashMap<>();
+
+    /**
+     * Claims the slot, or returns empty if another booking for it is already in flight.
+     */
+    public Optional<Claim> tryClaim(UUID roomId, LocalDate date, TimeSlot timeSlot) {
+        SlotKey key = new SlotKey(roomId, date, timeSlot);
+        Claim claim = new Claim(key);
+        return claims.putIfAbsent(key, claim) == null ? Optional.of(claim) : Optional.empty();
+    }
+
+    /**
+     * Returns the number of bookings currently in flight.
+     */
+    public int size() {
+        return claims.size();
+    }
+
+    record SlotKey(UUID roomId, LocalDate date, TimeSlot timeSlot) {
+    }
+
+    /**
+     * Held for the duration of one booking attempt; closing it releases the slot.
+     */
+    public final class Claim implements AutoCloseable {
+
+        private final SlotKey key;
+
+        private Claim(SlotKey key) {
+            this.key = key;
+        }
+
+        @Override
+        public void close() {
+            // Remove only our own claim, never one taken after we released
+            claims.remove(key, this);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+-- Transactional outbox for reservation events, written in the same transaction as the reservation
+
+CREATE SEQUENCE reservation_outbox_seq INCREMENT BY 50;
+
+CREATE TABLE reservation_outbox (
+    id BIGINT PRIMARY KEY,
+    event_type VARCHAR(100) NOT NULL,
+    aggregate_id UUID NOT NULL,
+    payload TEXT NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    published_at TIMESTAMP WITH TIME ZONE
+);
+
+-- The relay only ever scans undelivered rows, in insertion order
+CREATE INDEX idx_reservation_outbox_pending
+ON reservation_outbox (id)
+WHERE published_at IS NULL;
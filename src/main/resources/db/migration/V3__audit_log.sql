@@ -0,0 +1,25 @@
+-- Append-only audit trail of reservation changes, written in batches by a single writer
+
+CREATE SEQUENCE audit_log_seq INCREMENT BY 50;
+
+CREATE TABLE audit_log (
+    id BIGINT PRIMARY KEY,
+    action VARCHAR(40) NOT NULL,
+    reservation_id UUID NOT NULL,
+    restaurant_id UUID NOT NULL,
+    room_id UUID NOT NULL,
+    room_name VARCHAR(255),
+    reservation_date DATE NOT NULL,
+    time_slot VARCHAR(20) NOT NULL,
+    actor VARCHAR(255),
+    details VARCHAR(1000),
+    occurred_at TIMESTAMP WITH TIME ZONE,
+    recorded_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    -- One entry per reservation and action, so an event delivered again is not recorded twice
+    CONSTRAINT uk_audit_log_reservation_action UNIQUE (reservation_id, action)
+);
+
+-- One index per read path of the audit API, newest entries first; ids alone do not follow recording order
+CREATE INDEX idx_audit_log_reservation ON audit_log (reservation_id, recorded_at DESC, id DESC);
+CREATE INDEX idx_audit_log_room ON audit_log (room_id, recorded_at DESC, id DESC);
+CREATE INDEX idx_audit_log_restaurant ON audit_log (restaurant_id, recorded_at DESC, id DESC);
@@ -0,0 +1,24 @@
+-- Indexes matched to the repository read paths; each comment names the queries it serves
+
+-- Diner listings (ReservationRepository.find*DinerReservations*): case-insensitive email,
+-- in keyset order so a page is a forward index range scan with no sort
+CREATE INDEX idx_reservations_diner_email ON reservations (lower(diner_email), reservation_date DESC, id DESC);
+
+-- Restaurant listings (ReservationRepository.findRestaurantReservations*), in keyset order
+CREATE INDEX idx_reservations_restaurant_date ON reservations (restaurant_id, reservation_date DESC, id DESC);
+
+-- Availability ranges for one or more rooms (findActiveSlots, findBookedSlotsForRooms); covers the
+-- BookedSlot projection so the range is answered by an index-only scan
+CREATE INDEX idx_reservations_room_date ON reservations (room_id, reservation_date) INCLUDE (time_slot, status);
+
+-- Availability across all rooms for a date range (findBookedSlotsBetween), also covering
+CREATE INDEX idx_reservations_date ON reservations (reservation_date) INCLUDE (room_id, time_slot, status);
+
+-- City search (RestaurantRepository.findByCityIgnoreCase, RoomRepository.findBookableRoomsInCity)
+CREATE INDEX idx_restaurants_city ON restaurants (lower(city));
+
+-- Room catalog of a restaurant (RoomRepository.findByRestaurant)
+CREATE INDEX idx_rooms_restaurant ON rooms (restaurant_id);
+
+-- Bookable rooms of a restaurant (RoomRepository.findBookableRooms); inactive rooms are never searched
+CREATE INDEX idx_rooms_restaurant_bookable ON rooms (restaurant_id, max_capacity, min_capacity) WHERE active;
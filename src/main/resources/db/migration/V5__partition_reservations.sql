@@ -0,0 +1,51 @@
+-- Range-partition reservations by month of reservation_date.
+-- Partitions are named reservations_pYYYY_MM; ReservationPartitionManager keeps future months
+-- created and detaches expired ones. Rows outside every monthly range land in reservations_default.
+
+ALTER TABLE reservations RENAME TO reservations_unpartitioned;
+ALTER TABLE reservations_unpartitioned DROP CONSTRAINT reservations_pkey;
+DROP INDEX uk_room_date_slot_active;
+DROP INDEX idx_reservations_diner_email;
+DROP INDEX idx_reservations_restaurant_date;
+DROP INDEX idx_reservations_room_date;
+DROP INDEX idx_reservations_date;
+
+CREATE TABLE reservations (LIKE reservations_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (reservation_date);
+
+-- A unique key on a partitioned table must contain the partition key; ids are random UUIDs
+ALTER TABLE reservations ADD PRIMARY KEY (id, reservation_date);
+ALTER TABLE reservations ADD FOREIGN KEY (restaurant_id) REFERENCES restaurants(id);
+ALTER TABLE reservations ADD FOREIGN KEY (room_id) REFERENCES rooms(id);
+
+-- One partition per month from the earliest reservation (or last month) to twelve months ahead
+DO $$
+DECLARE
+    partition_start DATE := date_trunc('month', least(
+            coalesce((SELECT min(reservation_date) FROM reservations_unpartitioned), current_date),
+            current_date - INTERVAL '1 month'))::date;
+    last_month DATE := date_trunc('month', current_date + INTERVAL '12 months')::date;
+BEGIN
+    WHILE partition_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF reservations FOR VALUES FROM (%L) TO (%L)',
+                       'reservations_p' || to_char(partition_start, 'YYYY_MM'), partition_start, (partition_start + INTERVAL '1 month')::date);
+        partition_start := (partition_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+CREATE TABLE reservations_default PARTITION OF reservations DEFAULT;
+
+INSERT INTO reservations SELECT * FROM reservations_unpartitioned;
+DROP TABLE reservations_unpartitioned;
+
+-- Indexes on the parent are created on every partition, existing and future. The double-booking
+-- key contains reservation_date, so a slot always falls in exactly one partition and the
+-- per-partition unique index is as strong as the former table-wide one.
+CREATE UNIQUE INDEX uk_room_date_slot_active
+ON reservations (room_id, reservation_date, time_slot)
+WHERE status IN ('PENDING', 'CONFIRMED');
+
+CREATE INDEX idx_reservations_diner_email ON reservations (lower(diner_email), reservation_date DESC, id DESC);
+CREATE INDEX idx_reservations_restaurant_date ON reservations (restaurant_id, reservation_date DESC, id DESC);
+CREATE INDEX idx_reservations_room_date ON reservations (room_id, reservation_date) INCLUDE (time_slot, status);
+CREATE INDEX idx_reservations_date ON reservations (reservation_date) INCLUDE (room_id, time_slot, status);
@@ -0,0 +1,28 @@
+-- Cold store for past reservations, filled in small batches by ReservationArchiver.
+-- Rows are copied as they were when archived; there are no foreign keys so restaurants and rooms
+-- can be removed without touching history.
+
+CREATE TABLE reservations_archive (
+    id UUID PRIMARY KEY,
+    restaurant_id UUID NOT NULL,
+    room_id UUID NOT NULL,
+    reservation_date DATE NOT NULL,
+    time_slot VARCHAR(20) NOT NULL,
+    party_size INTEGER NOT NULL,
+    diner_name VARCHAR(255) NOT NULL,
+    diner_email VARCHAR(255) NOT NULL,
+    diner_phone VARCHAR(50) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    special_requests VARCHAR(500),
+    cancellation_reason VARCHAR(500),
+    cancelled_by VARCHAR(255),
+    confirmed_at TIMESTAMP WITH TIME ZONE,
+    cancelled_at TIMESTAMP WITH TIME ZONE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    version BIGINT NOT NULL,
+    archived_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+-- Diner history listing, in the same keyset order as the hot table
+CREATE INDEX idx_reservations_archive_diner_email ON reservations_archive (lower(diner_email), reservation_date DESC, id DESC);
@@ -0,0 +1,2 @@
+-- Restaurant export reads the archive by restaurant, in the same order as the live table
+CREATE INDEX idx_reservations_archive_restaurant ON reservations_archive (restaurant_id, reservation_date DESC, id DESC);
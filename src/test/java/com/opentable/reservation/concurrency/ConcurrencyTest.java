@@ -3,6 +3,7 @@ package com.opentable.reservation.concurrency;
 import com.opentable.reservation.dto.CreateReservationRequest;
 import com.opentable.reservation.dto.CreateReservationRequest.Diner;
 import com.opentable.reservation.dto.CreateReservationRequest.MonetaryAmount;
+import com.opentable.reservation.dto.ReservationResponse;
 import com.opentable.reservation.exception.BusinessException;
 import com.opentable.reservation.exception.RoomAlreadyBookedException;
 import com.opentable.reservation.model.*;
@@ -17,6 +18,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
@@ -175,16 +177,17 @@ class ConcurrencyTest {
                 .withFailMessage("Expected " + (threadCount - 1) + " failures, but got " + failureCount.get());
 
         // Verify only one reservation exists in the database
-        List<Reservation> reservations = reservationRepository.findByRoomIdAndReservationDateBetween(
-                room.getId(), testDate, testDate);
+        List<ReservationResponse> reservations = reservationRepository.findRestaurantReservations(
+                restaurant.getId(), Limit.unlimited());
 
         assertThat(reservations).hasSize(1)
                 .withFailMessage("Database should contain exactly 1 reservation");
 
-        Reservation savedReservation = reservations.get(0);
-        assertThat(savedReservation.getReservationDate()).isEqualTo(testDate);
-        assertThat(savedReservation.getTimeSlot()).isEqualTo(testTimeSlot);
-        assertThat(savedReservation.getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
+        ReservationResponse savedReservation = reservations.get(0);
+        assertThat(savedReservation.roomId()).isEqualTo(room.getId());
+        assertThat(savedReservation.reservationDate()).isEqualTo(testDate);
+        assertThat(savedReservation.timeSlot()).isEqualTo(testTimeSlot);
+        assertThat(savedReservation.status()).isEqualTo(ReservationStatus.CONFIRMED);
 
         log.info("CONCURRENCY TEST PASSED: {} threads attempted reservation, exactly 1 succeeded, {} failed as expected",
                 threadCount, failureCount.get());
@@ -258,9 +261,10 @@ class ConcurrencyTest {
                 .withFailMessage("No reservations should fail when booking different slots");
 
         // Verify all reservations exist in database
-        List<Reservation> reservations = reservationRepository.findByRoomIdAndReservationDateBetween(
-                room.getId(), testDate, testDate);
-        assertThat(reservations).hasSize(threadCount);
+        List<ReservationResponse> reservations = reservationRepository.findRestaurantReservations(
+                restaurant.getId(), Limit.unlimited());
+        assertThat(reservations).hasSize(threadCount)
+                .allSatisfy(reservation -> assertThat(reservation.reservationDate()).isEqualTo(testDate));
 
         log.info("CONCURRENT DIFFERENT SLOTS TEST PASSED: All {} reservations succeeded", threadCount);
     }
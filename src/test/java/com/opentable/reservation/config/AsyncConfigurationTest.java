@@ -0,0 +1,145 @@
+package com.opentable.reservation.config;
+
+import com.opentable.reservation.config.EventExecutorProperties.Pool;
+import com.opentable.reservation.config.EventExecutorProperties.RejectionPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests that saturated event executors apply their rejection policy or concurrency limit and report
+ * it through meters. Throughput of the fixed pool and of virtual threads is compared by
+ * {@code EventExecutorBenchmark}.
+ */
+class AsyncConfigurationTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void saturatedPool_WithCallerRuns_ShouldRunTaskOnSubmittingThreadAndCountRejection() {
+        // Arrange
+        executor = saturatedExecutor(RejectionPolicy.CALLER_RUNS);
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+
+        // Act
+        executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+        // Assert
+        assertThat(ranOn.get()).isEqualTo(Thread.currentThread());
+        assertThat(meterRegistry.get("events.executor.rejected").tag("executor", "test").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("events.executor.queued").tag("executor", "test").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("events.executor.active").tag("executor", "test").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void saturatedPool_WithAbort_ShouldRejectTaskAndCountRejection() {
+        // Arrange
+        executor = saturatedExecutor(RejectionPolicy.ABORT);
+
+        // Act & Assert
+        assertThatThrownBy(() -> executor.execute(() -> { }))
+                .isInstanceOf(TaskRejectedException.class);
+        assertThat(meterRegistry.get("events.executor.rejected").tag("executor", "test").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void virtualThreads_AtConcurrencyLimit_ShouldMakeSubmitterWaitAndReportItThroughMeters() throws Exception {
+        // Arrange - one pool thread plus one queue slot make a limit of two running tasks
+        AsyncTaskExecutor virtual = executorFor(new Pool(1, 1, 1, RejectionPolicy.CALLER_RUNS),
+                new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true"));
+        CountDownLatch started = new CountDownLatch(2);
+        for (int i = 0; i < 2; i++) {
+            virtual.execute(() -> {
+                started.countDown();
+                awaitRelease();
+            });
+        }
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Act - a third submitter has to wait for a permit
+        CompletableFuture<Void> submitted = CompletableFuture.runAsync(() -> virtual.execute(() -> { }));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (gauge("events.executor.queued") < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Assert
+        assertThat(virtual).isInstanceOf(SimpleAsyncTaskExecutor.class);
+        assertThat(submitted).isNotDone();
+        assertThat(gauge("events.executor.queued")).isEqualTo(1);
+        assertThat(gauge("events.executor.active")).isEqualTo(2);
+        assertThat(gauge("events.executor.queue.remaining")).isZero();
+        assertThat(gauge("events.executor.concurrency.limit")).isEqualTo(2);
+        assertThat(meterRegistry.get("events.executor.rejected").tag("executor", "test").tag("policy", "WAIT").counter().count())
+                .isEqualTo(1);
+
+        release.countDown();
+        submitted.get(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Returns a one-thread, one-slot pool whose thread is blocked and whose queue is full.
+     */
+    private ThreadPoolTaskExecutor saturatedExecutor(RejectionPolicy rejectionPolicy) {
+        ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor) executorFor(new Pool(1, 1, 1, rejectionPolicy), new MockEnvironment());
+        executor.initialize();
+
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        executor.execute(this::awaitRelease);
+        try {
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        return executor;
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag("executor", "test").gauge().value();
+    }
+
+    private AsyncTaskExecutor executorFor(Pool pool, MockEnvironment environment) {
+        EventExecutorProperties properties = new EventExecutorProperties(Map.of("test", pool));
+        return new AsyncConfiguration(properties, meterRegistry, environment).eventExecutor("test");
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
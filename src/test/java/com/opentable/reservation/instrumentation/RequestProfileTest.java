@@ -0,0 +1,94 @@
+package com.opentable.reservation.instrumentation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestProfileTest {
+
+    private final SqlStatementCounter sqlStatementCounter = new SqlStatementCounter();
+
+    @AfterEach
+    void tearDown() {
+        while (RequestProfile.current() != null) {
+            RequestProfile.current().finish();
+        }
+    }
+
+    @Test
+    void inspect_WithActiveProfile_ShouldCountStatementAndReturnSqlUnchanged() {
+        // Arrange
+        RequestProfile profile = RequestProfile.start();
+
+        // Act
+        String sql = sqlStatementCounter.inspect("select 1");
+        sqlStatementCounter.inspect("select 2");
+        profile.finish();
+
+        // Assert
+        assertThat(sql).isEqualTo("select 1");
+        assertThat(profile.sqlStatements()).isEqualTo(2);
+        assertThat(RequestProfile.current()).isNull();
+    }
+
+    @Test
+    void inspect_WithCapturingProfile_ShouldKeepStatementsInOrder() {
+        // Arrange
+        RequestProfile profile = RequestProfile.startCapturingSql();
+
+        // Act
+        sqlStatementCounter.inspect("select 1");
+        sqlStatementCounter.inspect("select 2");
+        profile.finish();
+
+        // Assert
+        assertThat(profile.statements()).containsExactly("select 1", "select 2");
+        assertThat(RequestProfile.start().finish().statements()).isEmpty();
+    }
+
+    @Test
+    void inspect_WithoutProfile_ShouldNotFail() {
+        // Act & Assert
+        assertThat(sqlStatementCounter.inspect("select 1")).isEqualTo("select 1");
+    }
+
+    @Test
+    void start_WhileProfiling_ShouldSuspendOuterProfileUntilInnerFinishes() {
+        // Arrange
+        RequestProfile outer = RequestProfile.start();
+        sqlStatementCounter.inspect("select 1");
+
+        // Act
+        RequestProfile inner = RequestProfile.start();
+        sqlStatementCounter.inspect("select 2");
+        sqlStatementCounter.inspect("select 3");
+        inner.finish();
+        sqlStatementCounter.inspect("select 4");
+        outer.finish();
+
+        // Assert
+        assertThat(inner.sqlStatements()).isEqualTo(2);
+        assertThat(outer.sqlStatements()).isEqualTo(2);
+    }
+
+    @Test
+    void serverTiming_ShouldListStatementsMethodsAndTotal() {
+        // Arrange
+        RequestProfile profile = RequestProfile.start();
+        sqlStatementCounter.inspect("select 1");
+        profile.methodCompleted("RoomService.get", 1_500_000);
+        profile.methodCompleted("RoomService.get", 500_000);
+        profile.methodCompleted("RoomRepository.findByIdAndRestaurantId", 1_250_000);
+        profile.finish();
+
+        // Act
+        String serverTiming = profile.serverTiming();
+
+        // Assert
+        assertThat(profile.methods().get("RoomService.get").calls()).isEqualTo(2);
+        assertThat(serverTiming)
+                .startsWith("sql;desc=\"1 statements\", RoomService.get;desc=\"2 calls\";dur=2.00, "
+                        + "RoomRepository.findByIdAndRestaurantId;desc=\"1 calls\";dur=1.25, total;dur=");
+    }
+}
@@ -1,6 +1,7 @@
 package com.opentable.reservation.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opentable.reservation.dto.BatchCreateReservationRequest;
 import com.opentable.reservation.dto.CreateReservationRequest;
 import com.opentable.reservation.dto.CreateReservationRequest.Diner;
 import com.opentable.reservation.dto.CreateReservationRequest.MonetaryAmount;
@@ -8,6 +9,7 @@ import com.opentable.reservation.model.*;
 import com.opentable.reservation.repository.ReservationRepository;
 import com.opentable.reservation.repository.RestaurantRepository;
 import com.opentable.reservation.repository.RoomRepository;
+import com.opentable.reservation.service.ReservationExportService;
 import com.opentable.reservation.testutil.TestDataBuilder;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,11 +20,18 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
+import static com.opentable.reservation.testutil.SqlStatementAssertions.sqlStatements;
+import static com.opentable.reservation.testutil.SqlStatementAssertions.sqlStatementsAtMost;
+import static com.opentable.reservation.testutil.SqlStatementAssertions.sqlStatementsOf;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -52,6 +61,9 @@ class ApiIntegrationTest {
     @Autowired
     private ReservationRepository reservationRepository;
 
+    @Autowired
+    private ReservationExportService reservationExportService;
+
     private Restaurant restaurant;
     private Room room;
 
@@ -169,6 +181,338 @@ class ApiIntegrationTest {
                 .andExpect(jsonPath("$.days[0].slots[?(@.slot == 'DINNER')].reason").value("Already booked"));
     }
 
+    @Test
+    void checkAvailability_WarmCache_ShouldExecuteNoSql() throws Exception {
+        LocalDate testDate = LocalDate.now().plusDays(7);
+        createTestReservationForDate(testDate, TimeSlot.DINNER);
+        String url = "/api/v1/restaurants/" + restaurant.getId() + "/rooms/" + room.getId() + "/availability";
+
+        // Cold: the room lookup and one range query for the booked slots
+        mockMvc.perform(get(url)
+                        .param("startDate", testDate.toString())
+                        .param("endDate", testDate.plusDays(29).toString()))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatementsAtMost(2));
+
+        // Warm: room and every day come from the caches
+        mockMvc.perform(get(url)
+                        .param("startDate", testDate.toString())
+                        .param("endDate", testDate.plusDays(29).toString()))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatements(0));
+    }
+
+    @Test
+    void checkAvailability_WarmRoomForOtherRestaurant_ShouldReturn404() throws Exception {
+        LocalDate testDate = LocalDate.now().plusDays(7);
+        Restaurant otherRestaurant = restaurantRepository.save(
+                TestDataBuilder.restaurant().name("Other Restaurant").build());
+
+        // Warm the room cache through its own restaurant
+        mockMvc.perform(get("/api/v1/restaurants/" + restaurant.getId() + "/rooms/" + room.getId() + "/availability")
+                        .param("startDate", testDate.toString())
+                        .param("endDate", testDate.toString()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/restaurants/" + otherRestaurant.getId() + "/rooms/" + room.getId() + "/availability")
+                        .param("startDate", testDate.toString())
+                        .param("endDate", testDate.toString()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void listRestaurantReservations_PageOf100_ShouldUseSameStatementsAsOneRow() throws Exception {
+        LocalDate firstDate = LocalDate.now().plusDays(7);
+        createTestReservationForDate(firstDate, TimeSlot.DINNER);
+        String url = "/api/v1/restaurants/" + restaurant.getId() + "/reservations?size=100";
+
+        MvcResult oneRow = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(sqlStatements(1))
+                .andReturn();
+
+        createTestReservations(firstDate, 99);
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(100))
+                .andExpect(jsonPath("$.content[0].roomId").value(room.getId().toString()))
+                .andExpect(jsonPath("$.content[0].restaurantId").value(restaurant.getId().toString()))
+                .andExpect(sqlStatements(sqlStatementsOf(oneRow)));
+    }
+
+    @Test
+    void listDinerReservations_PageOf100_ShouldReadLiveAndArchiveOnce() throws Exception {
+        createTestReservations(LocalDate.now().plusDays(7), 100);
+
+        // One statement for the live table and one for the archive, however many rows the page holds
+        mockMvc.perform(get("/api/v1/diners/sam.smith@example.com/reservations?size=100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(100))
+                .andExpect(sqlStatements(2));
+    }
+
+    @Test
+    void getReservation_ShouldExecuteOneStatement() throws Exception {
+        Reservation reservation = createTestReservation();
+
+        mockMvc.perform(get("/api/v1/reservations/" + reservation.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.roomId").value(room.getId().toString()))
+                .andExpect(sqlStatements(1));
+    }
+
+    @Test
+    void createReservation_ShouldExecuteBoundedNumberOfStatements() throws Exception {
+        CreateReservationRequest request = new CreateReservationRequest(
+                room.getId(),
+                LocalDate.now().plusDays(7),
+                TimeSlot.DINNER,
+                4,
+                new MonetaryAmount(new BigDecimal("600.00"), "USD"),
+                null,
+                new Diner("Sam Smith", "sam.smith@example.com", "+1-555-1234")
+        );
+
+        // Active-slot check, reservation insert, outbox insert and at most one outbox sequence call;
+        // the room comes from the room rules catalog
+        mockMvc.perform(post("/api/v1/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(sqlStatementsAtMost(4));
+    }
+
+    @Test
+    void createReservation_BreakingRoomRule_ShouldBeRejectedWithoutSql() throws Exception {
+        CreateReservationRequest request = new CreateReservationRequest(
+                room.getId(),
+                LocalDate.now().plusDays(7),
+                TimeSlot.DINNER,
+                20,
+                new MonetaryAmount(new BigDecimal("600.00"), "USD"),
+                null,
+                new Diner("Sam Smith", "sam.smith@example.com", "+1-555-1234")
+        );
+
+        mockMvc.perform(post("/api/v1/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("Party size outside room capacity"))
+                .andExpect(sqlStatements(0));
+    }
+
+    @Test
+    void createReservation_AfterRoomDeactivated_ShouldBeRejected() throws Exception {
+        room.setActive(false);
+        room = roomRepository.save(room);
+
+        CreateReservationRequest request = new CreateReservationRequest(
+                room.getId(),
+                LocalDate.now().plusDays(7),
+                TimeSlot.DINNER,
+                4,
+                new MonetaryAmount(new BigDecimal("600.00"), "USD"),
+                null,
+                new Diner("Sam Smith", "sam.smith@example.com", "+1-555-1234")
+        );
+
+        mockMvc.perform(post("/api/v1/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("Room is not accepting reservations"));
+    }
+
+    @Test
+    void searchAvailability_ForRestaurant_ShouldReturnFreeSlotsOfEligibleRoomsOnly() throws Exception {
+        LocalDate testDate = LocalDate.now().plusDays(7);
+
+        // Too small for the party, so it must not appear
+        Room smallRoom = TestDataBuilder.room()
+                .restaurant(restaurant)
+                .name("Small Room")
+                .minCapacity(1)
+                .maxCapacity(3)
+                .build();
+        roomRepository.save(smallRoom);
+
+        createTestReservationForDate(testDate, TimeSlot.DINNER);
+
+        mockMvc.perform(get("/api/v1/restaurants/" + restaurant.getId() + "/availability")
+                        .param("startDate", testDate.toString())
+                        .param("endDate", testDate.plusDays(1).toString())
+                        .param("partySize", "4")
+                        .param("timeSlot", "DINNER"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rooms", hasSize(1)))
+                .andExpect(jsonPath("$.rooms[0].room.roomId").value(room.getId().toString()))
+                .andExpect(jsonPath("$.rooms[0].days", hasSize(1)))
+                .andExpect(jsonPath("$.rooms[0].days[0].date").value(testDate.plusDays(1).toString()))
+                .andExpect(jsonPath("$.rooms[0].days[0].slots", contains("DINNER")));
+    }
+
+    @Test
+    void searchAvailability_ForCity_ShouldIncludeAllSlotsWhenNoFilter() throws Exception {
+        LocalDate testDate = LocalDate.now().plusDays(7);
+        createTestReservationForDate(testDate, TimeSlot.LUNCH);
+
+        mockMvc.perform(get("/api/v1/restaurants/availability")
+                        .param("city", restaurant.getCity().toUpperCase())
+                        .param("startDate", testDate.toString())
+                        .param("endDate", testDate.toString())
+                        .param("partySize", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rooms", hasSize(1)))
+                .andExpect(jsonPath("$.rooms[0].days[0].slots", contains("BREAKFAST", "DINNER", "LATE_NIGHT")));
+    }
+
+    @Test
+    void createReservationsBatch_ShouldCreateFreeSlotsAndReportConflicts() throws Exception {
+        LocalDate testDate = LocalDate.now().plusDays(7);
+        createTestReservationForDate(testDate, TimeSlot.DINNER);
+
+        Diner diner = new Diner("Events Team", "events@example.com", "+1-555-0000");
+        MonetaryAmount spend = new MonetaryAmount(new BigDecimal("600.00"), "USD");
+        BatchCreateReservationRequest request = new BatchCreateReservationRequest(List.of(
+                new CreateReservationRequest(room.getId(), testDate, TimeSlot.LUNCH, 4, spend, null, diner),
+                new CreateReservationRequest(room.getId(), testDate, TimeSlot.DINNER, 4, spend, null, diner),
+                new CreateReservationRequest(room.getId(), testDate.plusDays(1), TimeSlot.DINNER, 4, spend, null, diner)
+        ));
+
+        mockMvc.perform(post("/api/v1/reservations/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[*].outcome", contains("CREATED", "CONFLICT", "CREATED")))
+                .andExpect(jsonPath("$.results[0].reservation.status").value("CONFIRMED"));
+
+        assertThat(reservationRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void exportReservations_ShouldStreamEveryReservationAsNdjsonAndCsv() throws Exception {
+        Reservation first = createTestReservationForDate(LocalDate.now().plusDays(7), TimeSlot.DINNER);
+        Reservation second = TestDataBuilder.reservation()
+                .room(room)
+                .restaurant(restaurant)
+                .reservationDate(LocalDate.now().plusDays(8))
+                .dinerName("=HYPERLINK(\"http://example.com\",\"Sam\")")
+                .dinerPhone("+442079460000")
+                .specialRequests("Cake, and a \"happy birthday\" sign")
+                .build();
+        second = reservationRepository.save(second);
+
+        MvcResult ndjson = mockMvc.perform(get("/api/v1/restaurants/" + restaurant.getId() + "/reservations/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String ndjsonBody = mockMvc.perform(asyncDispatch(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = ndjsonBody.lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines.get(0)).get("id").asText()).isEqualTo(second.getId().toString());
+        assertThat(objectMapper.readTree(lines.get(1)).get("id").asText()).isEqualTo(first.getId().toString());
+
+        MvcResult csv = mockMvc.perform(get("/api/v1/restaurants/" + restaurant.getId() + "/reservations/export").param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String csvBody = mockMvc.perform(asyncDispatch(csv))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", containsString(".csv")))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(csvBody.split("\r\n")).hasSize(3);
+        assertThat(csvBody).startsWith("id,roomId,reservationDate")
+                .contains("\"Cake, and a \"\"happy birthday\"\" sign\"")
+                .contains("\"'=HYPERLINK(\"\"http://example.com\"\",\"\"Sam\"\")\"")
+                .contains(",+442079460000,")
+                .doesNotContain("'+442079460000");
+    }
+
+    @Test
+    void exportReservations_WhenEveryExportSlotIsTaken_ShouldReturn503() throws Exception {
+        List<ReservationExportService.Permit> running = new ArrayList<>();
+        try {
+            // Take every slot, as long-running exports would
+            while (true) {
+                try {
+                    running.add(reservationExportService.acquirePermit());
+                } catch (RuntimeException exhausted) {
+                    break;
+                }
+            }
+
+            mockMvc.perform(get("/api/v1/restaurants/" + restaurant.getId() + "/reservations/export"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(jsonPath("$.message").value(containsString("Too many exports")));
+        } finally {
+            running.forEach(ReservationExportService.Permit::close);
+        }
+
+        MvcResult export = mockMvc.perform(get("/api/v1/restaurants/" + restaurant.getId() + "/reservations/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(export)).andExpect(status().isOk());
+    }
+
+    @Test
+    void exportReservations_UnknownRestaurant_ShouldReturn404() throws Exception {
+        mockMvc.perform(get("/api/v1/restaurants/" + UUID.randomUUID() + "/reservations/export"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void auditTrail_ShouldRecordCreatedReservationAndRequireOneFilter() throws Exception {
+        CreateReservationRequest request = new CreateReservationRequest(
+                room.getId(),
+                LocalDate.now().plusDays(7),
+                TimeSlot.DINNER,
+                4,
+                new MonetaryAmount(new BigDecimal("600.00"), "USD"),
+                null,
+                new Diner("Sam Smith", "sam.smith@example.com", "+1-555-1234")
+        );
+        String response = mockMvc.perform(post("/api/v1/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String reservationId = objectMapper.readTree(response).get("id").asText();
+
+        // The entry travels through the outbox relay and the audit writer's group commit
+        long deadline = System.currentTimeMillis() + 10_000;
+        String auditPage;
+        do {
+            Thread.sleep(100);
+            auditPage = mockMvc.perform(get("/api/v1/audit").param("reservationId", reservationId))
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString();
+        } while (objectMapper.readTree(auditPage).get("content").isEmpty() && System.currentTimeMillis() < deadline);
+
+        mockMvc.perform(get("/api/v1/audit").param("roomId", room.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].reservationId").value(reservationId))
+                .andExpect(jsonPath("$.content[0].action").value("RESERVATION_CREATED"))
+                .andExpect(jsonPath("$.content[0].actor").value("sam.smith@example.com"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+
+        mockMvc.perform(get("/api/v1/audit"))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(get("/api/v1/audit").param("roomId", room.getId().toString()).param("size", "101"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
     @Test
     void createReservation_AfterCancellation_ShouldAllowRebooking() throws Exception {
         LocalDate testDate = LocalDate.now().plusDays(7);
@@ -228,6 +572,24 @@ class ApiIntegrationTest {
         return createTestReservationForDate(LocalDate.now().plusDays(7), TimeSlot.DINNER);
     }
 
+    /**
+     * Saves {@code count} reservations in the test room, filling every time slot of a day
+     * before moving on to the day after {@code firstDate}.
+     */
+    private void createTestReservations(LocalDate firstDate, int count) {
+        TimeSlot[] timeSlots = TimeSlot.values();
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            reservations.add(TestDataBuilder.reservation()
+                    .room(room)
+                    .restaurant(restaurant)
+                    .reservationDate(firstDate.plusDays(1 + i / timeSlots.length))
+                    .timeSlot(timeSlots[i % timeSlots.length])
+                    .build());
+        }
+        reservationRepository.saveAll(reservations);
+    }
+
     private Reservation createTestReservationForDate(LocalDate date, TimeSlot timeSlot) {
         Reservation reservation = TestDataBuilder.reservation()
                 .room(room)
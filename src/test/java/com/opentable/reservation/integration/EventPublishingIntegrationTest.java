@@ -5,12 +5,17 @@ import com.opentable.reservation.dto.CreateReservationRequest.Diner;
 import com.opentable.reservation.dto.CreateReservationRequest.MonetaryAmount;
 import com.opentable.reservation.event.ReservationCancelledEvent;
 import com.opentable.reservation.event.ReservationCreatedEvent;
+import com.opentable.reservation.exception.BusinessException;
 import com.opentable.reservation.model.*;
+import com.opentable.reservation.model.OutboxEvent;
+import com.opentable.reservation.repository.AuditEntryRepository;
+import com.opentable.reservation.repository.OutboxEventRepository;
 import com.opentable.reservation.repository.ReservationRepository;
 import com.opentable.reservation.repository.RestaurantRepository;
 import com.opentable.reservation.repository.RoomRepository;
 import com.opentable.reservation.service.ReservationService;
 import com.opentable.reservation.testutil.TestDataBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,11 +29,14 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Integration tests to verify that reservation-related events are published correctly
@@ -52,15 +60,25 @@ class EventPublishingIntegrationTest {
     @Autowired
     private ReservationRepository reservationRepository;
 
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private AuditEntryRepository auditEntryRepository;
+
     @Autowired
     private TestEventListener testEventListener;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private Restaurant restaurant;
     private Room room;
 
     @BeforeEach
     void setUp() {
         // Clean up
+        outboxEventRepository.deleteAll();
         reservationRepository.deleteAll();
         roomRepository.deleteAll();
         restaurantRepository.deleteAll();
@@ -229,6 +247,111 @@ class EventPublishingIntegrationTest {
         assertThat(event.getDinerEmail()).isEqualTo("sam.smith@example.com");
     }
 
+    @Test
+    void createReservation_ShouldRecordEventInOutboxAndMarkItDeliveredAfterRelay() throws InterruptedException {
+        // Arrange
+        CreateReservationRequest request = new CreateReservationRequest(
+                room.getId(),
+                LocalDate.now().plusDays(7),
+                TimeSlot.DINNER,
+                4,
+                new MonetaryAmount(new BigDecimal("600.00"), "USD"),
+                null,
+                new Diner("Sam Smith", "sam.smith@example.com", "+1-555-1234")
+        );
+
+        // Act
+        var reservation = reservationService.createReservation(request);
+
+        // Assert
+        assertThat(testEventListener.createdEventLatch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(outboxEventRepository.findAll())
+                .singleElement()
+                .satisfies(outboxEvent -> {
+                    assertThat(outboxEvent.getAggregateId()).isEqualTo(reservation.id());
+                    assertThat(outboxEvent.getEventType()).isEqualTo(ReservationCreatedEvent.class.getSimpleName());
+                });
+
+        // The event is marked delivered once the notification batch holding it is sent, up to the max delay later
+        long deadline = System.currentTimeMillis() + 10000;
+        while (outboxEventRepository.findAll().get(0).getPublishedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(outboxEventRepository.findAll()).extracting(OutboxEvent::getPublishedAt).doesNotContainNull();
+    }
+
+    @Test
+    void redeliveredEvent_ShouldLeaveExactlyOneAuditEntry() throws InterruptedException {
+        // Arrange - relay the creation once and wait for its audit entry
+        CreateReservationRequest request = new CreateReservationRequest(
+                room.getId(),
+                LocalDate.now().plusDays(7),
+                TimeSlot.DINNER,
+                4,
+                new MonetaryAmount(new BigDecimal("600.00"), "USD"),
+                null,
+                new Diner("Sam Smith", "sam.smith@example.com", "+1-555-1234")
+        );
+        var reservation = reservationService.createReservation(request);
+        awaitPublished();
+        awaitUntil(() -> auditEntryCount(reservation.id()) == 1);
+        double duplicatesBefore = meterRegistry.counter("audit.entries.duplicate").count();
+
+        // Act - put the event back as pending, as if a listener had failed it, so the relay delivers it again
+        OutboxEvent outboxEvent = outboxEventRepository.findAll().get(0);
+        outboxEvent.setPublishedAt(null);
+        outboxEventRepository.save(outboxEvent);
+        awaitPublished();
+        // The event is published once the writer has queued the entry, so wait for the write itself
+        awaitUntil(() -> meterRegistry.counter("audit.entries.duplicate").count() > duplicatesBefore);
+
+        // Assert
+        assertThat(auditEntryCount(reservation.id())).isEqualTo(1);
+    }
+
+    @Test
+    void rejectedReservation_ShouldNotRecordAnyEvent() throws InterruptedException {
+        // Arrange - party too large for the room, so the transaction never writes
+        CreateReservationRequest request = new CreateReservationRequest(
+                room.getId(),
+                LocalDate.now().plusDays(7),
+                TimeSlot.DINNER,
+                50,
+                new MonetaryAmount(new BigDecimal("600.00"), "USD"),
+                null,
+                new Diner("Sam Smith", "sam.smith@example.com", "+1-555-1234")
+        );
+
+        // Act
+        assertThatThrownBy(() -> reservationService.createReservation(request)).isInstanceOf(BusinessException.class);
+
+        // Assert
+        assertThat(testEventListener.createdEventLatch.await(1, TimeUnit.SECONDS)).isFalse();
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    private void awaitPublished() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (outboxEventRepository.findAll().get(0).getPublishedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(outboxEventRepository.findAll()).extracting(OutboxEvent::getPublishedAt).doesNotContainNull();
+    }
+
+    private void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private long auditEntryCount(UUID reservationId) {
+        return auditEntryRepository.findAll().stream()
+                .filter(entry -> reservationId.equals(entry.getReservationId()))
+                .count();
+    }
+
     /**
      * Test configuration to provide the test event listener as a bean
      */
@@ -0,0 +1,186 @@
+package com.opentable.reservation.integration;
+
+import com.opentable.reservation.model.ReservationStatus;
+import com.opentable.reservation.model.TimeSlot;
+import com.opentable.reservation.repository.ReservationExportRow;
+import com.opentable.reservation.repository.ReservationRepository;
+import com.opentable.reservation.repository.RestaurantRepository;
+import com.opentable.reservation.repository.RoomRepository;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static com.opentable.reservation.testutil.SqlStatementAssertions.captureSqlStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks with EXPLAIN that every repository read path is served by the index meant for it.
+ * <p>
+ * Each case calls the repository and explains the SQL Hibernate actually issued, captured through
+ * the statement inspector. The plan is the generic one for the parameterised statement: that is
+ * what Postgres may settle on once the JDBC driver has made a hot query a server-side prepared
+ * statement, and it needs no bind values. On the partitioned reservations table each partition has
+ * its own copy of an index, which counts as the index it was created from.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@org.springframework.context.annotation.Import(com.opentable.reservation.TestContainersConfiguration.class)
+class QueryPlanIntegrationTest {
+
+    private static final UUID ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID OTHER_ID = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final String EMAIL = "Diner@Example.com";
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 1);
+    private static final List<ReservationStatus> ACTIVE = List.of(ReservationStatus.PENDING, ReservationStatus.CONFIRMED);
+    private static final Limit PAGE = Limit.of(21);
+
+    private static final Pattern INDEX_USED = Pattern.compile("(?:Index (?:Only )?Scan(?: Backward)? using|Bitmap Index Scan on) (\\S+)");
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\?");
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    static Stream<Arguments> readPaths() {
+        return Stream.of(
+                readPath("diner listing",
+                        test -> test.reservationRepository.findDinerReservations(EMAIL, PAGE),
+                        "idx_reservations_diner_email"),
+                readPath("diner listing after cursor",
+                        test -> test.reservationRepository.findDinerReservationsAfter(EMAIL, DATE, ID, PAGE),
+                        "idx_reservations_diner_email"),
+                readPath("upcoming diner listing",
+                        test -> test.reservationRepository.findUpcomingDinerReservations(EMAIL, DATE, PAGE),
+                        "idx_reservations_diner_email"),
+                readPath("upcoming diner listing after cursor",
+                        test -> test.reservationRepository.findUpcomingDinerReservationsAfter(EMAIL, DATE, DATE.plusMonths(1), ID, PAGE),
+                        "idx_reservations_diner_email"),
+                readPath("restaurant listing",
+                        test -> test.reservationRepository.findRestaurantReservations(ID, PAGE),
+                        "idx_reservations_restaurant_date"),
+                readPath("restaurant listing after cursor",
+                        test -> test.reservationRepository.findRestaurantReservationsAfter(ID, DATE, ID, PAGE),
+                        "idx_reservations_restaurant_date"),
+                readPath("restaurant export",
+                        test -> test.transactionOperations.executeWithoutResult(status -> {
+                            try (Stream<ReservationExportRow> rows = test.reservationRepository.streamRestaurantReservations(ID)) {
+                                rows.count();
+                            }
+                        }),
+                        "idx_reservations_restaurant_date"),
+                readPath("active slots of a room",
+                        test -> test.reservationRepository.findActiveSlots(ID, DATE, DATE.plusDays(30), ACTIVE),
+                        "idx_reservations_room_date"),
+                readPath("booked slots of several rooms",
+                        test -> test.reservationRepository.findBookedSlotsForRooms(List.of(ID, OTHER_ID), DATE, DATE.plusDays(30), ACTIVE),
+                        "idx_reservations_room_date"),
+                readPath("booked slots of all rooms",
+                        test -> test.reservationRepository.findBookedSlotsBetween(DATE, DATE.plusDays(30), ACTIVE),
+                        "idx_reservations_date"),
+                // The generic plan cannot prove the partial double-booking key's status predicate
+                readPath("slot already booked",
+                        test -> test.reservationRepository.existsByRoomIdAndReservationDateAndTimeSlotAndStatusIn(ID, DATE, TimeSlot.DINNER, ACTIVE),
+                        "idx_reservations_room_date"),
+                readPath("restaurants in a city",
+                        test -> test.restaurantRepository.findByCityIgnoreCase("San Francisco"),
+                        "idx_restaurants_city"),
+                readPath("rooms of a restaurant",
+                        test -> test.roomRepository.findByRestaurant(test.restaurantRepository.getReferenceById(ID)),
+                        "idx_rooms_restaurant", "restaurants_pkey"),
+                readPath("bookable rooms of a restaurant",
+                        test -> test.roomRepository.findBookableRooms(ID, 8),
+                        "idx_rooms_restaurant_bookable", "restaurants_pkey")
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("readPaths")
+    void readPath_ShouldUseExpectedIndexes(String name, Consumer<QueryPlanIntegrationTest> query, List<String> expectedIndexes) {
+        // Arrange
+        List<String> statements = captureSqlStatements(() -> query.accept(this));
+        assertThat(statements).as(name).hasSize(1);
+
+        // Act
+        String plan = explainGenericPlan(statements.get(0));
+
+        // Assert
+        Set<String> indexesUsed = indexesUsed(plan);
+        Set<String> allowed = new HashSet<>();
+        for (String index : expectedIndexes) {
+            Set<String> copies = withPartitionCopies(index);
+            assertThat(indexesUsed).as("%s uses %s%n%s", name, index, plan).containsAnyElementsOf(copies);
+            allowed.addAll(copies);
+        }
+        assertThat(allowed).as("%s uses only the expected indexes%n%s", name, plan).containsAll(indexesUsed);
+        assertThat(plan).as(name).doesNotContain("Seq Scan");
+    }
+
+    private String explainGenericPlan(String sql) {
+        // Postgres numbers the parameters of a generic plan; Hibernate leaves them as JDBC placeholders
+        Matcher placeholders = PLACEHOLDER.matcher(sql);
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        while (placeholders.find()) {
+            placeholders.appendReplacement(numbered, "\\$" + ++parameter);
+        }
+        placeholders.appendTail(numbered);
+
+        return transactionOperations.execute(status -> {
+            // Test tables are tiny, so a sequential scan would always be cheapest; rule it out
+            // unless no index applies at all
+            jdbcTemplate.execute("set local enable_seqscan = off");
+            return String.join("\n", jdbcTemplate.queryForList("explain (generic_plan) " + numbered, String.class));
+        });
+    }
+
+    private Set<String> withPartitionCopies(String index) {
+        Set<String> copies = new HashSet<>(jdbcTemplate.queryForList("""
+                select child.relname
+                from pg_inherits
+                join pg_class child on child.oid = pg_inherits.inhrelid
+                where pg_inherits.inhparent = ?::regclass
+                """, String.class, index));
+        copies.add(index);
+        return copies;
+    }
+
+    private static Set<String> indexesUsed(String plan) {
+        Set<String> indexes = new HashSet<>();
+        Matcher matcher = INDEX_USED.matcher(plan);
+        while (matcher.find()) {
+            indexes.add(matcher.group(1));
+        }
+        return indexes;
+    }
+
+    private static Arguments readPath(String name, Consumer<QueryPlanIntegrationTest> query, String... expectedIndexes) {
+        return Arguments.of(name, query, List.of(expectedIndexes));
+    }
+}
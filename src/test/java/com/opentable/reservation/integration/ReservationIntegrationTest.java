@@ -3,11 +3,13 @@ package com.opentable.reservation.integration;
 import com.opentable.reservation.dto.CreateReservationRequest;
 import com.opentable.reservation.dto.CreateReservationRequest.Diner;
 import com.opentable.reservation.dto.CreateReservationRequest.MonetaryAmount;
+import com.opentable.reservation.dto.ReservationPageResponse;
 import com.opentable.reservation.dto.ReservationResponse;
 import com.opentable.reservation.model.*;
 import com.opentable.reservation.repository.ReservationRepository;
 import com.opentable.reservation.repository.RestaurantRepository;
 import com.opentable.reservation.repository.RoomRepository;
+import com.opentable.reservation.service.ReservationArchiver;
 import com.opentable.reservation.service.ReservationService;
 import com.opentable.reservation.testutil.TestDataBuilder;
 import org.junit.jupiter.api.AfterEach;
@@ -15,12 +17,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -44,12 +48,19 @@ class ReservationIntegrationTest {
     @Autowired
     private ReservationRepository reservationRepository;
 
+    @Autowired
+    private ReservationArchiver reservationArchiver;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Restaurant restaurant;
     private Room room;
 
     @BeforeEach
     void setUp() {
         // Clean up
+        jdbcTemplate.update("delete from reservations_archive");
         reservationRepository.deleteAll();
         roomRepository.deleteAll();
         restaurantRepository.deleteAll();
@@ -72,6 +83,7 @@ class ReservationIntegrationTest {
 
     @AfterEach
     void tearDown() {
+        jdbcTemplate.update("delete from reservations_archive");
         reservationRepository.deleteAll();
         roomRepository.deleteAll();
         restaurantRepository.deleteAll();
@@ -159,11 +171,58 @@ class ReservationIntegrationTest {
         }
 
         // Retrieve all reservations
-        Page<ReservationResponse> reservations = reservationService.listReservationsByDiner(email, false, PageRequest.of(0, 20));
+        ReservationPageResponse reservations = reservationService.listReservationsByDiner(email, false, null, 20);
 
         // Verify
-        assertThat(reservations.getContent()).hasSize(3);
-        assertThat(reservations.getContent()).allMatch(r -> r.dinerEmail().equalsIgnoreCase(email));
+        assertThat(reservations.content()).hasSize(3);
+        assertThat(reservations.content()).allMatch(r -> r.dinerEmail().equalsIgnoreCase(email));
+
+        // Walk the same listing one row at a time through the cursor
+        List<UUID> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            ReservationPageResponse page = reservationService.listReservationsByDiner(email, false, cursor, 1);
+            page.content().forEach(r -> walked.add(r.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        assertThat(walked).containsExactlyElementsOf(reservations.content().stream().map(ReservationResponse::id).toList());
+    }
+
+    @Test
+    void endToEndReservationFlow_ListDinerReservationsIncludesArchive() {
+        String email = "history@test.com";
+        Reservation past = reservationRepository.save(TestDataBuilder.reservation()
+                .room(room)
+                .restaurant(restaurant)
+                .dinerEmail(email)
+                .reservationDate(LocalDate.now().minusDays(200))
+                .build());
+        Reservation upcoming = reservationRepository.save(TestDataBuilder.reservation()
+                .room(room)
+                .restaurant(restaurant)
+                .dinerEmail(email)
+                .reservationDate(LocalDate.now().plusDays(7))
+                .build());
+
+        // Move the past reservation to the archive
+        reservationArchiver.archive();
+        assertThat(reservationRepository.findById(past.getId())).isEmpty();
+
+        // Details are still served once the reservation is archived
+        assertThat(reservationService.getReservationDetails(past.getId()).id()).isEqualTo(past.getId());
+
+        // Full history merges both stores, newest first; upcoming reads only the hot table
+        ReservationPageResponse history = reservationService.listReservationsByDiner(email, false, null, 20);
+        ReservationPageResponse upcomingOnly = reservationService.listReservationsByDiner(email, true, null, 20);
+
+        assertThat(history.content()).extracting(ReservationResponse::id).containsExactly(upcoming.getId(), past.getId());
+        assertThat(upcomingOnly.content()).extracting(ReservationResponse::id).containsExactly(upcoming.getId());
+
+        // Paging one row at a time crosses from the hot table into the archive
+        ReservationPageResponse firstPage = reservationService.listReservationsByDiner(email, false, null, 1);
+        ReservationPageResponse secondPage = reservationService.listReservationsByDiner(email, false, firstPage.nextCursor(), 1);
+        assertThat(secondPage.content()).extracting(ReservationResponse::id).containsExactly(past.getId());
+        assertThat(secondPage.hasNext()).isFalse();
     }
 
     @Test
@@ -199,10 +258,11 @@ class ReservationIntegrationTest {
         reservationService.createReservation(request2);
 
         // List all reservations for the restaurant
-        Page<ReservationResponse> reservations = reservationService.listReservationsByRestaurant(restaurant.getId(), PageRequest.of(0, 20));
+        ReservationPageResponse reservations = reservationService.listReservationsByRestaurant(restaurant.getId(), null, 20);
 
         // Verify
-        assertThat(reservations.getContent()).hasSize(2);
+        assertThat(reservations.content()).hasSize(2);
+        assertThat(reservations.hasNext()).isFalse();
     }
 
     @Test
@@ -221,12 +281,9 @@ class ReservationIntegrationTest {
         ReservationResponse created = reservationService.createReservation(request);
 
         // Verify directly in database
-        Page<Reservation> dbReservations = reservationRepository.findByDinerEmailIgnoreCase("db@test.com", PageRequest.of(0, 20));
-
-        assertThat(dbReservations.getContent()).hasSize(1);
+        Reservation dbReservation = reservationRepository.findWithRoomById(created.id()).orElseThrow();
 
-        Reservation dbReservation = dbReservations.getContent().get(0);
-        assertThat(dbReservation.getId()).isEqualTo(created.id());
+        assertThat(dbReservation.getDinerEmail()).isEqualTo("db@test.com");
         assertThat(dbReservation.getRoom().getId()).isEqualTo(room.getId());
         assertThat(dbReservation.getRestaurant().getId()).isEqualTo(restaurant.getId());
         assertThat(dbReservation.getTimeSlot()).isEqualTo(TimeSlot.BREAKFAST);
@@ -0,0 +1,158 @@
+package com.opentable.reservation.integration;
+
+import com.opentable.reservation.model.Reservation;
+import com.opentable.reservation.model.ReservationStatus;
+import com.opentable.reservation.model.Restaurant;
+import com.opentable.reservation.model.Room;
+import com.opentable.reservation.model.TimeSlot;
+import com.opentable.reservation.repository.ReservationRepository;
+import com.opentable.reservation.repository.RestaurantRepository;
+import com.opentable.reservation.repository.RoomRepository;
+import com.opentable.reservation.service.ReservationPartitionManager;
+import com.opentable.reservation.testutil.TestDataBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for the monthly partitions of the reservations table.
+ * Uses a month far in the future so the partitions created and retired here never hold other tests' rows.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@org.springframework.context.annotation.Import(com.opentable.reservation.TestContainersConfiguration.class)
+class ReservationPartitionIntegrationTest {
+
+    private static final YearMonth FAR_MONTH = YearMonth.now().plusYears(5);
+
+    @Autowired
+    private ReservationPartitionManager partitionManager;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Restaurant restaurant;
+    private Room room;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository.deleteAll();
+        roomRepository.deleteAll();
+        restaurantRepository.deleteAll();
+
+        restaurant = restaurantRepository.save(TestDataBuilder.restaurant().name("Partition Test Restaurant").build());
+        room = roomRepository.save(TestDataBuilder.room().restaurant(restaurant).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("drop table if exists " + partitionOf(FAR_MONTH));
+        jdbcTemplate.update("delete from reservations_archive where reservation_date >= ?", FAR_MONTH.atDay(1));
+        reservationRepository.deleteAll();
+        roomRepository.deleteAll();
+        restaurantRepository.deleteAll();
+    }
+
+    @Test
+    void maintain_ShouldKeepCurrentAndFutureMonthsPartitioned() {
+        // Act
+        partitionManager.maintain();
+
+        // Assert
+        assertThat(tableExists(partitionOf(YearMonth.now()))).isTrue();
+        assertThat(tableExists(partitionOf(YearMonth.now().plusMonths(12)))).isTrue();
+    }
+
+    @Test
+    void createPartition_ShouldMoveRowsOutOfDefaultPartition() {
+        // Arrange: no partition covers the month yet, so the row lands in the default partition
+        Reservation reservation = reservationRepository.save(reservationOn(FAR_MONTH.atDay(10), TimeSlot.DINNER));
+        assertThat(rowsIn("reservations_default")).isEqualTo(1);
+
+        // Act
+        boolean created = partitionManager.createPartition(FAR_MONTH);
+
+        // Assert
+        assertThat(created).isTrue();
+        assertThat(rowsIn("reservations_default")).isZero();
+        assertThat(rowsIn(partitionOf(FAR_MONTH))).isEqualTo(1);
+        assertThat(reservationRepository.findById(reservation.getId())).isPresent();
+    }
+
+    @Test
+    void partitionedTable_ShouldStillRejectDoubleBooking() {
+        // Arrange
+        LocalDate date = LocalDate.now().plusDays(7);
+        reservationRepository.saveAndFlush(reservationOn(date, TimeSlot.DINNER));
+
+        // Act & Assert
+        assertThatThrownBy(() -> reservationRepository.saveAndFlush(reservationOn(date, TimeSlot.DINNER)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void detachPartition_ShouldArchiveEveryRemainingRowAndDropThePartition() {
+        // Arrange: the archiver never takes pending reservations
+        partitionManager.createPartition(FAR_MONTH);
+        Reservation confirmed = reservationRepository.save(reservationOn(FAR_MONTH.atDay(10), TimeSlot.LUNCH));
+        Reservation pending = reservationRepository.save(TestDataBuilder.reservation()
+                .room(room)
+                .restaurant(restaurant)
+                .reservationDate(FAR_MONTH.atDay(11))
+                .timeSlot(TimeSlot.DINNER)
+                .status(ReservationStatus.PENDING)
+                .build());
+
+        // Act
+        boolean detached = partitionManager.detachPartition(FAR_MONTH);
+
+        // Assert
+        assertThat(detached).isTrue();
+        assertThat(tableExists(partitionOf(FAR_MONTH))).isFalse();
+        assertThat(reservationRepository.findById(confirmed.getId())).isEmpty();
+        assertThat(jdbcTemplate.queryForList("select status from reservations_archive where id in (?, ?)", String.class,
+                confirmed.getId(), pending.getId()))
+                .containsExactlyInAnyOrder("CONFIRMED", "PENDING");
+    }
+
+    private Reservation reservationOn(LocalDate date, TimeSlot timeSlot) {
+        return TestDataBuilder.reservation()
+                .room(room)
+                .restaurant(restaurant)
+                .reservationDate(date)
+                .timeSlot(timeSlot)
+                .build();
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class, table));
+    }
+
+    private int rowsIn(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class);
+    }
+
+    private static String partitionOf(YearMonth month) {
+        return "reservations_p%d_%02d".formatted(month.getYear(), month.getMonthValue());
+    }
+}
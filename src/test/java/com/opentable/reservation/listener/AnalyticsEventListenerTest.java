@@ -0,0 +1,101 @@
+package com.opentable.reservation.listener;
+
+import com.opentable.reservation.event.ReservationCancelledEvent;
+import com.opentable.reservation.event.ReservationCreatedEvent;
+import com.opentable.reservation.model.TimeSlot;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests that reservation events are aggregated into meters tagged by restaurant and time slot, and
+ * that an event delivered again is not counted twice.
+ */
+class AnalyticsEventListenerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AnalyticsEventListener listener = new AnalyticsEventListener(meterRegistry);
+
+    private final UUID restaurantId = UUID.randomUUID();
+    private final UUID otherRestaurantId = UUID.randomUUID();
+
+    @Test
+    void trackReservationCreated_ShouldCountBookingsAndRecordPartySizePerRestaurantAndSlot() {
+        // Act
+        listener.trackReservationCreated(created(restaurantId, TimeSlot.DINNER, 4));
+        listener.trackReservationCreated(created(restaurantId, TimeSlot.DINNER, 10));
+        listener.trackReservationCreated(created(restaurantId, TimeSlot.LUNCH, 2));
+        listener.trackReservationCreated(created(otherRestaurantId, TimeSlot.DINNER, 6));
+
+        // Assert
+        assertThat(count("reservations.created", restaurantId, TimeSlot.DINNER)).isEqualTo(2);
+        assertThat(count("reservations.created", restaurantId, TimeSlot.LUNCH)).isEqualTo(1);
+        assertThat(count("reservations.created", otherRestaurantId, TimeSlot.DINNER)).isEqualTo(1);
+
+        DistributionSummary partySize = meterRegistry.get("reservations.party.size")
+                .tag("restaurant", restaurantId.toString())
+                .tag("time_slot", TimeSlot.DINNER.name())
+                .summary();
+        assertThat(partySize.count()).isEqualTo(2);
+        assertThat(partySize.totalAmount()).isEqualTo(14);
+        assertThat(partySize.max()).isEqualTo(10);
+    }
+
+    @Test
+    void trackReservationCancelled_ShouldCountCancellationsPerRestaurantAndSlot() {
+        // Act
+        listener.trackReservationCancelled(cancelled(restaurantId, TimeSlot.BREAKFAST));
+        listener.trackReservationCancelled(cancelled(restaurantId, TimeSlot.BREAKFAST));
+
+        // Assert
+        assertThat(count("reservations.cancelled", restaurantId, TimeSlot.BREAKFAST)).isEqualTo(2);
+    }
+
+    @Test
+    void trackReservationCreated_WhenEventDeliveredAgain_ShouldCountItOnce() {
+        // Arrange
+        ReservationCreatedEvent event = created(restaurantId, TimeSlot.DINNER, 4);
+        ReservationCancelledEvent cancellation = cancelled(restaurantId, TimeSlot.DINNER);
+
+        // Act
+        listener.trackReservationCreated(event);
+        listener.trackReservationCreated(event);
+        listener.trackReservationCancelled(cancellation);
+        listener.trackReservationCancelled(cancellation);
+
+        // Assert
+        assertThat(count("reservations.created", restaurantId, TimeSlot.DINNER)).isEqualTo(1);
+        assertThat(count("reservations.cancelled", restaurantId, TimeSlot.DINNER)).isEqualTo(1);
+        assertThat(meterRegistry.get("reservations.party.size")
+                .tag("restaurant", restaurantId.toString())
+                .tag("time_slot", TimeSlot.DINNER.name())
+                .summary()
+                .count()).isEqualTo(1);
+    }
+
+    private double count(String name, UUID restaurant, TimeSlot timeSlot) {
+        return meterRegistry.get(name)
+                .tag("restaurant", restaurant.toString())
+                .tag("time_slot", timeSlot.name())
+                .counter()
+                .count();
+    }
+
+    private ReservationCreatedEvent created(UUID restaurant, TimeSlot timeSlot, int partySize) {
+        return new ReservationCreatedEvent(UUID.randomUUID(), restaurant, UUID.randomUUID(), "Garden Room",
+                LocalDate.now().plusDays(7), timeSlot, partySize, "Sam Smith", "sam.smith@example.com",
+                "+1-555-1234", null, OffsetDateTime.now());
+    }
+
+    private ReservationCancelledEvent cancelled(UUID restaurant, TimeSlot timeSlot) {
+        return new ReservationCancelledEvent(UUID.randomUUID(), restaurant, UUID.randomUUID(), "Garden Room",
+                LocalDate.now().plusDays(7), timeSlot, "Sam Smith", "sam.smith@example.com",
+                "sam.smith@example.com", "Plans changed", OffsetDateTime.now());
+    }
+}
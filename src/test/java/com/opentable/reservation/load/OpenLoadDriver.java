@@ -0,0 +1,126 @@
+package com.opentable.reservation.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Open-model load generator: starts requests at a fixed arrival rate whether or not earlier ones
+ * have completed, the way independent users arrive.
+ * <p>
+ * Latency is measured from the time a request was scheduled to start, not from when it was sent,
+ * so a stalled server or a dispatcher that falls behind shows up in the percentiles instead of
+ * silently lowering the offered load (coordinated omission). Requests scheduled during the warm-up
+ * are sent but not recorded.
+ */
+@Slf4j
+final class OpenLoadDriver {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final double requestsPerSecond;
+    private final Duration warmup;
+    private final Duration duration;
+
+    OpenLoadDriver(double requestsPerSecond, Duration warmup, Duration duration) {
+        this.requestsPerSecond = requestsPerSecond;
+        this.warmup = warmup;
+        this.duration = duration;
+    }
+
+    /**
+     * Sends the i-th call of the workload at its scheduled time and waits for all calls to finish.
+     * Returns the recorded latencies per endpoint.
+     */
+    Map<String, EndpointStats> run(IntFunction<Call> workload) {
+        Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        long warmupNanos = warmup.toNanos();
+        long calls = (warmupNanos + duration.toNanos()) / intervalNanos;
+        long start = System.nanoTime();
+
+        for (int i = 0; i < calls; i++) {
+            long scheduled = start + i * intervalNanos;
+            for (long wait = scheduled - System.nanoTime(); wait > 0; wait = scheduled - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Call call = workload.apply(i);
+            boolean measured = scheduled - start >= warmupNanos;
+            EndpointStats endpointStats = stats.computeIfAbsent(call.endpoint(), EndpointStats::new);
+            inFlight.add(call.request().get().handle((status, error) -> {
+                if (measured) {
+                    endpointStats.record(System.nanoTime() - scheduled, error == null && status < 400);
+                }
+                return null;
+            }));
+        }
+
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).orTimeout(1, TimeUnit.MINUTES).join();
+        log.info("Sent {} requests at {}/s in {} ms", calls, requestsPerSecond,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return stats;
+    }
+
+    /**
+     * A request to send, labelled with the endpoint its latency is recorded under. The future
+     * completes with the HTTP status code.
+     */
+    record Call(String endpoint, Supplier<CompletableFuture<Integer>> request) {
+    }
+
+    /**
+     * Latency histogram in microseconds and error count of one endpoint.
+     */
+    static final class EndpointStats {
+
+        private final String endpoint;
+        private final Histogram latencyMicros = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+
+        private EndpointStats(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        private void record(long latencyNanos, boolean success) {
+            latencyMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+            if (!success) {
+                errors.increment();
+            }
+        }
+
+        String endpoint() {
+            return endpoint;
+        }
+
+        Histogram latencyMicros() {
+            return latencyMicros;
+        }
+
+        long requests() {
+            return latencyMicros.getTotalCount();
+        }
+
+        long errors() {
+            return errors.sum();
+        }
+
+        double percentileMillis(double percentile) {
+            return latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.opentable.reservation.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opentable.reservation.dto.CancelReservationRequest;
+import com.opentable.reservation.dto.CreateReservationRequest;
+import com.opentable.reservation.dto.CreateReservationRequest.Diner;
+import com.opentable.reservation.dto.CreateReservationRequest.MonetaryAmount;
+import com.opentable.reservation.load.OpenLoadDriver.Call;
+import com.opentable.reservation.load.OpenLoadDriver.EndpointStats;
+import com.opentable.reservation.model.Restaurant;
+import com.opentable.reservation.model.Room;
+import com.opentable.reservation.model.TimeSlot;
+import com.opentable.reservation.repository.ReservationRepository;
+import com.opentable.reservation.repository.RestaurantRepository;
+import com.opentable.reservation.repository.RoomRepository;
+import com.opentable.reservation.testutil.TestDataBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+/**
+ * Drives a mixed read, book and cancel workload over HTTP at a fixed arrival rate and checks the
+ * p99 and p99.9 latency of each endpoint against its budget.
+ * <p>
+ * Tagged {@code load} and excluded from the default test run; run it with
+ * {@code ./mvnw -P load-test test}. The rate and duration can be changed with
+ * {@code -Dload.rate=<requests per second>} and {@code -Dload.duration=<ISO-8601 duration>}.
+ * Percentile distributions are written to {@code target/load-test/<endpoint>.hgrm}.
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@org.springframework.context.annotation.Import(com.opentable.reservation.TestContainersConfiguration.class)
+class ReservationLoadTest {
+
+    private static final String ROOM_AVAILABILITY = "room-availability";
+    private static final String RESTAURANT_AVAILABILITY = "restaurant-availability";
+    private static final String DINER_RESERVATIONS = "diner-reservations";
+    private static final String CREATE_RESERVATION = "create-reservation";
+    private static final String CANCEL_RESERVATION = "cancel-reservation";
+
+    // Sized for a developer laptop running Postgres in Docker
+    private static final Map<String, Budget> BUDGETS = Map.of(
+            ROOM_AVAILABILITY, new Budget(100, 250),
+            RESTAURANT_AVAILABILITY, new Budget(150, 300),
+            DINER_RESERVATIONS, new Budget(100, 250),
+            CREATE_RESERVATION, new Budget(200, 500),
+            CANCEL_RESERVATION, new Budget(200, 500)
+    );
+
+    // Out of every 20 arrivals: 9 room grids, 3 restaurant searches, 3 diner listings, 4 bookings, 1 cancellation
+    private static final String[] MIX = {
+            ROOM_AVAILABILITY, CREATE_RESERVATION, ROOM_AVAILABILITY, RESTAURANT_AVAILABILITY, DINER_RESERVATIONS,
+            ROOM_AVAILABILITY, CREATE_RESERVATION, ROOM_AVAILABILITY, RESTAURANT_AVAILABILITY, CANCEL_RESERVATION,
+            ROOM_AVAILABILITY, CREATE_RESERVATION, DINER_RESERVATIONS, ROOM_AVAILABILITY, RESTAURANT_AVAILABILITY,
+            ROOM_AVAILABILITY, CREATE_RESERVATION, DINER_RESERVATIONS, ROOM_AVAILABILITY, ROOM_AVAILABILITY
+    };
+    private static final int ROOMS = 10;
+    private static final int DINERS = 50;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final AtomicInteger bookings = new AtomicInteger();
+    private final Queue<UUID> cancellable = new ConcurrentLinkedQueue<>();
+
+    private Restaurant restaurant;
+    private List<Room> rooms;
+    private LocalDate firstDate;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository.deleteAllInBatch();
+        roomRepository.deleteAll();
+        restaurantRepository.deleteAll();
+
+        restaurant = restaurantRepository.save(TestDataBuilder.restaurant().name("Load Test Restaurant").build());
+        rooms = new ArrayList<>();
+        for (int i = 0; i < ROOMS; i++) {
+            rooms.add(roomRepository.save(TestDataBuilder.room()
+                    .restaurant(restaurant)
+                    .name("Load Test Room " + i)
+                    .minCapacity(2)
+                    .maxCapacity(20)
+                    .minimumSpend(new BigDecimal("500.00"), "USD")
+                    .build()));
+        }
+        firstDate = LocalDate.now().plusDays(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAllInBatch();
+        roomRepository.deleteAll();
+        restaurantRepository.deleteAll();
+    }
+
+    @Test
+    void mixedWorkload_AtTargetArrivalRate_ShouldStayWithinLatencyBudgets() throws IOException {
+        // Arrange
+        double rate = Double.parseDouble(System.getProperty("load.rate", "50"));
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+        OpenLoadDriver driver = new OpenLoadDriver(rate, Duration.ofSeconds(10), duration);
+
+        // Act
+        Map<String, EndpointStats> stats = driver.run(this::call);
+
+        // Assert
+        report(stats.values());
+        assertThat(stats.keySet()).containsExactlyInAnyOrderElementsOf(BUDGETS.keySet());
+        assertSoftly(softly -> stats.forEach((endpoint, endpointStats) -> {
+            Budget budget = BUDGETS.get(endpoint);
+            softly.assertThat(endpointStats.errors()).as("%s errors", endpoint).isZero();
+            softly.assertThat(endpointStats.percentileMillis(99.0)).as("%s p99 (ms)", endpoint).isLessThanOrEqualTo(budget.p99Millis());
+            softly.assertThat(endpointStats.percentileMillis(99.9)).as("%s p99.9 (ms)", endpoint).isLessThanOrEqualTo(budget.p999Millis());
+        }));
+    }
+
+    private Call call(int arrival) {
+        String endpoint = MIX[arrival % MIX.length];
+        Room room = rooms.get(arrival % ROOMS);
+        String diner = "diner" + arrival % DINERS + "@example.com";
+        return switch (endpoint) {
+            case ROOM_AVAILABILITY -> new Call(endpoint, () -> get("/restaurants/%s/rooms/%s/availability?startDate=%s&endDate=%s"
+                    .formatted(restaurant.getId(), room.getId(), firstDate, firstDate.plusDays(29))));
+            case RESTAURANT_AVAILABILITY -> new Call(endpoint, () -> get("/restaurants/%s/availability?startDate=%s&endDate=%s&partySize=6"
+                    .formatted(restaurant.getId(), firstDate, firstDate.plusDays(6))));
+            case DINER_RESERVATIONS -> new Call(endpoint, () -> get("/diners/%s/reservations?upcomingOnly=true".formatted(diner)));
+            case CREATE_RESERVATION -> new Call(endpoint, () -> book(diner));
+            case CANCEL_RESERVATION -> new Call(endpoint, this::cancel);
+            default -> throw new IllegalStateException("Unknown endpoint " + endpoint);
+        };
+    }
+
+    private CompletableFuture<Integer> get(String path) {
+        return httpClient.sendAsync(request(path).GET().build(), HttpResponse.BodyHandlers.discarding())
+                .thenApply(HttpResponse::statusCode);
+    }
+
+    /**
+     * Books the next free (room, slot, day); slots are handed out in order, so bookings never conflict.
+     */
+    private CompletableFuture<Integer> book(String diner) {
+        int booking = bookings.getAndIncrement();
+        Room room = rooms.get(booking % ROOMS);
+        TimeSlot timeSlot = TimeSlot.values()[booking / ROOMS % TimeSlot.values().length];
+        LocalDate date = firstDate.plusDays(booking / (ROOMS * TimeSlot.values().length));
+        CreateReservationRequest body = new CreateReservationRequest(room.getId(), date, timeSlot, 6,
+                new MonetaryAmount(new BigDecimal("1000.00"), "USD"), null, new Diner("Load Test Diner", diner, "+15550000000"));
+
+        return httpClient.sendAsync(request("/reservations").POST(json(body)).build(), HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() == 201) {
+                        cancellable.add(UUID.fromString(readTree(response.body()).path("id").asText()));
+                    }
+                    return response.statusCode();
+                });
+    }
+
+    /**
+     * Cancels the oldest booking made during the run; every booking arrival precedes a cancellation
+     * in {@link #MIX}, so one is normally waiting.
+     */
+    private CompletableFuture<Integer> cancel() {
+        UUID reservationId = cancellable.poll();
+        if (reservationId == null) {
+            // Reported as an error: the cancellation mix was not exercised
+            return CompletableFuture.completedFuture(500);
+        }
+        return httpClient.sendAsync(request("/reservations/%s/cancel".formatted(reservationId))
+                                .POST(json(new CancelReservationRequest("load-test", "Plans changed")))
+                                .build(),
+                        HttpResponse.BodyHandlers.discarding())
+                .thenApply(HttpResponse::statusCode);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:%d/api/v1%s".formatted(port, path)))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private JsonNode readTree(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void report(Iterable<EndpointStats> stats) throws IOException {
+        Path directory = Files.createDirectories(Path.of("target", "load-test"));
+        StringBuilder summary = new StringBuilder("%n%-24s %8s %7s %9s %9s %9s %9s%n"
+                .formatted("endpoint", "requests", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (EndpointStats endpointStats : stats) {
+            summary.append("%-24s %8d %7d %9.1f %9.1f %9.1f %9.1f%n".formatted(
+                    endpointStats.endpoint(),
+                    endpointStats.requests(),
+                    endpointStats.errors(),
+                    endpointStats.percentileMillis(50.0),
+                    endpointStats.percentileMillis(99.0),
+                    endpointStats.percentileMillis(99.9),
+                    endpointStats.latencyMicros().getMaxValue() / 1000.0));
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(endpointStats.endpoint() + ".hgrm")))) {
+                endpointStats.latencyMicros().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        log.info("Load test latencies:{}", summary);
+    }
+
+    private record Budget(double p99Millis, double p999Millis) {
+    }
+}
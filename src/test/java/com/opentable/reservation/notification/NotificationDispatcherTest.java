@@ -0,0 +1,155 @@
+package com.opentable.reservation.notification;
+
+import com.opentable.reservation.config.NotificationProperties;
+import com.opentable.reservation.model.TimeSlot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests size- and deadline-triggered flushing, create-then-cancel coalescing and retries of failed sends.
+ */
+@ExtendWith(MockitoExtension.class)
+class NotificationDispatcherTest {
+
+    private static final int BATCH_SIZE = 3;
+
+    @Mock
+    private NotificationSender sender;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new NotificationDispatcher(sender, Runnable::run, new NotificationProperties(BATCH_SIZE, Duration.ofSeconds(2)),
+                meterRegistry);
+    }
+
+    @Test
+    void enqueue_WhenBatchFills_ShouldSendAllPendingInOneCall() {
+        // Act
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            dispatcher.enqueue(notification(Notification.Kind.CONFIRMATION, UUID.randomUUID()));
+        }
+
+        // Assert
+        verify(sender, times(1)).send(argThat(batch -> batch.size() == BATCH_SIZE));
+        assertThat(meterRegistry.counter("notifications.sent").count()).isEqualTo(BATCH_SIZE);
+    }
+
+    @Test
+    void enqueue_BelowBatchSize_ShouldWaitForScheduledFlush() {
+        // Arrange
+        dispatcher.enqueue(notification(Notification.Kind.CONFIRMATION, UUID.randomUUID()));
+        verify(sender, never()).send(anyList());
+
+        // Act
+        dispatcher.flush();
+
+        // Assert
+        verify(sender).send(argThat(batch -> batch.size() == 1));
+    }
+
+    @Test
+    void enqueue_CancellationOfPendingConfirmation_ShouldSendOnlyTheCancellation() {
+        // Arrange
+        UUID reservationId = UUID.randomUUID();
+        UUID otherReservationId = UUID.randomUUID();
+
+        // Act
+        dispatcher.enqueue(notification(Notification.Kind.CONFIRMATION, reservationId));
+        dispatcher.enqueue(notification(Notification.Kind.CONFIRMATION, otherReservationId));
+        dispatcher.enqueue(notification(Notification.Kind.CANCELLATION, reservationId));
+        dispatcher.flush();
+
+        // Assert - the create and cancel collapse into one message, the cancellation notice
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Notification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(sender).send(captor.capture());
+        assertThat(captor.getValue())
+                .extracting(Notification::reservationId, Notification::kind)
+                .containsExactly(
+                        tuple(otherReservationId, Notification.Kind.CONFIRMATION),
+                        tuple(reservationId, Notification.Kind.CANCELLATION));
+        assertThat(meterRegistry.counter("notifications.coalesced").count()).isEqualTo(1);
+    }
+
+    @Test
+    void enqueue_CancellationAfterConfirmationWasSent_ShouldSendTheCancellation() {
+        // Arrange
+        UUID reservationId = UUID.randomUUID();
+        dispatcher.enqueue(notification(Notification.Kind.CONFIRMATION, reservationId));
+        dispatcher.flush();
+
+        // Act
+        dispatcher.enqueue(notification(Notification.Kind.CANCELLATION, reservationId));
+        dispatcher.flush();
+
+        // Assert
+        verify(sender).send(argThat(batch -> batch.size() == 1 && batch.get(0).kind() == Notification.Kind.CANCELLATION));
+        assertThat(meterRegistry.counter("notifications.coalesced").count()).isZero();
+    }
+
+    @Test
+    void flush_WhenSenderFails_ShouldRetryTheBatchWithTheNextFlush() {
+        // Arrange
+        doThrow(new IllegalStateException("Provider unavailable")).doNothing().when(sender).send(anyList());
+        UUID failedReservationId = UUID.randomUUID();
+        UUID laterReservationId = UUID.randomUUID();
+        dispatcher.enqueue(notification(Notification.Kind.CONFIRMATION, failedReservationId));
+
+        // Act
+        dispatcher.flush();
+        dispatcher.enqueue(notification(Notification.Kind.CONFIRMATION, laterReservationId));
+        dispatcher.flush();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Notification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(sender, times(2)).send(captor.capture());
+        assertThat(captor.getValue())
+                .extracting(Notification::reservationId)
+                .containsExactly(failedReservationId, laterReservationId);
+        assertThat(meterRegistry.counter("notifications.retried").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("notifications.failed").count()).isZero();
+        assertThat(meterRegistry.counter("notifications.sent").count()).isEqualTo(2);
+    }
+
+    @Test
+    void flush_WhenSenderKeepsFailing_ShouldGiveUpAfterMaxAttempts() {
+        // Arrange
+        doThrow(new IllegalStateException("Provider unavailable")).when(sender).send(anyList());
+        dispatcher.enqueue(notification(Notification.Kind.CONFIRMATION, UUID.randomUUID()));
+
+        // Act
+        for (int i = 0; i <= NotificationDispatcher.MAX_SEND_ATTEMPTS; i++) {
+            dispatcher.flush();
+        }
+
+        // Assert
+        verify(sender, times(NotificationDispatcher.MAX_SEND_ATTEMPTS)).send(anyList());
+        assertThat(meterRegistry.counter("notifications.retried").count()).isEqualTo(NotificationDispatcher.MAX_SEND_ATTEMPTS - 1);
+        assertThat(meterRegistry.counter("notifications.failed").count()).isEqualTo(1);
+    }
+
+    private Notification notification(Notification.Kind kind, UUID reservationId) {
+        return new Notification(kind, reservationId, "sam.smith@example.com", "Sam Smith", "Garden Room",
+                LocalDate.now().plusDays(7), TimeSlot.DINNER, 4);
+    }
+}
@@ -0,0 +1,116 @@
+package com.opentable.reservation.service;
+
+import com.opentable.reservation.config.AuditProperties;
+import com.opentable.reservation.model.AuditEntry;
+import com.opentable.reservation.model.TimeSlot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests that the audit writer groups queued entries into batched writes, drains on stop and counts
+ * entries the database skipped as already recorded.
+ */
+@ExtendWith(MockitoExtension.class)
+class AuditLogWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Integer> batchSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            synchronized (batchSizes) {
+                batchSizes.add(rows.size());
+            }
+            int[] counts = new int[rows.size()];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+    }
+
+    @Test
+    void append_ShouldGroupEntriesIntoBatchesAndDrainOnStop() {
+        // Arrange - a long commit interval so entries can only leave in full batches or on stop
+        AuditLogWriter writer = writer(4, Duration.ofSeconds(10));
+        writer.start();
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            writer.append(entry());
+        }
+        writer.stop();
+
+        // Assert
+        assertThat(batchSizes).allSatisfy(size -> assertThat(size).isLessThanOrEqualTo(4));
+        assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(10);
+        assertThat(batchSizes.size()).isLessThan(10);
+        assertThat(meterRegistry.counter("audit.entries.written").count()).isEqualTo(10);
+    }
+
+    @Test
+    void append_WhenEntryAlreadyRecorded_ShouldCountItAsDuplicate() {
+        // Arrange - the insert skips the row on the unique key
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{0});
+        AuditLogWriter writer = writer(4, Duration.ofMillis(10));
+
+        // Act - not started, so the entry is written through on the calling thread
+        writer.append(entry());
+
+        // Assert
+        assertThat(meterRegistry.counter("audit.entries.written").count()).isZero();
+        assertThat(meterRegistry.counter("audit.entries.duplicate").count()).isEqualTo(1);
+    }
+
+    @Test
+    void append_WhenDatabaseKeepsFailing_ShouldCountEntriesAsFailedAndThrow() {
+        // Arrange
+        doThrow(new IllegalStateException("Database unavailable")).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+        AuditLogWriter writer = writer(4, Duration.ofMillis(10));
+
+        // Act & Assert - not started, so the entry is written through on the calling thread
+        assertThatThrownBy(() -> writer.append(entry()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Database unavailable");
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), anyList());
+        assertThat(meterRegistry.counter("audit.entries.failed").count()).isEqualTo(1);
+    }
+
+    private AuditLogWriter writer(int batchSize, Duration commitInterval) {
+        return new AuditLogWriter(jdbcTemplate, TransactionOperations.withoutTransaction(),
+                new AuditProperties(100, batchSize, commitInterval), meterRegistry);
+    }
+
+    private AuditEntry entry() {
+        AuditEntry entry = new AuditEntry();
+        entry.setAction(AuditEntry.Action.RESERVATION_CREATED);
+        entry.setReservationId(UUID.randomUUID());
+        entry.setRestaurantId(UUID.randomUUID());
+        entry.setRoomId(UUID.randomUUID());
+        entry.setReservationDate(LocalDate.now());
+        entry.setTimeSlot(TimeSlot.DINNER);
+        return entry;
+    }
+}
@@ -1,15 +1,14 @@
 package com.opentable.reservation.service;
 
 import com.opentable.reservation.dto.AvailabilityResponse;
-import com.opentable.reservation.model.Reservation;
+import com.opentable.reservation.exception.BusinessException;
 import com.opentable.reservation.model.ReservationStatus;
 import com.opentable.reservation.model.TimeSlot;
+import com.opentable.reservation.repository.BookedSlot;
 import com.opentable.reservation.repository.ReservationRepository;
-import com.opentable.reservation.testutil.TestDataBuilder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -19,16 +18,22 @@ import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class AvailabilityServiceTest {
 
+    private static final List<ReservationStatus> ACTIVE = List.of(ReservationStatus.PENDING, ReservationStatus.CONFIRMED);
+
     @Mock
     private ReservationRepository reservationRepository;
 
-    @InjectMocks
+    private RoomSlotIndex roomSlotIndex;
+
+    private AvailabilityIndex availabilityIndex;
+
     private AvailabilityService availabilityService;
 
     private UUID roomId;
@@ -36,6 +41,9 @@ class AvailabilityServiceTest {
 
     @BeforeEach
     void setUp() {
+        roomSlotIndex = new RoomSlotIndex(reservationRepository);
+        availabilityIndex = new AvailabilityIndex(roomSlotIndex);
+        availabilityService = new AvailabilityService(availabilityIndex);
         roomId = UUID.randomUUID();
         testDate = LocalDate.now().plusDays(7);
     }
@@ -43,9 +51,7 @@ class AvailabilityServiceTest {
     @Test
     void isSlotAvailable_WhenNoReservations_ShouldReturnTrue() {
         // Arrange
-        when(reservationRepository.existsByRoomIdAndReservationDateAndTimeSlotAndStatusIn(
-                eq(roomId), eq(testDate), eq(TimeSlot.DINNER), anyList()
-        )).thenReturn(false);
+        when(reservationRepository.findActiveSlots(eq(roomId), any(), any(), eq(ACTIVE))).thenReturn(List.of());
 
         // Act
         boolean available = availabilityService.isSlotAvailable(roomId, testDate, TimeSlot.DINNER);
@@ -57,9 +63,8 @@ class AvailabilityServiceTest {
     @Test
     void isSlotAvailable_WhenSlotBooked_ShouldReturnFalse() {
         // Arrange
-        when(reservationRepository.existsByRoomIdAndReservationDateAndTimeSlotAndStatusIn(
-                eq(roomId), eq(testDate), eq(TimeSlot.DINNER), anyList()
-        )).thenReturn(true);
+        when(reservationRepository.findActiveSlots(eq(roomId), any(), any(), eq(ACTIVE)))
+                .thenReturn(List.of(new BookedSlot(roomId, testDate, TimeSlot.DINNER)));
 
         // Act
         boolean available = availabilityService.isSlotAvailable(roomId, testDate, TimeSlot.DINNER);
@@ -74,8 +79,7 @@ class AvailabilityServiceTest {
         LocalDate startDate = testDate;
         LocalDate endDate = testDate.plusDays(2);
 
-        when(reservationRepository.findByRoomIdAndReservationDateBetween(roomId, startDate, endDate))
-                .thenReturn(List.of());
+        when(reservationRepository.findActiveSlots(eq(roomId), any(), any(), eq(ACTIVE))).thenReturn(List.of());
 
         // Act
         AvailabilityResponse response = availabilityService.getAvailability(roomId, startDate, endDate);
@@ -100,20 +104,12 @@ class AvailabilityServiceTest {
         LocalDate startDate = testDate;
         LocalDate endDate = testDate.plusDays(2);
 
-        Reservation reservation1 = TestDataBuilder.reservation()
-                .reservationDate(testDate)
-                .timeSlot(TimeSlot.DINNER)
-                .status(ReservationStatus.CONFIRMED)
-                .build();
-
-        Reservation reservation2 = TestDataBuilder.reservation()
-                .reservationDate(testDate.plusDays(1))
-                .timeSlot(TimeSlot.LUNCH)
-                .status(ReservationStatus.PENDING)
-                .build();
+        BookedSlot slot1 = new BookedSlot(roomId, testDate, TimeSlot.DINNER);
+        BookedSlot slot2 = new BookedSlot(roomId, testDate.plusDays(1), TimeSlot.LUNCH);
+        // A booking outside the window must not leak into it
+        BookedSlot slot3 = new BookedSlot(roomId, testDate.plusDays(40), TimeSlot.BREAKFAST);
 
-        when(reservationRepository.findByRoomIdAndReservationDateBetween(roomId, startDate, endDate))
-                .thenReturn(Arrays.asList(reservation1, reservation2));
+        when(reservationRepository.findActiveSlots(eq(roomId), any(), any(), eq(ACTIVE))).thenReturn(Arrays.asList(slot1, slot2, slot3));
 
         // Act
         AvailabilityResponse response = availabilityService.getAvailability(roomId, startDate, endDate);
@@ -139,6 +135,8 @@ class AvailabilityServiceTest {
                 .findFirst()
                 .orElseThrow();
         assertThat(lunchSlot.available()).isFalse();
+
+        assertThat(response.days().get(2).slots()).allMatch(slot -> slot.available());
     }
 
     @Test
@@ -147,14 +145,8 @@ class AvailabilityServiceTest {
         LocalDate startDate = testDate;
         LocalDate endDate = testDate;
 
-        Reservation cancelledReservation = TestDataBuilder.reservation()
-                .reservationDate(testDate)
-                .timeSlot(TimeSlot.DINNER)
-                .status(ReservationStatus.CANCELLED)
-                .build();
-
-        when(reservationRepository.findByRoomIdAndReservationDateBetween(roomId, startDate, endDate))
-                .thenReturn(List.of(cancelledReservation));
+        // Cancelled reservations are filtered out in the query, so none come back
+        when(reservationRepository.findActiveSlots(eq(roomId), any(), any(), anyList())).thenReturn(List.of());
 
         // Act
         AvailabilityResponse response = availabilityService.getAvailability(roomId, startDate, endDate);
@@ -168,5 +160,132 @@ class AvailabilityServiceTest {
 
         // Cancelled reservations don't block availability
         assertThat(dinnerSlot.available()).isTrue();
+        verify(reservationRepository).findActiveSlots(eq(roomId), any(), any(), eq(ACTIVE));
+    }
+
+    @Test
+    void getAvailability_WithRangeBeyondLimit_ShouldBeRejectedWithoutLoading() {
+        // Act & Assert
+        assertThatThrownBy(() -> availabilityService.getAvailability(roomId, testDate,
+                testDate.plusDays(AvailabilityService.MAX_AVAILABILITY_DAYS)))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Availability range must not exceed 366 days");
+        assertThatThrownBy(() -> availabilityService.getAvailability(roomId, testDate, testDate.plusYears(10_000)))
+                .isInstanceOf(BusinessException.class);
+        verifyNoInteractions(reservationRepository);
+    }
+
+    @Test
+    void getAvailability_WithEndBeforeStart_ShouldBeRejected() {
+        // Act & Assert
+        assertThatThrownBy(() -> availabilityService.getAvailability(roomId, testDate, testDate.minusDays(1)))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("End date must not be before start date");
+    }
+
+    @Test
+    void isSlotAvailable_WhenBookingCommitsDuringRoomRead_ShouldReadRoomAgain() {
+        // Arrange - the first read runs before the booking commits and so misses it
+        when(reservationRepository.findActiveSlots(eq(roomId), any(), any(), eq(ACTIVE)))
+                .thenAnswer(invocation -> {
+                    roomSlotIndex.markBooked(roomId, testDate, TimeSlot.DINNER);
+                    return List.of();
+                })
+                .thenReturn(List.of(new BookedSlot(roomId, testDate, TimeSlot.DINNER)));
+        roomSlotIndex.dayMasks(roomId, testDate, testDate);
+
+        // Act
+        boolean available = availabilityService.isSlotAvailable(roomId, testDate, TimeSlot.DINNER);
+
+        // Assert
+        assertThat(available).isFalse();
+        verify(reservationRepository, times(2)).findActiveSlots(eq(roomId), any(), any(), eq(ACTIVE));
+    }
+
+    @Test
+    void getAvailability_WithOverlappingWindows_ShouldReadRoomOnce() {
+        // Arrange
+        LocalDate monday = testDate;
+        LocalDate sunday = testDate.plusDays(6);
+        LocalDate nextMonday = testDate.plusDays(7);
+
+        when(reservationRepository.findActiveSlots(eq(roomId), any(), any(), eq(ACTIVE)))
+                .thenReturn(List.of(new BookedSlot(roomId, nextMonday, TimeSlot.DINNER)));
+
+        // Act
+        availabilityService.getAvailability(roomId, monday, sunday);
+        AvailabilityResponse response = availabilityService.getAvailability(roomId, monday.plusDays(1), nextMonday);
+
+        // Assert - both windows are read from the resident room bitmap
+        assertThat(response.days()).hasSize(7);
+        assertThat(response.days().get(6).slots().get(TimeSlot.DINNER.ordinal()).available()).isFalse();
+        verify(reservationRepository, times(1)).findActiveSlots(eq(roomId), any(), any(), eq(ACTIVE));
+        verifyNoMoreInteractions(reservationRepository);
+    }
+
+    @Test
+    void isSlotAvailable_AfterCommittedBookingAndCancellation_ShouldReflectThemWithoutReadingDatabase() {
+        // Arrange
+        when(reservationRepository.findActiveSlots(eq(roomId), any(), any(), eq(ACTIVE))).thenReturn(List.of());
+
+        // Act
+        boolean availableBefore = availabilityService.isSlotAvailable(roomId, testDate, TimeSlot.LUNCH);
+        availabilityIndex.markBooked(roomId, testDate, TimeSlot.LUNCH);
+        boolean availableAfterBooking = availabilityService.isSlotAvailable(roomId, testDate, TimeSlot.LUNCH);
+        availabilityIndex.markReleased(roomId, testDate, TimeSlot.LUNCH);
+        boolean availableAfterCancellation = availabilityService.isSlotAvailable(roomId, testDate, TimeSlot.LUNCH);
+
+        // Assert
+        assertThat(availableBefore).isTrue();
+        assertThat(availableAfterBooking).isFalse();
+        assertThat(availableAfterCancellation).isTrue();
+        verify(reservationRepository, times(1)).findActiveSlots(eq(roomId), any(), any(), eq(ACTIVE));
+    }
+
+    @Test
+    void refresh_ShouldPickUpBookingsMadeByOtherInstances() {
+        // Arrange
+        when(reservationRepository.findActiveSlots(eq(roomId), any(), any(), eq(ACTIVE)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(new BookedSlot(roomId, testDate, TimeSlot.LUNCH)));
+        availabilityService.isSlotAvailable(roomId, testDate, TimeSlot.LUNCH);
+
+        // Act
+        roomSlotIndex.refresh();
+        boolean available = availabilityService.isSlotAvailable(roomId, testDate, TimeSlot.LUNCH);
+
+        // Assert
+        assertThat(available).isFalse();
+        verify(reservationRepository, times(2)).findActiveSlots(eq(roomId), any(), any(), eq(ACTIVE));
+    }
+
+    @Test
+    void isSlotAvailable_ShouldKeepOnlyTheBookableWindowResident() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        when(reservationRepository.findActiveSlots(eq(roomId), any(), any(), eq(ACTIVE))).thenReturn(List.of());
+
+        // Act
+        availabilityService.isSlotAvailable(roomId, testDate, TimeSlot.DINNER);
+
+        // Assert
+        verify(reservationRepository).findActiveSlots(roomId, today.minusDays(1),
+                today.plusDays(AvailabilityService.MAX_AVAILABILITY_DAYS), ACTIVE);
+    }
+
+    @Test
+    void isSlotAvailable_BeyondTheResidentWindow_ShouldReadThatDayFromDatabase() {
+        // Arrange
+        LocalDate farDate = LocalDate.now().plusDays(AvailabilityService.MAX_AVAILABILITY_DAYS + 30);
+        when(reservationRepository.findActiveSlots(eq(roomId), any(), any(), eq(ACTIVE))).thenReturn(List.of());
+        when(reservationRepository.findActiveSlots(roomId, farDate, farDate, ACTIVE))
+                .thenReturn(List.of(new BookedSlot(roomId, farDate, TimeSlot.DINNER)));
+
+        // Act
+        boolean available = availabilityService.isSlotAvailable(roomId, farDate, TimeSlot.DINNER);
+
+        // Assert
+        assertThat(available).isFalse();
+        verify(reservationRepository).findActiveSlots(roomId, farDate, farDate, ACTIVE);
     }
 }
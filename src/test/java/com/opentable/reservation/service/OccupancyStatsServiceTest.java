@@ -0,0 +1,198 @@
+package com.opentable.reservation.service;
+
+import com.opentable.reservation.dto.OccupancyStatsResponse;
+import com.opentable.reservation.dto.OccupancyStatsResponse.RoomOccupancy;
+import com.opentable.reservation.event.ReservationCancelledEvent;
+import com.opentable.reservation.event.ReservationCreatedEvent;
+import com.opentable.reservation.model.Restaurant;
+import com.opentable.reservation.model.Room;
+import com.opentable.reservation.model.TimeSlot;
+import com.opentable.reservation.repository.BookedSlot;
+import com.opentable.reservation.repository.ReservationRepository;
+import com.opentable.reservation.repository.RoomReservationTotals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OccupancyStatsServiceTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private RoomService roomService;
+
+    @InjectMocks
+    private OccupancyStatsService occupancyStatsService;
+
+    private Restaurant restaurant;
+    private Room room;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        restaurant = Restaurant.builder().id(UUID.randomUUID()).name("Test Restaurant").build();
+        room = Room.builder().id(UUID.randomUUID()).name("Private Room").restaurant(restaurant).build();
+        today = LocalDate.now();
+        when(roomService.findByRestaurant(restaurant)).thenReturn(List.of(room));
+    }
+
+    @Test
+    void getStats_AfterBootstrap_ShouldReportUtilisationPerWindow() {
+        // Arrange
+        RoomReservationTotals totals = mock(RoomReservationTotals.class);
+        when(totals.getRoomId()).thenReturn(room.getId());
+        when(totals.getReservations()).thenReturn(10L);
+        when(totals.getCancellations()).thenReturn(2L);
+        when(totals.getLeadDays()).thenReturn(45L);
+        when(reservationRepository.summarizeByRoom()).thenReturn(List.of(totals));
+        when(reservationRepository.findBookedSlotsBetween(any(), any(), any())).thenReturn(List.of(
+                booked(today.plusDays(1), TimeSlot.LUNCH),
+                booked(today.plusDays(1), TimeSlot.DINNER),
+                booked(today.plusDays(10), TimeSlot.DINNER),
+                booked(today.plusDays(60), TimeSlot.DINNER)
+        ));
+        occupancyStatsService.afterSingletonsInstantiated();
+
+        // Act
+        OccupancyStatsResponse stats = occupancyStatsService.getStats(restaurant);
+
+        // Assert
+        assertThat(stats.restaurantId()).isEqualTo(restaurant.getId());
+        RoomOccupancy occupancy = stats.rooms().get(0);
+        assertThat(occupancy.utilisationNext7Days()).isCloseTo(2.0 / 28, within(1e-9));
+        assertThat(occupancy.utilisationNext30Days()).isCloseTo(3.0 / 120, within(1e-9));
+        assertThat(occupancy.utilisationNext90Days()).isCloseTo(4.0 / 360, within(1e-9));
+        assertThat(occupancy.reservations()).isEqualTo(10);
+        assertThat(occupancy.cancellationRate()).isCloseTo(0.2, within(1e-9));
+        assertThat(occupancy.averageLeadTimeDays()).isCloseTo(4.5, within(1e-9));
+    }
+
+    @Test
+    void events_AfterBootstrap_ShouldUpdateStatsIncrementally() {
+        // Arrange
+        bootstrapEmpty();
+        LocalDate reservationDate = today.plusDays(3);
+
+        // Act
+        occupancyStatsService.onReservationCreated(created(reservationDate));
+        RoomOccupancy afterCreate = occupancyStatsService.getStats(restaurant).rooms().get(0);
+        occupancyStatsService.onReservationCancelled(cancelled(reservationDate));
+        RoomOccupancy afterCancel = occupancyStatsService.getStats(restaurant).rooms().get(0);
+
+        // Assert
+        assertThat(afterCreate.utilisationNext7Days()).isCloseTo(1.0 / 28, within(1e-9));
+        assertThat(afterCreate.averageLeadTimeDays()).isCloseTo(3.0, within(1e-9));
+        assertThat(afterCancel.utilisationNext7Days()).isZero();
+        assertThat(afterCancel.reservations()).isEqualTo(1);
+        assertThat(afterCancel.cancellations()).isEqualTo(1);
+        assertThat(afterCancel.cancellationRate()).isCloseTo(1.0, within(1e-9));
+    }
+
+    @Test
+    void onReservationCreated_BeyondHorizon_ShouldNotOverwriteTrackedDay() {
+        // Arrange
+        bootstrapEmpty();
+        occupancyStatsService.onReservationCreated(created(today.plusDays(2)));
+
+        // Act: this date maps onto the same ring element as today + 2
+        occupancyStatsService.onReservationCreated(created(today.plusDays(2 + OccupancyStatsService.HORIZON_DAYS)));
+
+        // Assert
+        RoomOccupancy occupancy = occupancyStatsService.getStats(restaurant).rooms().get(0);
+        assertThat(occupancy.utilisationNext7Days()).isCloseTo(1.0 / 28, within(1e-9));
+        assertThat(occupancy.reservations()).isEqualTo(2);
+    }
+
+    @Test
+    void reseedHorizon_ShouldReloadBookedSlotsAndKeepLifetimeTotals() {
+        // Arrange - another instance relayed a booking this instance never saw
+        bootstrapEmpty();
+        occupancyStatsService.onReservationCreated(created(today.plusDays(3)));
+        when(reservationRepository.findBookedSlotsBetween(any(), any(), any())).thenReturn(List.of(
+                booked(today.plusDays(3), TimeSlot.DINNER),
+                booked(today.plusDays(5), TimeSlot.LUNCH)
+        ));
+
+        // Act
+        occupancyStatsService.reseedHorizon();
+
+        // Assert - the whole-history aggregate only ran at startup
+        RoomOccupancy occupancy = occupancyStatsService.getStats(restaurant).rooms().get(0);
+        assertThat(occupancy.utilisationNext7Days()).isCloseTo(2.0 / 28, within(1e-9));
+        assertThat(occupancy.reservations()).isEqualTo(1);
+        assertThat(occupancy.averageLeadTimeDays()).isCloseTo(3.0, within(1e-9));
+        verify(reservationRepository, times(1)).summarizeByRoom();
+    }
+
+    @Test
+    void events_WhenDeliveredAgain_ShouldBeCountedOnce() {
+        // Arrange
+        bootstrapEmpty();
+        ReservationCreatedEvent creation = created(today.plusDays(3));
+        ReservationCancelledEvent cancellation = cancelled(today.plusDays(3));
+
+        // Act
+        occupancyStatsService.onReservationCreated(creation);
+        occupancyStatsService.onReservationCreated(creation);
+        occupancyStatsService.onReservationCancelled(cancellation);
+        occupancyStatsService.onReservationCancelled(cancellation);
+
+        // Assert
+        RoomOccupancy occupancy = occupancyStatsService.getStats(restaurant).rooms().get(0);
+        assertThat(occupancy.reservations()).isEqualTo(1);
+        assertThat(occupancy.cancellations()).isEqualTo(1);
+        assertThat(occupancy.averageLeadTimeDays()).isCloseTo(3.0, within(1e-9));
+    }
+
+    @Test
+    void getStats_ForRoomWithoutReservations_ShouldReturnZeroes() {
+        // Arrange
+        bootstrapEmpty();
+
+        // Act
+        RoomOccupancy occupancy = occupancyStatsService.getStats(restaurant).rooms().get(0);
+
+        // Assert
+        assertThat(occupancy.roomName()).isEqualTo("Private Room");
+        assertThat(occupancy.utilisationNext90Days()).isZero();
+        assertThat(occupancy.cancellationRate()).isZero();
+    }
+
+    private void bootstrapEmpty() {
+        when(reservationRepository.summarizeByRoom()).thenReturn(List.of());
+        when(reservationRepository.findBookedSlotsBetween(any(), any(), any())).thenReturn(List.of());
+        occupancyStatsService.afterSingletonsInstantiated();
+    }
+
+    private BookedSlot booked(LocalDate date, TimeSlot timeSlot) {
+        return new BookedSlot(room.getId(), date, timeSlot);
+    }
+
+    private ReservationCreatedEvent created(LocalDate reservationDate) {
+        return new ReservationCreatedEvent(UUID.randomUUID(), restaurant.getId(), room.getId(), room.getName(),
+                reservationDate, TimeSlot.DINNER, 8, "John Doe", "john@example.com", null, null, OffsetDateTime.now());
+    }
+
+    private ReservationCancelledEvent cancelled(LocalDate reservationDate) {
+        return new ReservationCancelledEvent(UUID.randomUUID(), restaurant.getId(), room.getId(), room.getName(),
+                reservationDate, TimeSlot.DINNER, "John Doe", "john@example.com", "DINER", null, OffsetDateTime.now());
+    }
+}
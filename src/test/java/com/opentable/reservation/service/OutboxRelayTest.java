@@ -0,0 +1,206 @@
+package com.opentable.reservation.service;
+
+import com.opentable.reservation.config.NotificationProperties;
+import com.opentable.reservation.config.OutboxProperties;
+import com.opentable.reservation.model.OutboxEvent;
+import com.opentable.reservation.model.TimeSlot;
+import com.opentable.reservation.notification.Notification;
+import com.opentable.reservation.notification.NotificationDispatcher;
+import com.opentable.reservation.notification.NotificationSender;
+import com.opentable.reservation.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests batch delivery, acknowledgement tracking, retry bookkeeping and the drain loop of the outbox relay.
+ */
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private static final int BATCH_SIZE = 2;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private ReservationOutbox reservationOutbox;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay = relay(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void relay_ShouldDeliverEventsAndKeepDrainingWhileBatchesAreFull() {
+        // Arrange
+        OutboxEvent first = outboxEvent(1L);
+        OutboxEvent second = outboxEvent(2L);
+        OutboxEvent third = outboxEvent(3L);
+        when(outboxEventRepository.lockPendingBatch(MAX_ATTEMPTS, BATCH_SIZE))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+        when(reservationOutbox.read(any(OutboxEvent.class))).thenAnswer(invocation -> "event-" + ((OutboxEvent) invocation.getArgument(0)).getId());
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        verify(outboxEventRepository, times(2)).lockPendingBatch(MAX_ATTEMPTS, BATCH_SIZE);
+        var inOrder = inOrder(eventPublisher);
+        inOrder.verify(eventPublisher).publishEvent((Object) "event-1");
+        inOrder.verify(eventPublisher).publishEvent((Object) "event-2");
+        inOrder.verify(eventPublisher).publishEvent((Object) "event-3");
+        assertThat(List.of(first, second, third)).allSatisfy(event -> assertThat(event.getPublishedAt()).isNotNull());
+    }
+
+    @Test
+    void relay_WhenDeliveryFails_ShouldRecordAttemptAndLeaveEventPending() {
+        // Arrange
+        OutboxEvent failing = outboxEvent(1L);
+        OutboxEvent healthy = outboxEvent(2L);
+        when(outboxEventRepository.lockPendingBatch(MAX_ATTEMPTS, BATCH_SIZE)).thenReturn(List.of(failing, healthy));
+        when(reservationOutbox.read(failing)).thenThrow(new IllegalStateException("Unreadable payload"));
+        when(reservationOutbox.read(healthy)).thenReturn("event-2");
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert - the failed event is retried on a later poll, not in a tight loop
+        verify(outboxEventRepository, times(1)).lockPendingBatch(MAX_ATTEMPTS, BATCH_SIZE);
+        assertThat(failing.getPublishedAt()).isNull();
+        assertThat(failing.getAttempts()).isEqualTo(1);
+        assertThat(failing.getLastError()).contains("Unreadable payload");
+        assertThat(healthy.getPublishedAt()).isNotNull();
+        verify(eventPublisher).publishEvent((Object) "event-2");
+    }
+
+    @Test
+    void relay_WhenListenerDefersAcknowledgement_ShouldMarkPublishedOnlyAfterItIsDone() {
+        // Arrange - the listener hands its work to another thread, like an @Async listener
+        OutboxEvent outboxEvent = outboxEvent(1L);
+        AtomicBoolean handled = new AtomicBoolean();
+        when(outboxEventRepository.lockPendingBatch(MAX_ATTEMPTS, BATCH_SIZE)).thenReturn(List.of(outboxEvent));
+        when(reservationOutbox.read(outboxEvent)).thenReturn("event-1");
+        doAnswer(invocation -> {
+            OutboxDelivery.Acknowledgement acknowledgement = OutboxDelivery.defer();
+            CompletableFuture.runAsync(() -> {
+                handled.set(true);
+                acknowledgement.done();
+            }, CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS));
+            return null;
+        }).when(eventPublisher).publishEvent((Object) "event-1");
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        assertThat(handled).isTrue();
+        assertThat(outboxEvent.getPublishedAt()).isNotNull();
+    }
+
+    @Test
+    void relay_WhenDeferredWorkFails_ShouldRecordAttemptAndLeaveEventPending() {
+        // Arrange
+        OutboxEvent outboxEvent = outboxEvent(1L);
+        when(outboxEventRepository.lockPendingBatch(MAX_ATTEMPTS, BATCH_SIZE)).thenReturn(List.of(outboxEvent));
+        when(reservationOutbox.read(outboxEvent)).thenReturn("event-1");
+        doAnswer(invocation -> {
+            OutboxDelivery.Acknowledgement acknowledgement = OutboxDelivery.defer();
+            CompletableFuture.runAsync(() -> acknowledgement.failed(new IllegalStateException("Provider unavailable")));
+            return null;
+        }).when(eventPublisher).publishEvent((Object) "event-1");
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        assertThat(outboxEvent.getPublishedAt()).isNull();
+        assertThat(outboxEvent.getAttempts()).isEqualTo(1);
+        assertThat(outboxEvent.getLastError()).contains("Provider unavailable");
+    }
+
+    @Test
+    void relay_WhenListenerNeverFinishes_ShouldRecordTimeoutAsFailedAttempt() {
+        // Arrange - e.g. a task dropped by a saturated executor
+        OutboxRelay impatientRelay = relay(Duration.ofMillis(100));
+        OutboxEvent outboxEvent = outboxEvent(1L);
+        when(outboxEventRepository.lockPendingBatch(MAX_ATTEMPTS, BATCH_SIZE)).thenReturn(List.of(outboxEvent));
+        when(reservationOutbox.read(outboxEvent)).thenReturn("event-1");
+        doAnswer(invocation -> {
+            OutboxDelivery.defer();
+            return null;
+        }).when(eventPublisher).publishEvent((Object) "event-1");
+
+        // Act
+        impatientRelay.relay();
+
+        // Assert
+        assertThat(outboxEvent.getPublishedAt()).isNull();
+        assertThat(outboxEvent.getAttempts()).isEqualTo(1);
+        assertThat(outboxEvent.getLastError()).contains("did not finish");
+    }
+
+    @Test
+    void relay_WhenNotificationSendFails_ShouldStillMarkEventPublishedAndLeaveRetryToTheDispatcher() {
+        // Arrange
+        NotificationSender sender = mock(NotificationSender.class);
+        doThrow(new IllegalStateException("Provider unavailable")).doNothing().when(sender).send(anyList());
+        NotificationDispatcher dispatcher = new NotificationDispatcher(sender, Runnable::run,
+                new NotificationProperties(1, Duration.ofSeconds(2)), new SimpleMeterRegistry());
+        OutboxEvent outboxEvent = outboxEvent(1L);
+        when(outboxEventRepository.lockPendingBatch(MAX_ATTEMPTS, BATCH_SIZE)).thenReturn(List.of(outboxEvent));
+        when(reservationOutbox.read(outboxEvent)).thenReturn("event-1");
+        doAnswer(invocation -> {
+            dispatcher.enqueue(new Notification(Notification.Kind.CONFIRMATION, UUID.randomUUID(), "sam.smith@example.com",
+                    "Sam Smith", "Garden Room", LocalDate.now().plusDays(7), TimeSlot.DINNER, 4));
+            return null;
+        }).when(eventPublisher).publishEvent((Object) "event-1");
+
+        // Act
+        outboxRelay.relay();
+        dispatcher.flush();
+
+        // Assert - the event is not redelivered, so the diner gets exactly one email
+        assertThat(outboxEvent.getPublishedAt()).isNotNull();
+        assertThat(outboxEvent.getAttempts()).isZero();
+        verify(sender, times(2)).send(anyList());
+    }
+
+    private OutboxRelay relay(Duration deliveryTimeout) {
+        OutboxProperties properties = new OutboxProperties(Duration.ofMillis(500), BATCH_SIZE, MAX_ATTEMPTS, Duration.ofDays(7), deliveryTimeout);
+        return new OutboxRelay(outboxEventRepository, reservationOutbox, eventPublisher,
+                TransactionOperations.withoutTransaction(), properties);
+    }
+
+    private OutboxEvent outboxEvent(long id) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setId(id);
+        outboxEvent.setEventType("ReservationCreatedEvent");
+        outboxEvent.setPayload("{}");
+        return outboxEvent;
+    }
+}
@@ -1,14 +1,24 @@
 package com.opentable.reservation.service;
 
+import com.opentable.reservation.dto.BatchReservationResponse;
+import com.opentable.reservation.dto.BatchReservationResponse.Outcome;
 import com.opentable.reservation.dto.CreateReservationRequest;
 import com.opentable.reservation.dto.CreateReservationRequest.Diner;
 import com.opentable.reservation.dto.CreateReservationRequest.MonetaryAmount;
+import com.opentable.reservation.dto.ReservationPageResponse;
 import com.opentable.reservation.dto.ReservationResponse;
+import com.opentable.reservation.event.ReservationCancelledEvent;
+import com.opentable.reservation.event.ReservationCreatedEvent;
 import com.opentable.reservation.exception.BusinessException;
 import com.opentable.reservation.exception.NotFoundException;
+import com.opentable.reservation.exception.RoomAlreadyBookedException;
 import com.opentable.reservation.model.*;
+import com.opentable.reservation.repository.ArchivedReservationRepository;
+import com.opentable.reservation.repository.BookedSlot;
 import com.opentable.reservation.repository.ReservationRepository;
+import com.opentable.reservation.repository.RestaurantRepository;
 import com.opentable.reservation.repository.RoomRepository;
+import com.opentable.reservation.repository.RoomRules;
 import com.opentable.reservation.testutil.TestDataBuilder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,20 +26,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -41,6 +53,12 @@ class ReservationServiceTest {
     @Mock
     private RoomRepository roomRepository;
 
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @Mock
+    private RoomRulesCatalog roomRulesCatalog;
+
     @Mock
     private AvailabilityService availabilityService;
 
@@ -48,7 +66,19 @@ class ReservationServiceTest {
     private ReservationRepository reservationRepository;
 
     @Mock
-    private ApplicationEventPublisher eventPublisher;
+    private ArchivedReservationRepository archivedReservationRepository;
+
+    @Mock
+    private ReservationOutbox reservationOutbox;
+
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+
+    @Spy
+    private SlotClaimTable slotClaimTable = new SlotClaimTable();
+
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
 
     @InjectMocks
     private ReservationService reservationService;
@@ -85,7 +115,9 @@ class ReservationServiceTest {
     @Test
     void createReservation_WithValidRequest_ShouldSucceed() {
         // Arrange
-        when(roomRepository.findById(room.getId())).thenReturn(Optional.of(room));
+        when(roomRulesCatalog.find(room.getId())).thenReturn(Optional.of(RoomRules.from(room)));
+        when(roomRepository.getReferenceById(room.getId())).thenReturn(room);
+        when(restaurantRepository.getReferenceById(restaurant.getId())).thenReturn(restaurant);
 
         Reservation savedReservation = TestDataBuilder.reservation()
                 .room(room)
@@ -104,15 +136,19 @@ class ReservationServiceTest {
         assertThat(response.status()).isEqualTo(ReservationStatus.CONFIRMED);
 
         // Verify interactions
-        verify(roomRepository).findById(room.getId());
+        verify(roomRulesCatalog).find(room.getId());
+        verify(roomRepository, never()).findById(any());
         verify(reservationRepository).save(any(Reservation.class));
-        verify(eventPublisher).publishEvent(any(Object.class)); // Event published
+        verify(reservationOutbox).append(any(ReservationCreatedEvent.class)); // Event recorded in the outbox
+        verify(availabilityIndex).markBooked(room.getId(), savedReservation.getReservationDate(), savedReservation.getTimeSlot());
     }
 
     @Test
     void createReservation_ShouldSaveWithCorrectData() {
         // Arrange
-        when(roomRepository.findById(room.getId())).thenReturn(Optional.of(room));
+        when(roomRulesCatalog.find(room.getId())).thenReturn(Optional.of(RoomRules.from(room)));
+        when(roomRepository.getReferenceById(room.getId())).thenReturn(room);
+        when(restaurantRepository.getReferenceById(restaurant.getId())).thenReturn(restaurant);
         when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
@@ -135,10 +171,53 @@ class ReservationServiceTest {
         assertThat(saved.getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
     }
 
+    @Test
+    void createReservation_WhenSlotClaimedByInFlightBooking_ShouldFailWithoutTouchingDatabase() {
+        // Arrange
+        when(roomRulesCatalog.find(room.getId())).thenReturn(Optional.of(RoomRules.from(room)));
+        var inFlight = slotClaimTable.tryClaim(room.getId(), validRequest.reservationDate(), validRequest.timeSlot());
+        assertThat(inFlight).isPresent();
+
+        // Act & Assert
+        assertThatThrownBy(() -> reservationService.createReservation(validRequest))
+                .isInstanceOf(RoomAlreadyBookedException.class);
+
+        verifyNoInteractions(roomRepository, reservationRepository, reservationOutbox);
+    }
+
+    @Test
+    void createReservation_BreakingRuleWhileSlotIsClaimed_ShouldReportTheRuleNotAConflict() {
+        // Arrange - a valid booking of the same slot is in flight
+        room.setActive(false);
+        when(roomRulesCatalog.find(room.getId())).thenReturn(Optional.of(RoomRules.from(room)));
+        var inFlight = slotClaimTable.tryClaim(room.getId(), validRequest.reservationDate(), validRequest.timeSlot());
+        assertThat(inFlight).isPresent();
+
+        // Act & Assert
+        assertThatThrownBy(() -> reservationService.createReservation(validRequest))
+                .isInstanceOf(BusinessException.class)
+                .isNotInstanceOf(RoomAlreadyBookedException.class);
+        assertThat(slotClaimTable.size()).isEqualTo(1);
+    }
+
+    @Test
+    void createReservation_WhenValidationFails_ShouldLeaveNoClaim() {
+        // Arrange
+        room.setActive(false);
+        when(roomRulesCatalog.find(room.getId())).thenReturn(Optional.of(RoomRules.from(room)));
+
+        // Act
+        assertThatThrownBy(() -> reservationService.createReservation(validRequest))
+                .isInstanceOf(BusinessException.class);
+
+        // Assert
+        assertThat(slotClaimTable.size()).isZero();
+    }
+
     @Test
     void createReservation_WithNonExistentRoom_ShouldThrowNotFoundException() {
         // Arrange
-        when(roomRepository.findById(room.getId())).thenReturn(Optional.empty());
+        when(roomRulesCatalog.find(room.getId())).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> reservationService.createReservation(validRequest))
@@ -147,20 +226,21 @@ class ReservationServiceTest {
                 .hasMessageContaining(room.getId().toString());
 
         verify(reservationRepository, never()).save(any());
-        verify(eventPublisher, never()).publishEvent(any());
+        verify(reservationOutbox, never()).append(any(ReservationCreatedEvent.class));
     }
 
     @Test
     void createReservation_WithInactiveRoom_ShouldThrowBusinessException() {
         // Arrange
         room.setActive(false);
-        when(roomRepository.findById(room.getId())).thenReturn(Optional.of(room));
+        when(roomRulesCatalog.find(room.getId())).thenReturn(Optional.of(RoomRules.from(room)));
 
         // Act & Assert
         assertThatThrownBy(() -> reservationService.createReservation(validRequest))
                 .isInstanceOf(BusinessException.class)
                 .hasMessageContaining("not accepting reservations");
 
+        verify(transactionOperations, never()).execute(any());
         verify(reservationRepository, never()).save(any());
     }
 
@@ -177,7 +257,7 @@ class ReservationServiceTest {
                 validRequest.diner()
         );
 
-        when(roomRepository.findById(room.getId())).thenReturn(Optional.of(room));
+        when(roomRulesCatalog.find(room.getId())).thenReturn(Optional.of(RoomRules.from(room)));
 
         // Act & Assert
         assertThatThrownBy(() -> reservationService.createReservation(requestWithSmallParty))
@@ -200,7 +280,7 @@ class ReservationServiceTest {
                 validRequest.diner()
         );
 
-        when(roomRepository.findById(room.getId())).thenReturn(Optional.of(room));
+        when(roomRulesCatalog.find(room.getId())).thenReturn(Optional.of(RoomRules.from(room)));
 
         // Act & Assert
         assertThatThrownBy(() -> reservationService.createReservation(requestWithLargeParty))
@@ -221,7 +301,7 @@ class ReservationServiceTest {
                 validRequest.diner()
         );
 
-        when(roomRepository.findById(room.getId())).thenReturn(Optional.of(room));
+        when(roomRulesCatalog.find(room.getId())).thenReturn(Optional.of(RoomRules.from(room)));
 
         // Act & Assert
         assertThatThrownBy(() -> reservationService.createReservation(requestWithLowSpend))
@@ -242,7 +322,7 @@ class ReservationServiceTest {
                 validRequest.diner()
         );
 
-        when(roomRepository.findById(room.getId())).thenReturn(Optional.of(room));
+        when(roomRulesCatalog.find(room.getId())).thenReturn(Optional.of(RoomRules.from(room)));
 
         // Act & Assert
         assertThatThrownBy(() -> reservationService.createReservation(requestWithWrongCurrency))
@@ -261,7 +341,7 @@ class ReservationServiceTest {
                 .build();
         reservation.setId(UUID.randomUUID());
 
-        when(reservationRepository.findById(reservation.getId())).thenReturn(Optional.of(reservation));
+        when(reservationRepository.findWithRoomById(reservation.getId())).thenReturn(Optional.of(reservation));
         when(reservationRepository.save(any(Reservation.class))).thenReturn(reservation);
 
         // Act
@@ -276,7 +356,8 @@ class ReservationServiceTest {
         assertThat(response.status()).isEqualTo(ReservationStatus.CANCELLED);
 
         verify(reservationRepository).save(any(Reservation.class));
-        verify(eventPublisher).publishEvent(any(Object.class)); // Cancellation event published
+        verify(reservationOutbox).append(any(ReservationCancelledEvent.class)); // Cancellation event recorded in the outbox
+        verify(availabilityIndex).markReleased(room.getId(), reservation.getReservationDate(), reservation.getTimeSlot());
     }
 
     @Test
@@ -290,7 +371,7 @@ class ReservationServiceTest {
                 .build();
         reservation.setId(UUID.randomUUID());
 
-        when(reservationRepository.findById(reservation.getId())).thenReturn(Optional.of(reservation));
+        when(reservationRepository.findWithRoomById(reservation.getId())).thenReturn(Optional.of(reservation));
         when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         String cancelledBy = "staff@restaurant.com";
@@ -320,7 +401,7 @@ class ReservationServiceTest {
                 .build();
         reservation.setId(UUID.randomUUID());
 
-        when(reservationRepository.findById(reservation.getId())).thenReturn(Optional.of(reservation));
+        when(reservationRepository.findWithRoomById(reservation.getId())).thenReturn(Optional.of(reservation));
 
         // Act & Assert
         assertThatThrownBy(() -> reservationService.cancelReservation(
@@ -345,7 +426,7 @@ class ReservationServiceTest {
                 .build();
         reservation.setId(UUID.randomUUID());
 
-        when(reservationRepository.findById(reservation.getId())).thenReturn(Optional.of(reservation));
+        when(reservationRepository.findWithRoomById(reservation.getId())).thenReturn(Optional.of(reservation));
 
         // Act & Assert
         assertThatThrownBy(() -> reservationService.cancelReservation(
@@ -361,56 +442,89 @@ class ReservationServiceTest {
     void listReservationsByDiner_ShouldReturnAllReservations() {
         // Arrange
         String email = "diner@example.com";
-        List<Reservation> reservations = List.of(
-                TestDataBuilder.reservation().room(room).restaurant(restaurant).dinerEmail(email).build(),
-                TestDataBuilder.reservation().room(room).restaurant(restaurant).dinerEmail(email).build()
-        );
-        Page<Reservation> page = new PageImpl<>(reservations);
+        Reservation first = TestDataBuilder.reservation().room(room).restaurant(restaurant).dinerEmail(email).build();
+        Reservation second = TestDataBuilder.reservation().room(room).restaurant(restaurant).dinerEmail(email).build();
+        // History is merged with the archive by id, so the rows need distinct ones
+        first.setId(UUID.randomUUID());
+        second.setId(UUID.randomUUID());
+        List<ReservationResponse> reservations = List.of(ReservationResponse.from(first), ReservationResponse.from(second));
 
-        when(reservationRepository.findByDinerEmailIgnoreCase(eq(email), any(PageRequest.class))).thenReturn(page);
+        when(reservationRepository.findDinerReservations(email, Limit.of(21))).thenReturn(reservations);
 
         // Act
-        Page<ReservationResponse> responses = reservationService.listReservationsByDiner(email, false, PageRequest.of(0, 20));
+        ReservationPageResponse responses = reservationService.listReservationsByDiner(email, false, null, 20);
 
         // Assert
-        assertThat(responses.getContent()).hasSize(2);
-        verify(reservationRepository).findByDinerEmailIgnoreCase(eq(email), any(PageRequest.class));
+        assertThat(responses.content()).hasSize(2);
+        assertThat(responses.hasNext()).isFalse();
+        assertThat(responses.nextCursor()).isNull();
     }
 
     @Test
     void listReservationsByDiner_WithUpcomingOnly_ShouldCallCorrectMethod() {
         // Arrange
         String email = "diner@example.com";
-        Page<Reservation> emptyPage = new PageImpl<>(List.of());
-        when(reservationRepository.findUpcomingReservations(eq(email), any(LocalDate.class), any(PageRequest.class)))
-                .thenReturn(emptyPage);
+        when(reservationRepository.findUpcomingDinerReservations(eq(email), any(LocalDate.class), any(Limit.class)))
+                .thenReturn(List.of());
 
         // Act
-        reservationService.listReservationsByDiner(email, true, PageRequest.of(0, 20));
+        reservationService.listReservationsByDiner(email, true, null, 20);
 
         // Assert
-        verify(reservationRepository).findUpcomingReservations(eq(email), any(LocalDate.class), any(PageRequest.class));
-        verify(reservationRepository, never()).findByDinerEmailIgnoreCase(any(), any(PageRequest.class));
+        verify(reservationRepository).findUpcomingDinerReservations(eq(email), any(LocalDate.class), any(Limit.class));
+        verify(reservationRepository, never()).findDinerReservations(any(), any());
     }
 
     @Test
     void listReservationsByRestaurant_ShouldReturnAllReservations() {
         // Arrange
         UUID restaurantId = restaurant.getId();
-        List<Reservation> reservations = List.of(
-                TestDataBuilder.reservation().room(room).restaurant(restaurant).build(),
-                TestDataBuilder.reservation().room(room).restaurant(restaurant).build()
+        List<ReservationResponse> reservations = List.of(
+                ReservationResponse.from(TestDataBuilder.reservation().room(room).restaurant(restaurant).build()),
+                ReservationResponse.from(TestDataBuilder.reservation().room(room).restaurant(restaurant).build())
         );
-        Page<Reservation> page = new PageImpl<>(reservations);
 
-        when(reservationRepository.findByRestaurantId(eq(restaurantId), any(PageRequest.class))).thenReturn(page);
+        when(reservationRepository.findRestaurantReservations(restaurantId, Limit.of(21))).thenReturn(reservations);
 
         // Act
-        Page<ReservationResponse> responses = reservationService.listReservationsByRestaurant(restaurantId, PageRequest.of(0, 20));
+        ReservationPageResponse responses = reservationService.listReservationsByRestaurant(restaurantId, null, 20);
 
         // Assert
-        assertThat(responses.getContent()).hasSize(2);
-        verify(reservationRepository).findByRestaurantId(eq(restaurantId), any(PageRequest.class));
+        assertThat(responses.content()).hasSize(2);
+    }
+
+    @Test
+    void listReservationsByRestaurant_WithMoreRowsThanPageSize_ShouldReturnCursorForNextPage() {
+        // Arrange
+        UUID restaurantId = restaurant.getId();
+        Reservation first = TestDataBuilder.reservation().room(room).restaurant(restaurant).reservationDate(LocalDate.now().plusDays(9)).build();
+        Reservation last = TestDataBuilder.reservation().room(room).restaurant(restaurant).reservationDate(LocalDate.now().plusDays(8)).build();
+        Reservation extra = TestDataBuilder.reservation().room(room).restaurant(restaurant).reservationDate(LocalDate.now().plusDays(7)).build();
+        first.setId(UUID.randomUUID());
+        last.setId(UUID.randomUUID());
+        extra.setId(UUID.randomUUID());
+        when(reservationRepository.findRestaurantReservations(restaurantId, Limit.of(3))).thenReturn(List.of(ReservationResponse.from(first), ReservationResponse.from(last), ReservationResponse.from(extra)));
+        when(reservationRepository.findRestaurantReservationsAfter(restaurantId, last.getReservationDate(), last.getId(), Limit.of(3)))
+                .thenReturn(List.of(ReservationResponse.from(extra)));
+
+        // Act
+        ReservationPageResponse firstPage = reservationService.listReservationsByRestaurant(restaurantId, null, 2);
+        ReservationPageResponse secondPage = reservationService.listReservationsByRestaurant(restaurantId, firstPage.nextCursor(), 2);
+
+        // Assert
+        assertThat(firstPage.content()).extracting(ReservationResponse::id).containsExactly(first.getId(), last.getId());
+        assertThat(firstPage.hasNext()).isTrue();
+        assertThat(secondPage.content()).extracting(ReservationResponse::id).containsExactly(extra.getId());
+        assertThat(secondPage.hasNext()).isFalse();
+    }
+
+    @Test
+    void listReservationsByRestaurant_WithTamperedCursor_ShouldThrowBusinessException() {
+        // Act & Assert
+        assertThatThrownBy(() -> reservationService.listReservationsByRestaurant(restaurant.getId(), "not-a-cursor", 20))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Invalid cursor");
+        verifyNoInteractions(reservationRepository);
     }
 
     @Test
@@ -422,7 +536,7 @@ class ReservationServiceTest {
                 .build();
         reservation.setId(UUID.randomUUID());
 
-        when(reservationRepository.findById(reservation.getId())).thenReturn(Optional.of(reservation));
+        when(reservationRepository.findResponseById(reservation.getId())).thenReturn(Optional.of(ReservationResponse.from(reservation)));
 
         // Act
         ReservationResponse response = reservationService.getReservationDetails(reservation.getId());
@@ -432,11 +546,31 @@ class ReservationServiceTest {
         assertThat(response.id()).isEqualTo(reservation.getId());
     }
 
+    @Test
+    void getReservationDetails_WhenArchived_ShouldReturnReservationFromArchive() {
+        // Arrange
+        Reservation reservation = TestDataBuilder.reservation()
+                .room(room)
+                .restaurant(restaurant)
+                .build();
+        reservation.setId(UUID.randomUUID());
+
+        when(reservationRepository.findResponseById(reservation.getId())).thenReturn(Optional.empty());
+        when(archivedReservationRepository.findResponseById(reservation.getId())).thenReturn(Optional.of(ReservationResponse.from(reservation)));
+
+        // Act
+        ReservationResponse response = reservationService.getReservationDetails(reservation.getId());
+
+        // Assert
+        assertThat(response.id()).isEqualTo(reservation.getId());
+    }
+
     @Test
     void getReservationDetails_WithInvalidId_ShouldThrowNotFoundException() {
         // Arrange
         UUID invalidId = UUID.randomUUID();
-        when(reservationRepository.findById(invalidId)).thenReturn(Optional.empty());
+        when(reservationRepository.findResponseById(invalidId)).thenReturn(Optional.empty());
+        when(archivedReservationRepository.findResponseById(invalidId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> reservationService.getReservationDetails(invalidId))
@@ -444,4 +578,47 @@ class ReservationServiceTest {
                 .hasMessageContaining("Reservation")
                 .hasMessageContaining(invalidId.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void createReservations_ShouldReportOutcomePerItemAndSaveAcceptedTogether() {
+        // Arrange
+        LocalDate date = validRequest.reservationDate();
+        LocalDate bookedDate = date.plusDays(1);
+        UUID unknownRoomId = UUID.randomUUID();
+        List<CreateReservationRequest> requests = List.of(
+                validRequest,
+                validRequest,
+                withRoomDateAndParty(room.getId(), bookedDate, 4),
+                withRoomDateAndParty(unknownRoomId, date, 4),
+                withRoomDateAndParty(room.getId(), date.plusDays(2), 20)
+        );
+
+        when(roomRulesCatalog.findAll(any())).thenReturn(Map.of(room.getId(), RoomRules.from(room)));
+        when(roomRepository.getReferenceById(room.getId())).thenReturn(room);
+        when(restaurantRepository.getReferenceById(restaurant.getId())).thenReturn(restaurant);
+        when(reservationRepository.findBookedSlotsForRooms(any(), eq(date), eq(date.plusDays(2)), eq(AvailabilityIndex.ACTIVE_STATUSES)))
+                .thenReturn(List.of(new BookedSlot(room.getId(), bookedDate, TimeSlot.DINNER)));
+        when(reservationRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        BatchReservationResponse response = reservationService.createReservations(requests);
+
+        // Assert
+        assertThat(response.created()).isEqualTo(1);
+        assertThat(response.failed()).isEqualTo(4);
+        assertThat(response.results()).extracting(BatchReservationResponse.Item::outcome).containsExactly(
+                Outcome.CREATED, Outcome.CONFLICT, Outcome.CONFLICT, Outcome.REJECTED, Outcome.REJECTED);
+        assertThat(response.results().get(4).message()).isEqualTo("Party size outside room capacity");
+
+        verify(reservationRepository, never()).existsByRoomIdAndReservationDateAndTimeSlotAndStatusIn(any(), any(), any(), any());
+        verify(reservationRepository).saveAll(anyList());
+        verify(reservationRepository).flush();
+        verify(reservationOutbox, times(1)).append(any(ReservationCreatedEvent.class));
+        assertThat(slotClaimTable.size()).isZero();
+    }
+
+    private CreateReservationRequest withRoomDateAndParty(UUID roomId, LocalDate date, int partySize) {
+        return new CreateReservationRequest(roomId, date, validRequest.timeSlot(), partySize,
+                validRequest.estimatedSpend(), validRequest.specialRequests(), validRequest.diner());
+    }
+}
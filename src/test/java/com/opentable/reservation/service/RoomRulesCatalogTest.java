@@ -0,0 +1,110 @@
+package com.opentable.reservation.service;
+
+import com.opentable.reservation.repository.RoomRepository;
+import com.opentable.reservation.repository.RoomRules;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoomRulesCatalogTest {
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    private RoomRulesCatalog catalog;
+    private RoomRules rules;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new RoomRulesCatalog(roomRepository);
+        rules = rules(UUID.randomUUID(), true);
+    }
+
+    @Test
+    void find_WhenRoomNotInCatalog_ShouldLoadItOnceAndThenServeFromMemory() {
+        // Arrange
+        when(roomRepository.findRoomRules(any())).thenReturn(List.of(rules));
+
+        // Act
+        catalog.find(rules.roomId());
+        RoomRules found = catalog.find(rules.roomId()).orElseThrow();
+
+        // Assert
+        assertThat(found).isEqualTo(rules);
+        verify(roomRepository, times(1)).findRoomRules(any());
+        assertThat(catalog.version()).isEqualTo(1);
+    }
+
+    @Test
+    void find_WhenRoomDoesNotExist_ShouldReturnEmpty() {
+        // Arrange
+        when(roomRepository.findRoomRules(any())).thenReturn(List.of());
+
+        // Act & Assert
+        assertThat(catalog.find(UUID.randomUUID())).isEmpty();
+        assertThat(catalog.version()).isZero();
+    }
+
+    @Test
+    void find_WhenRoomChangesDuringLoad_ShouldNotCacheWhatTheLoadRead() {
+        // Arrange
+        RoomRules deactivated = rules(rules.roomId(), false);
+        when(roomRepository.findRoomRules(any())).thenAnswer(invocation -> {
+            catalog.put(deactivated);
+            return List.of(rules);
+        });
+
+        // Act
+        catalog.find(rules.roomId());
+
+        // Assert
+        assertThat(catalog.find(rules.roomId())).contains(deactivated);
+        verify(roomRepository, times(1)).findRoomRules(any());
+    }
+
+    @Test
+    void refresh_ShouldReplaceCatalogWithEveryRoom() {
+        // Arrange
+        RoomRules other = rules(UUID.randomUUID(), true);
+        when(roomRepository.findAllRoomRules()).thenReturn(List.of(rules, other));
+
+        // Act
+        catalog.refresh();
+
+        // Assert
+        assertThat(catalog.findAll(List.of(rules.roomId(), other.roomId()))).containsValues(rules, other);
+        verify(roomRepository, never()).findRoomRules(any());
+        assertThat(catalog.version()).isEqualTo(1);
+    }
+
+    @Test
+    void evict_ShouldReadRoomAgainOnNextLookup() {
+        // Arrange
+        when(roomRepository.findAllRoomRules()).thenReturn(List.of(rules));
+        when(roomRepository.findRoomRules(any())).thenReturn(List.of());
+        catalog.refresh();
+
+        // Act
+        catalog.evict(rules.roomId());
+
+        // Assert
+        assertThat(catalog.find(rules.roomId())).isEmpty();
+        verify(roomRepository).findRoomRules(Set.of(rules.roomId()));
+    }
+
+    private static RoomRules rules(UUID roomId, boolean active) {
+        return new RoomRules(roomId, UUID.randomUUID(), "Wine Cellar", active, 2, 10, new BigDecimal("500.00"), "USD");
+    }
+}
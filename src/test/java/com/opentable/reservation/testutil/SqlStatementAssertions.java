@@ -0,0 +1,81 @@
+package com.opentable.reservation.testutil;
+
+import com.opentable.reservation.instrumentation.RequestProfile;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins the number of SQL statements an endpoint or a block of code executes, so that an N+1
+ * regression fails a test instead of surfacing under load.
+ * <p>
+ * MockMvc requests are profiled by the request profiling filter; use {@link #sqlStatements(int)}
+ * or {@link #sqlStatementsAtMost(int)} as result matchers. Code called directly can be measured
+ * with {@link #countSqlStatements(Runnable)}, and the SQL it issues captured with
+ * {@link #captureSqlStatements(Runnable)}.
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    public static ResultMatcher sqlStatements(int expected) {
+        return result -> assertThat(profile(result).sqlStatements())
+                .as(description(result))
+                .isEqualTo(expected);
+    }
+
+    public static ResultMatcher sqlStatementsAtMost(int max) {
+        return result -> assertThat(profile(result).sqlStatements())
+                .as(description(result))
+                .isLessThanOrEqualTo(max);
+    }
+
+    /**
+     * Returns the statement count of a profiled MockMvc request.
+     */
+    public static int sqlStatementsOf(MvcResult result) {
+        return profile(result).sqlStatements();
+    }
+
+    /**
+     * Runs the action on the current thread and returns the SQL statements Hibernate executed for it.
+     */
+    public static int countSqlStatements(Runnable action) {
+        RequestProfile profile = RequestProfile.start();
+        try {
+            action.run();
+        } finally {
+            profile.finish();
+        }
+        return profile.sqlStatements();
+    }
+
+    /**
+     * Runs the action on the current thread and returns the SQL of each statement Hibernate executed
+     * for it, with {@code ?} placeholders.
+     */
+    public static List<String> captureSqlStatements(Runnable action) {
+        RequestProfile profile = RequestProfile.startCapturingSql();
+        try {
+            action.run();
+        } finally {
+            profile.finish();
+        }
+        return profile.statements();
+    }
+
+    private static RequestProfile profile(MvcResult result) {
+        Object profile = result.getRequest().getAttribute(RequestProfile.REQUEST_ATTRIBUTE);
+        assertThat(profile).as("Request %s was not profiled", result.getRequest().getRequestURI()).isInstanceOf(RequestProfile.class);
+        return (RequestProfile) profile;
+    }
+
+    private static String description(MvcResult result) {
+        return "SQL statements for %s %s (%s)".formatted(result.getRequest().getMethod(), result.getRequest().getRequestURI(),
+                profile(result).serverTiming());
+    }
+}